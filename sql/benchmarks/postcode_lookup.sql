@@ -0,0 +1,72 @@
+-- --------------------------------------------------------
+--
+-- Compares postcode lookup latency without and with the postcode indexes.
+-- Run against a table loaded with the full dataset, after V2__postcode_indexes.sql:
+--
+--   mysql geodb < sql/benchmarks/postcode_lookup.sql
+--
+-- EXPLAIN ANALYZE executes each query and reports the actual time per plan step.
+-- "Before" ignores the new indexes (full table scan); "after" is the entity lookup
+-- through the unique index and the projection read served from the covering index
+-- ("Covering index lookup" in the plan, no clustered index access).
+--
+
+SELECT COUNT(*) AS `rows` FROM `postcodelatlng`;
+
+-- Before: full table scan
+EXPLAIN ANALYZE
+SELECT `id`, `postcode`, `latitude`, `longitude`
+FROM `postcodelatlng` IGNORE INDEX (`ux_postcodelatlng_postcode`, `ix_postcodelatlng_postcode_coordinates`)
+WHERE `postcode` = 'SW1A 1AA';
+
+-- After: entity lookup (findByPostcode) through the unique index
+EXPLAIN ANALYZE
+SELECT `id`, `postcode`, `latitude`, `longitude`
+FROM `postcodelatlng` FORCE INDEX (`ux_postcodelatlng_postcode`)
+WHERE `postcode` = 'SW1A 1AA';
+
+-- After: projection lookup (findCoordinatesByPostcode) from the covering index
+EXPLAIN ANALYZE
+SELECT `postcode`, `latitude`, `longitude`
+FROM `postcodelatlng` FORCE INDEX (`ix_postcodelatlng_postcode_coordinates`)
+WHERE `postcode` = 'SW1A 1AA';
+
+-- Throughput: 10,000 lookups of a postcode near the end of the table, each way
+DROP PROCEDURE IF EXISTS `benchmark_postcode_lookup`;
+
+DELIMITER //
+CREATE PROCEDURE `benchmark_postcode_lookup`(IN iterations INT)
+BEGIN
+  DECLARE i INT DEFAULT 0;
+  DECLARE target VARCHAR(8);
+  DECLARE lat DECIMAL(10,7);
+  DECLARE lon DECIMAL(10,7);
+  DECLARE started DATETIME(6);
+
+  SELECT `postcode` INTO target FROM `postcodelatlng` ORDER BY `id` DESC LIMIT 1;
+
+  SET started = NOW(6);
+  WHILE i < iterations / 100 DO
+    SELECT `latitude`, `longitude` INTO lat, lon
+    FROM `postcodelatlng` IGNORE INDEX (`ux_postcodelatlng_postcode`, `ix_postcodelatlng_postcode_coordinates`)
+    WHERE `postcode` = target;
+    SET i = i + 1;
+  END WHILE;
+  SELECT 'table scan' AS `path`, iterations / 100 AS `lookups`,
+         TIMESTAMPDIFF(MICROSECOND, started, NOW(6)) / (iterations / 100) AS `avg_us`;
+
+  SET i = 0;
+  SET started = NOW(6);
+  WHILE i < iterations DO
+    SELECT `latitude`, `longitude` INTO lat, lon
+    FROM `postcodelatlng` FORCE INDEX (`ix_postcodelatlng_postcode_coordinates`)
+    WHERE `postcode` = target;
+    SET i = i + 1;
+  END WHILE;
+  SELECT 'covering index' AS `path`, iterations AS `lookups`,
+         TIMESTAMPDIFF(MICROSECOND, started, NOW(6)) / iterations AS `avg_us`;
+END //
+DELIMITER ;
+
+CALL `benchmark_postcode_lookup`(10000);
+DROP PROCEDURE `benchmark_postcode_lookup`;
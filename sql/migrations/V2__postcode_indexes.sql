@@ -0,0 +1,31 @@
+-- --------------------------------------------------------
+--
+-- Adds the postcode indexes to an existing `postcodelatlng` table.
+--
+-- 1. Rewrites postcodes into the canonical form used by the service
+--    ("SW1A 1AA": upper case, single space before the inward code).
+-- 2. Removes duplicate postcodes, keeping the most recently inserted row.
+-- 3. Adds the unique and covering indexes online.
+--
+
+UPDATE `postcodelatlng`
+SET `postcode` = CONCAT(
+        LEFT(REPLACE(UPPER(TRIM(`postcode`)), ' ', ''), CHAR_LENGTH(REPLACE(TRIM(`postcode`), ' ', '')) - 3),
+        ' ',
+        RIGHT(REPLACE(UPPER(TRIM(`postcode`)), ' ', ''), 3))
+WHERE CHAR_LENGTH(REPLACE(TRIM(`postcode`), ' ', '')) BETWEEN 5 AND 7
+  AND `postcode` COLLATE utf8mb4_bin <> CONCAT(
+        LEFT(REPLACE(UPPER(TRIM(`postcode`)), ' ', ''), CHAR_LENGTH(REPLACE(TRIM(`postcode`), ' ', '')) - 3),
+        ' ',
+        RIGHT(REPLACE(UPPER(TRIM(`postcode`)), ' ', ''), 3));
+
+DELETE older
+FROM `postcodelatlng` older
+JOIN `postcodelatlng` newer
+  ON newer.`postcode` = older.`postcode`
+ AND newer.`id` > older.`id`;
+
+ALTER TABLE `postcodelatlng`
+  ADD UNIQUE KEY `ux_postcodelatlng_postcode` (`postcode`),
+  ADD KEY `ix_postcodelatlng_postcode_coordinates` (`postcode`, `latitude`, `longitude`),
+  ALGORITHM = INPLACE, LOCK = NONE;
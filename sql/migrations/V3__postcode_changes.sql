@@ -0,0 +1,18 @@
+-- --------------------------------------------------------
+--
+-- Adds the `postcode_changes` log that keeps replicas in step.
+--
+-- Every write through the service appends to this table in the same
+-- transaction, so it must exist before upgrading to a version with
+-- `geo.changes.enabled=true` (the default).
+--
+
+CREATE TABLE IF NOT EXISTS `postcode_changes` (
+  `version` bigint NOT NULL AUTO_INCREMENT,
+  `postcode` varchar(8) NOT NULL,
+  `latitude` decimal(10,7) NULL,
+  `longitude` decimal(10,7) NULL,
+  `changed_at` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`version`),
+  KEY `ix_postcode_changes_changed_at` (`changed_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
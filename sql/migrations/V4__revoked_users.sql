@@ -0,0 +1,16 @@
+-- --------------------------------------------------------
+--
+-- Adds the `revoked_users` table that shares token revocations
+-- between replicas.
+--
+-- Revoking a user's tokens writes to this table, so it must exist
+-- before upgrading to a version with `jwt.revocations.shared=true`
+-- (the default). `revoked_at` is in epoch milliseconds.
+--
+
+CREATE TABLE IF NOT EXISTS `revoked_users` (
+  `username` varchar(255) NOT NULL,
+  `revoked_at` bigint NOT NULL,
+  PRIMARY KEY (`username`),
+  KEY `ix_revoked_users_revoked_at` (`revoked_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
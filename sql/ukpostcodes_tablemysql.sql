@@ -1,12 +1,41 @@
--- --------------------------------------------------------
---
--- Table structure for table `postcodelatlng`
---
-
-CREATE TABLE IF NOT EXISTS `postcodelatlng` (
-  `id` int(11) NOT NULL AUTO_INCREMENT,
-  `postcode` varchar(8) NOT NULL,
-  `latitude` decimal(10,7) NULL,
-  `longitude` decimal(10,7) NULL,
-  PRIMARY KEY (`id`)
-) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+-- --------------------------------------------------------
+--
+-- Table structure for table `postcodelatlng`
+--
+
+CREATE TABLE IF NOT EXISTS `postcodelatlng` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `postcode` varchar(8) NOT NULL,
+  `latitude` decimal(10,7) NULL,
+  `longitude` decimal(10,7) NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `ux_postcodelatlng_postcode` (`postcode`),
+  KEY `ix_postcodelatlng_postcode_coordinates` (`postcode`, `latitude`, `longitude`)
+) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- --------------------------------------------------------
+--
+-- Table structure for table `postcode_changes`
+--
+
+CREATE TABLE IF NOT EXISTS `postcode_changes` (
+  `version` bigint NOT NULL AUTO_INCREMENT,
+  `postcode` varchar(8) NOT NULL,
+  `latitude` decimal(10,7) NULL,
+  `longitude` decimal(10,7) NULL,
+  `changed_at` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`version`),
+  KEY `ix_postcode_changes_changed_at` (`changed_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- --------------------------------------------------------
+--
+-- Table structure for table `revoked_users`
+--
+
+CREATE TABLE IF NOT EXISTS `revoked_users` (
+  `username` varchar(255) NOT NULL,
+  `revoked_at` bigint NOT NULL,
+  PRIMARY KEY (`username`),
+  KEY `ix_revoked_users_revoked_at` (`revoked_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
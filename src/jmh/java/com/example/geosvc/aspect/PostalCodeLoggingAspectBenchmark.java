@@ -0,0 +1,71 @@
+package com.example.geosvc.aspect;
+
+import com.example.geosvc.controller.PostalCodeController;
+import com.example.geosvc.distance.ScalarHaversineKernel;
+import com.example.geosvc.metrics.GeoMetrics;
+import com.example.geosvc.dto.DistanceRequest;
+import com.example.geosvc.service.DistancePairCache;
+import com.example.geosvc.service.PostalCodeResponseCache;
+import com.example.geosvc.service.PostalCodeService;
+import com.example.geosvc.store.SyntheticPostcodes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.NOPLogger;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+/**
+ * Overhead of {@link PostalCodeLoggingAspect} on the distance endpoint: the same controller
+ * call with and without the aspect. Log output is discarded so only the advice is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostalCodeLoggingAspectBenchmark {
+
+    private PostalCodeController controller;
+    private PostalCodeController advisedController;
+    private DistanceRequest request;
+
+    @Setup
+    public void setUp() {
+        SyntheticPostcodes data = SyntheticPostcodes.generate(10_000, 42);
+        GeoMetrics metrics = new GeoMetrics(new SimpleMeterRegistry());
+        DistancePairCache pairCache = new DistancePairCache(new ObjectMapper(), metrics, new SimpleMeterRegistry(), 10_000);
+        PostalCodeService service = new PostalCodeService(null, data.toStore(), null, null, new ScalarHaversineKernel(),
+                metrics, null, pairCache);
+        PostalCodeResponseCache responseCache = new PostalCodeResponseCache(new ObjectMapper(), metrics,
+                new SimpleMeterRegistry(), 10_000);
+        controller = new PostalCodeController(service, null, null, responseCache, Duration.ofHours(1));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(controller);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new PostalCodeLoggingAspect(NOPLogger.NOP_LOGGER));
+        advisedController = factory.getProxy();
+
+        request = new DistanceRequest(SyntheticPostcodes.postcode(1), SyntheticPostcodes.postcode(2));
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> withoutAspect() {
+        return controller.calculateDistance(request, "haversine");
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> withAspect() {
+        return advisedController.calculateDistance(request, "haversine");
+    }
+}
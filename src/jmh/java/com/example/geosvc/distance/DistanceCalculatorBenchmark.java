@@ -0,0 +1,55 @@
+package com.example.geosvc.distance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Pairs per second for each {@link DistanceMode}, on pairs of UK points in degrees.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OperationsPerInvocation(DistanceCalculatorBenchmark.PAIRS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DistanceCalculatorBenchmark {
+
+    static final int PAIRS = 1024;
+
+    @Param({"HAVERSINE", "VINCENTY", "EQUIRECTANGULAR"})
+    private DistanceMode mode;
+
+    private DistanceCalculator calculator;
+    private double[] points;
+
+    @Setup
+    public void setUp() {
+        calculator = mode.calculator();
+        Random random = new Random(42);
+        points = new double[PAIRS * 4];
+        for (int i = 0; i < points.length; i += 2) {
+            points[i] = 49.9 + random.nextDouble() * 11;
+            points[i + 1] = -8.2 + random.nextDouble() * 10;
+        }
+    }
+
+    @Benchmark
+    public double distance() {
+        double sum = 0;
+        for (int i = 0; i < points.length; i += 4) {
+            sum += calculator.distance(points[i], points[i + 1], points[i + 2], points[i + 3]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.geosvc.distance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Pairs per second for each {@link HaversineKernel}: one origin against a row of UK points,
+ * the shape of a distance matrix row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OperationsPerInvocation(HaversineKernelBenchmark.POINTS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class HaversineKernelBenchmark {
+
+    static final int POINTS = 4096;
+
+    @Param({"scalar", "vector"})
+    private String kernelName;
+
+    private HaversineKernel kernel;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] cosines;
+    private double[] target;
+
+    @Setup
+    public void setUp() {
+        kernel = HaversineKernels.create(kernelName);
+        if (!kernel.name().equals(kernelName)) {
+            throw new IllegalStateException("Kernel " + kernelName + " is not available");
+        }
+        Random random = new Random(42);
+        latitudes = new double[POINTS];
+        longitudes = new double[POINTS];
+        cosines = new double[POINTS];
+        target = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = Math.toRadians(49.9 + random.nextDouble() * 11);
+            longitudes[i] = Math.toRadians(-8.2 + random.nextDouble() * 10);
+            cosines[i] = Math.cos(latitudes[i]);
+        }
+    }
+
+    @Benchmark
+    public double[] oneToMany() {
+        kernel.distances(latitudes[0], longitudes[0], cosines[0], latitudes, longitudes, cosines, 0, POINTS, target, 0);
+        return target;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.geosvc.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jackson serialization of a {@link DistanceResponse}, as written for every distance request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DistanceResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private DistanceResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        response = new DistanceResponse(
+                new DistanceResponse.Location("SW1A 1AA", 51.5035, -0.1277),
+                new DistanceResponse.Location("EC2A 2AH", 51.5200, -0.0800),
+                3.4521,
+                "haversine",
+                0.0193);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.geosvc.importer;
+
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeKey;
+import com.example.geosvc.store.SyntheticPostcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to parse a {@link #ROWS}-row file in the {@code ukpostcodes.csv} layout, against reading
+ * it line by line with {@code String.split} and {@code BigDecimal}. Database writes are left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CsvPostcodeParserBenchmark {
+
+    private static final int ROWS = 200_000;
+
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        SyntheticPostcodes data = SyntheticPostcodes.generate(ROWS, 42);
+        StringBuilder builder = new StringBuilder("id,postcode,latitude,longitude\n");
+        for (int n = 0; n < ROWS; n++) {
+            builder.append(n + 1).append(',')
+                    .append(SyntheticPostcodes.postcode(n)).append(',')
+                    .append(Coordinates.toBigDecimal(Coordinates.latitudeE7(data.coordinates(n)))).append(',')
+                    .append(Coordinates.toBigDecimal(Coordinates.longitudeE7(data.coordinates(n)))).append('\n');
+        }
+        csv = builder.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public void parser(Blackhole blackhole) throws IOException {
+        new CsvPostcodeParser(new ByteArrayInputStream(csv)).parse(new PostcodeRecordHandler() {
+            @Override
+            public void accept(long key, int latitudeE7, int longitudeE7) {
+                blackhole.consume(key);
+                blackhole.consume(Coordinates.pack(latitudeE7, longitudeE7));
+            }
+
+            @Override
+            public void reject(long line, String reason) {
+                blackhole.consume(line);
+            }
+        });
+    }
+
+    @Benchmark
+    public void splitLines(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.US_ASCII))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                blackhole.consume(PostcodeKey.encode(fields[1]));
+                blackhole.consume(Coordinates.pack(
+                        Coordinates.toE7(new BigDecimal(fields[2])),
+                        Coordinates.toE7(new BigDecimal(fields[3]))));
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.geosvc.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Token checks done by {@link JwtAuthenticationFilter} on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService("uQf3Yvk3zo2uG12aK7ZF9i00p2T+RSkxmZk5mYhD1t8=", 86_400_000L);
+        userDetails = User.withUsername("admin").password("unused").roles("ADMIN").build();
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token, userDetails);
+    }
+}
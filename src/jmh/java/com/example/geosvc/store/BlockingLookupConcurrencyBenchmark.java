@@ -0,0 +1,119 @@
+package com.example.geosvc.store;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time to serve {@link #REQUESTS} concurrent postcode lookups that all miss the
+ * {@link PostcodeCache} and block for {@link #QUERY_MILLIS} ms on a simulated database read.
+ * <p>
+ * {@code platform} is a 200-thread pool, the Tomcat default; {@code virtual} starts a virtual
+ * thread per request, as with {@code spring.threads.virtual.enabled=true}. With
+ * {@code monitor=true} the read holds a {@code synchronized} lock, the way Connector/J 8.x holds
+ * its connection mutex, which pins each virtual thread to its carrier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BlockingLookupConcurrencyBenchmark {
+
+    private static final int REQUESTS = 10_000;
+    private static final int QUERY_MILLIS = 2;
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"false", "true"})
+    public boolean monitor;
+
+    private long[] keys;
+    // One uncontended lock per request, like a connection's own mutex
+    private Object[] locks;
+    private ExecutorService executor;
+    private PostcodeCache cache;
+    private final LongAdder found = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        SyntheticPostcodes data = SyntheticPostcodes.generate(REQUESTS, 42);
+        keys = new long[REQUESTS];
+        locks = new Object[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            keys[i] = data.key(i);
+            locks[i] = new Object();
+        }
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    // A fresh cache each time so every request goes to the "database"
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        cache = new PostcodeCache(new SimpleMeterRegistry(), REQUESTS, Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public long lookups() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            long key = keys[i];
+            Object lock = locks[i];
+            executor.execute(() -> {
+                if (cache.find(key, k -> query(k, lock)) != PostcodeStore.NOT_FOUND) {
+                    found.increment();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        return found.sum();
+    }
+
+    private long query(long key, Object lock) {
+        if (monitor) {
+            synchronized (lock) {
+                sleep();
+            }
+        } else {
+            sleep();
+        }
+        return key;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(QUERY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.geosvc.store;
+
+import com.example.geosvc.distance.ScalarHaversineKernel;
+import com.example.geosvc.metrics.GeoMetrics;
+import com.example.geosvc.dto.DistanceResponse;
+import com.example.geosvc.service.PostalCodeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Postcode lookups against a store loaded with {@link SyntheticPostcodes#UK_SIZE} postcodes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PostcodeLookupBenchmark {
+
+    private static final int QUERIES = 1 << 16;
+
+    private PostcodeStore store;
+    private PostalCodeService service;
+    private long[] keys;
+    private String[] postcodes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticPostcodes data = SyntheticPostcodes.generate(SyntheticPostcodes.UK_SIZE, 42);
+        store = data.toStore();
+        // Nothing below touches the database, the index or events once the store is loaded
+        service = new PostalCodeService(null, store, null, null, new ScalarHaversineKernel(),
+                new GeoMetrics(new SimpleMeterRegistry()), null, null);
+
+        Random random = new Random(7);
+        keys = new long[QUERIES];
+        postcodes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int n = random.nextInt(data.size());
+            keys[i] = data.key(n);
+            // Mix of canonical and compact lower-case input, as clients send both
+            postcodes[i] = i % 2 == 0 ? SyntheticPostcodes.postcode(n) : SyntheticPostcodes.postcode(n).replace(" ", "").toLowerCase();
+        }
+    }
+
+    @Benchmark
+    public long findByKey() {
+        return store.find(keys[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public long encodeAndFind() {
+        return store.find(PostcodeKey.encode(postcodes[next++ & (QUERIES - 1)]));
+    }
+
+    @Benchmark
+    public DistanceResponse calculateDistance() {
+        int i = next++ & (QUERIES - 1);
+        return service.calculateDistance(postcodes[i], postcodes[(i + 1) & (QUERIES - 1)]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.geosvc.store;
+
+import java.util.Random;
+
+/**
+ * Deterministic stand-in for the full {@code postcodelatlng} table so benchmarks run offline.
+ * <p>
+ * Postcode {@code n} is distinct and valid for every {@code n} below {@link #MAX_SIZE}, with
+ * coordinates spread over the UK's bounding box.
+ */
+public final class SyntheticPostcodes {
+
+    public static final int UK_SIZE = 1_800_000;
+    public static final int MAX_SIZE = 26 * 26 * 10 * 10 * 26 * 26;
+
+    private final long[] keys;
+    private final long[] coordinates;
+
+    private SyntheticPostcodes(long[] keys, long[] coordinates) {
+        this.keys = keys;
+        this.coordinates = coordinates;
+    }
+
+    public static SyntheticPostcodes generate(int size, long seed) {
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_SIZE + " synthetic postcodes");
+        }
+        Random random = new Random(seed);
+        long[] keys = new long[size];
+        long[] coordinates = new long[size];
+        for (int n = 0; n < size; n++) {
+            keys[n] = PostcodeKey.encode(postcode(n));
+            coordinates[n] = Coordinates.pack(
+                    Coordinates.toE7(49.9 + random.nextDouble() * 10.9),
+                    Coordinates.toE7(-8.2 + random.nextDouble() * 10));
+        }
+        return new SyntheticPostcodes(keys, coordinates);
+    }
+
+    /**
+     * The {@code n}th synthetic postcode: a two-letter area, a district digit and a full inward code.
+     */
+    public static String postcode(int n) {
+        int inward = n % 6760;
+        int outward = n / 6760;
+        char[] chars = {
+                (char) ('A' + outward / 260 % 26),
+                (char) ('A' + outward / 10 % 26),
+                (char) ('0' + outward % 10),
+                ' ',
+                (char) ('0' + inward / 676),
+                (char) ('A' + inward / 26 % 26),
+                (char) ('A' + inward % 26)
+        };
+        return new String(chars);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public long key(int n) {
+        return keys[n];
+    }
+
+    public long coordinates(int n) {
+        return coordinates[n];
+    }
+
+    public PostcodeStore toStore() {
+        PostcodeStore store = new PostcodeStore();
+        store.load(keys, coordinates, keys.length);
+        return store;
+    }
+}
@@ -1,68 +1,54 @@
 package com.example.geosvc.aspect;
 
 import com.example.geosvc.dto.DistanceRequest;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
+import jakarta.annotation.PreDestroy;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.UUID;
-
+/**
+ * Logs a {@code POSTAL_CODE_REQUEST} record when a distance request arrives and when it
+ * completes. Records are buffered in a {@link RequestLog} and written off the request thread.
+ * The line format is relied on by downstream parsers and must not change; latency and failures
+ * are reported through the {@code http.server.requests} metrics instead.
+ */
 @Aspect
 @Component
 public class PostalCodeLoggingAspect {
-    private final Logger logger;
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
-    private static final ThreadLocal<String> requestIdHolder = new ThreadLocal<>();
-    private static final String EVENT_TYPE = "get_postalcode_latlong_distance";
+    private static final int BUFFER_CAPACITY = 1 << 14;
+
+    private final RequestLog requestLog;
 
     public PostalCodeLoggingAspect() {
-        this.logger = LoggerFactory.getLogger(PostalCodeLoggingAspect.class);
+        this(LoggerFactory.getLogger(PostalCodeLoggingAspect.class));
     }
 
     // Constructor for testing
     PostalCodeLoggingAspect(Logger logger) {
-        this.logger = logger;
+        this.requestLog = new RequestLog(logger, BUFFER_CAPACITY);
+        this.requestLog.start();
+    }
+
+    @Around("execution(* com.example.geosvc.controller.PostalCodeController.calculateDistance(..)) && args(request, ..)")
+    public Object logDistanceRequest(ProceedingJoinPoint joinPoint, DistanceRequest request) throws Throwable {
+        String postcode1 = request.getPostcode1();
+        String postcode2 = request.getPostcode2();
+        long requestId = requestLog.nextRequestId();
+        requestLog.offer(requestId, postcode1, postcode2, RequestLog.REQUEST_RECEIVED);
+        Object result = joinPoint.proceed();
+        requestLog.offer(requestId, postcode1, postcode2, RequestLog.REQUEST_COMPLETED);
+        return result;
     }
 
-    @Before("execution(* com.example.geosvc.controller.PostalCodeController.calculateDistance(..)) && args(request)")
-    public void logDistanceRequest(DistanceRequest request) {
-        String requestId = UUID.randomUUID().toString();
-        requestIdHolder.set(requestId);
-        
-        String timestamp = LocalDateTime.now().format(formatter);
-        String logMessage = String.format("POSTAL_CODE_REQUEST|%s|%s|%s|%s|%s|%s",
-            timestamp,
-            requestId,
-            EVENT_TYPE,
-            request.getPostcode1(),
-            request.getPostcode2(),
-            "REQUEST_RECEIVED");
-        
-        logger.info(logMessage);
+    void flush() {
+        requestLog.flush();
     }
 
-    @AfterReturning(pointcut = "execution(* com.example.geosvc.controller.PostalCodeController.calculateDistance(..))", 
-                   returning = "result")
-    public void logDistanceResponse(JoinPoint joinPoint, Object result) {
-        DistanceRequest request = (DistanceRequest) joinPoint.getArgs()[0];
-        String requestId = requestIdHolder.get();
-        
-        String timestamp = LocalDateTime.now().format(formatter);
-        String logMessage = String.format("POSTAL_CODE_REQUEST|%s|%s|%s|%s|%s|%s",
-            timestamp,
-            requestId,
-            EVENT_TYPE,
-            request.getPostcode1(),
-            request.getPostcode2(),
-            "REQUEST_COMPLETED");
-        
-        logger.info(logMessage);
-        requestIdHolder.remove();
+    @PreDestroy
+    public void close() {
+        requestLog.close();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,208 @@
+package com.example.geosvc.aspect;
+
+import org.slf4j.Logger;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded lock-free buffer of {@code POSTAL_CODE_REQUEST} records, formatted and logged in
+ * batches by a background writer.
+ * <p>
+ * Request threads only claim a slot with a CAS and store primitive fields and references into
+ * it; all formatting happens on the writer. Each slot carries a sequence number (a Vyukov
+ * bounded queue), so producers never block: when the buffer is full the record is dropped
+ * and counted instead.
+ */
+final class RequestLog {
+
+    static final byte REQUEST_RECEIVED = 0;
+    static final byte REQUEST_COMPLETED = 1;
+
+    private static final String[] STATUS_NAMES = {"REQUEST_RECEIVED", "REQUEST_COMPLETED"};
+    private static final String EVENT_TYPE = "get_postalcode_latlong_distance";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final Logger logger;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final long[] requestIds;
+    private final String[] postcodes1;
+    private final String[] postcodes2;
+    private final byte[] statuses;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong requestCounter = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final StringBuilder line = new StringBuilder(160);
+    private final ZoneId zone = ZoneId.systemDefault();
+    // Request ids are formatted as version 4 UUIDs sharing a random per-process prefix
+    private final long requestIdPrefix = UUID.randomUUID().getMostSignificantBits();
+    private long head;
+    private volatile boolean running;
+    private Thread writer;
+
+    RequestLog(Logger logger, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.logger = logger;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.timestamps = new long[capacity];
+        this.requestIds = new long[capacity];
+        this.postcodes1 = new String[capacity];
+        this.postcodes2 = new String[capacity];
+        this.statuses = new byte[capacity];
+    }
+
+    synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "postal-code-request-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer and logs whatever is still buffered.
+     */
+    synchronized void close() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        flush();
+    }
+
+    long nextRequestId() {
+        return requestCounter.incrementAndGet();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Buffers a record, returning {@code false} if it was dropped because the buffer is full.
+     */
+    boolean offer(long requestId, String postcode1, String postcode2, byte status) {
+        long position = tail.get();
+        int slot;
+        while (true) {
+            slot = (int) (position & mask);
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        timestamps[slot] = System.currentTimeMillis();
+        requestIds[slot] = requestId;
+        postcodes1[slot] = postcode1;
+        postcodes2[slot] = postcode2;
+        statuses[slot] = status;
+        sequences.set(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * Logs every record buffered so far on the calling thread.
+     */
+    void flush() {
+        drainLock.lock();
+        try {
+            while (drain() > 0) {
+                // keep draining until empty
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void run() {
+        long reportedDrops = 0;
+        while (running) {
+            int drained;
+            drainLock.lock();
+            try {
+                drained = drain();
+            } finally {
+                drainLock.unlock();
+            }
+            long drops = dropped.sum();
+            if (drops != reportedDrops) {
+                logger.warn("Request log buffer full, {} records dropped so far", drops);
+                reportedDrops = drops;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+            }
+        }
+    }
+
+    // Single consumer, always called under drainLock
+    private int drain() {
+        int drained = 0;
+        while (drained <= mask) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            logger.info(format(slot));
+            postcodes1[slot] = null;
+            postcodes2[slot] = null;
+            sequences.set(slot, head + mask + 1);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    // The counter fills the low word below the IETF variant bits, so every id is a valid RFC 4122 UUID
+    private static long requestIdSuffix(long requestId) {
+        return (requestId & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+    }
+
+    private String format(int slot) {
+        StringBuilder out = line;
+        out.setLength(0);
+        out.append("POSTAL_CODE_REQUEST|");
+        TIMESTAMP_FORMAT.formatTo(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamps[slot]), zone), out);
+        out.append('|').append(new UUID(requestIdPrefix, requestIdSuffix(requestIds[slot])))
+                .append('|').append(EVENT_TYPE)
+                .append('|').append(postcodes1[slot])
+                .append('|').append(postcodes2[slot])
+                .append('|').append(STATUS_NAMES[statuses[slot]]);
+        return out.toString();
+    }
+}
@@ -21,4 +21,10 @@ public class AuthController {
         LoginResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/users/{username}/revoke")
+    public ResponseEntity<Void> revokeTokens(@PathVariable String username) {
+        authService.revokeTokens(username);
+        return ResponseEntity.noContent().build();
+    }
+}
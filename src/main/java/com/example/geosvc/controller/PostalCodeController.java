@@ -1,31 +1,110 @@
 package com.example.geosvc.controller;
 
+import com.example.geosvc.distance.DistanceMode;
+import com.example.geosvc.dto.BulkUpsertResponse;
+import com.example.geosvc.dto.DistanceBatchResponse;
+import com.example.geosvc.dto.DistanceMatrixRequest;
 import com.example.geosvc.dto.DistanceRequest;
-import com.example.geosvc.dto.DistanceResponse;
+import com.example.geosvc.dto.ImportResponse;
+import com.example.geosvc.dto.NearestPostalCodesResponse;
+import com.example.geosvc.dto.PostalCodeRecord;
 import com.example.geosvc.dto.PostalCodeResponse;
+import com.example.geosvc.dto.PostalCodeSliceResponse;
 import com.example.geosvc.dto.UpdatePostalCodeRequest;
+import com.example.geosvc.exception.InvalidRequestException;
+import com.example.geosvc.importer.PostcodeImporter;
 import com.example.geosvc.model.PostalCode;
+import com.example.geosvc.service.DistanceMatrix;
+import com.example.geosvc.service.PostalCodeResponseCache;
 import com.example.geosvc.service.PostalCodeService;
+import com.example.geosvc.service.PostcodeExporter;
+import com.example.geosvc.service.RadiusSearch;
+import com.example.geosvc.store.PostcodeKey;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/postal-codes")
 public class PostalCodeController {
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+    private static final SerializedString NDJSON_SEPARATOR = new SerializedString("\n");
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
     private final PostalCodeService postalCodeService;
+    private final PostcodeImporter postcodeImporter;
+    private final PostcodeExporter postcodeExporter;
+    private final PostalCodeResponseCache postalCodeResponseCache;
+    private final CacheControl postalCodeCacheControl;
 
-    public PostalCodeController(PostalCodeService postalCodeService) {
+    public PostalCodeController(PostalCodeService postalCodeService, PostcodeImporter postcodeImporter,
+                                PostcodeExporter postcodeExporter, PostalCodeResponseCache postalCodeResponseCache,
+                                @Value("${geo.response.max-age:1h}") Duration maxAge) {
         this.postalCodeService = postalCodeService;
+        this.postcodeImporter = postcodeImporter;
+        this.postcodeExporter = postcodeExporter;
+        this.postalCodeResponseCache = postalCodeResponseCache;
+        this.postalCodeCacheControl = CacheControl.maxAge(maxAge).cachePrivate();
     }
 
     @PostMapping("/distance")
-    public ResponseEntity<DistanceResponse> calculateDistance(@Valid @RequestBody DistanceRequest request) {
-        return ResponseEntity.ok(postalCodeService.calculateDistance(request.getPostcode1(), request.getPostcode2()));
+    public ResponseEntity<byte[]> calculateDistance(
+            @Valid @RequestBody DistanceRequest request,
+            @RequestParam(defaultValue = "haversine") String mode) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(postalCodeService.calculateDistanceJson(
+                        request.getPostcode1(), request.getPostcode2(), distanceMode(mode)));
+    }
+
+    @PostMapping("/distance/batch")
+    public ResponseEntity<DistanceBatchResponse> calculateDistances(
+            @RequestBody List<DistanceRequest> requests,
+            @RequestParam(defaultValue = "haversine") String mode) {
+        return ResponseEntity.ok(postalCodeService.calculateDistances(requests, distanceMode(mode)));
+    }
+
+    @PostMapping("/distance/matrix")
+    public ResponseEntity<StreamingResponseBody> calculateDistanceMatrix(
+            @Valid @RequestBody DistanceMatrixRequest request,
+            @RequestParam(defaultValue = "bin") String format) {
+        if (!"bin".equals(format) && !"csv".equals(format)) {
+            throw new InvalidRequestException("format must be bin or csv");
+        }
+        DistanceMatrix matrix = postalCodeService.distanceMatrix(request.getOrigins(), request.getDestinations());
+        if ("csv".equals(format)) {
+            return ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .body(matrix::writeCsv);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Matrix-Rows", String.valueOf(matrix.rows()))
+                .header("X-Matrix-Columns", String.valueOf(matrix.columns()))
+                .body(matrix::writeBinary);
     }
 
     @PostMapping
@@ -33,10 +112,115 @@ public class PostalCodeController {
         return ResponseEntity.ok(postalCodeService.createOrUpdatePostalCode(postalCode));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkUpsertResponse> upsertPostalCodes(@RequestBody List<PostalCodeRecord> records) {
+        return ResponseEntity.ok(postcodeImporter.upsertAll(records));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportResponse> importPostalCodes(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        PostcodeImporter.Format format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? PostcodeImporter.Format.CSV
+                : PostcodeImporter.Format.NDJSON;
+        return ResponseEntity.ok(postcodeImporter.importPostcodes(body, format));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPostalCodes(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        PostcodeExporter.Format exportFormat = PostcodeExporter.Format.fromParameter(format)
+                .orElseThrow(() -> new InvalidRequestException("format must be one of csv, ndjson, bin"));
+        String afterPostcode = after == null ? null : PostcodeKey.normalize(after);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(switch (exportFormat) {
+                    case CSV -> TEXT_CSV;
+                    case NDJSON -> MediaType.APPLICATION_NDJSON;
+                    case BIN -> MediaType.APPLICATION_OCTET_STREAM;
+                })
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"postcodes." + exportFormat.name().toLowerCase() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(outputStream -> postcodeExporter.export(afterPostcode, exportFormat, outputStream));
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(outputStream -> {
+                    GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+                    postcodeExporter.export(afterPostcode, exportFormat, gzipStream);
+                    gzipStream.finish();
+                });
+    }
+
+    @GetMapping("/{postcode}/nearest")
+    public ResponseEntity<NearestPostalCodesResponse> findNearest(
+            @PathVariable String postcode,
+            @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(postalCodeService.findNearest(postcode, k));
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<NearestPostalCodesResponse> findNearest(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(postalCodeService.findNearest(latitude, longitude, k));
+    }
+
+    @GetMapping(value = "/within", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> findWithin(
+            @RequestParam(required = false) String postcode,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam double radiusKm) {
+        RadiusSearch search;
+        if (postcode != null) {
+            search = postalCodeService.radiusSearch(postcode, radiusKm);
+        } else if (latitude != null && longitude != null) {
+            search = postalCodeService.radiusSearch(latitude, longitude, radiusKm);
+        } else {
+            throw new InvalidRequestException("Either postcode or latitude and longitude must be provided");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            char[] postcodeChars = new char[PostcodeKey.MAX_LENGTH];
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(NDJSON_SEPARATOR);
+                long count = postalCodeService.forEachWithin(search, (key, pointLatitude, pointLongitude, distance) -> {
+                    generator.writeStartObject();
+                    generator.writeFieldName("postcode");
+                    generator.writeString(postcodeChars, 0, PostcodeKey.decode(key, postcodeChars, 0));
+                    generator.writeNumberField("latitude", pointLatitude);
+                    generator.writeNumberField("longitude", pointLongitude);
+                    generator.writeNumberField("distance", distance);
+                    generator.writeEndObject();
+                });
+                if (count > 0) {
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // A matching If-None-Match is answered with 304 from the ETag alone; cached entries never reach the service
     @GetMapping("/{postcode}")
-    public ResponseEntity<PostalCodeResponse> getPostalCodeMapping(@PathVariable String postcode) {
-        PostalCodeResponse response = postalCodeService.getPostalCodeMapping(postcode);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getPostalCodeMapping(@PathVariable String postcode) {
+        long key = PostcodeKey.encode(postcode);
+        PostalCodeResponseCache.Entry entry = key == PostcodeKey.INVALID
+                ? postalCodeResponseCache.encode(postalCodeService.getPostalCodeMapping(postcode))
+                : postalCodeResponseCache.get(key, () -> postalCodeService.getPostalCodeMapping(postcode));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(entry.getETag())
+                .cacheControl(postalCodeCacheControl)
+                .body(entry.getBody());
     }
 
     @PutMapping("/{postcode}")
@@ -47,6 +231,14 @@ public class PostalCodeController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<PostalCodeSliceResponse> getPostalCodeSlice(
+            @RequestParam int limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "postcode") String sortBy) {
+        return ResponseEntity.ok(postalCodeService.getPostalCodeSlice(sortBy, after, limit));
+    }
+
     @GetMapping
     public ResponseEntity<Page<PostalCodeResponse>> getAllPostalCodes(
             @RequestParam(defaultValue = "0") int page,
@@ -56,4 +248,48 @@ public class PostalCodeController {
         Page<PostalCodeResponse> response = postalCodeService.getAllPostalCodes(pageable);
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip, either by name or through {@code *}, with a
+     * non-zero quality. An explicit {@code gzip} entry overrides {@code *}.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("gzip") && !name.equals("*")) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip")) {
+                gzipQuality = quality;
+            } else {
+                anyQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    private static DistanceMode distanceMode(String mode) {
+        return DistanceMode.fromParameter(mode)
+                .orElseThrow(() -> new InvalidRequestException("mode must be one of haversine, vincenty, equirectangular"));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.geosvc.distance;
+
+/**
+ * Distance in kilometres between two points given in degrees.
+ */
+public interface DistanceCalculator {
+
+    String name();
+
+    double distance(double latitude1, double longitude1, double latitude2, double longitude2);
+
+    /**
+     * Upper bound in kilometres on how far {@code distance} may be from the true distance on
+     * the WGS84 ellipsoid.
+     */
+    double errorBound(double distance);
+}
@@ -0,0 +1,19 @@
+package com.example.geosvc.distance;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DistanceKernelConfig {
+    private static final Logger logger = LoggerFactory.getLogger(DistanceKernelConfig.class);
+
+    @Bean
+    public HaversineKernel haversineKernel(@Value("${geo.distance.kernel:scalar}") String kernel) {
+        HaversineKernel haversineKernel = HaversineKernels.create(kernel);
+        logger.info("Using the {} distance kernel", haversineKernel.name());
+        return haversineKernel;
+    }
+}
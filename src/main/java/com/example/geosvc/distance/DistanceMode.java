@@ -0,0 +1,28 @@
+package com.example.geosvc.distance;
+
+import java.util.Optional;
+
+public enum DistanceMode {
+    HAVERSINE(new HaversineDistanceCalculator()),
+    VINCENTY(new VincentyDistanceCalculator()),
+    EQUIRECTANGULAR(new EquirectangularDistanceCalculator());
+
+    private final DistanceCalculator calculator;
+
+    DistanceMode(DistanceCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    public DistanceCalculator calculator() {
+        return calculator;
+    }
+
+    public static Optional<DistanceMode> fromParameter(String parameter) {
+        for (DistanceMode mode : values()) {
+            if (mode.calculator.name().equalsIgnoreCase(parameter)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.geosvc.distance;
+
+/**
+ * Flat-earth approximation: longitude differences are scaled by the cosine of the mean
+ * latitude and the result is Pythagorean. One cosine and one square root per pair.
+ * <p>
+ * On top of the spherical model error, the approximation drifts from Haversine roughly with
+ * the cube of the distance; the bound below holds for UK latitudes and distances.
+ */
+public final class EquirectangularDistanceCalculator implements DistanceCalculator {
+
+    public static final double KM_PER_DEGREE = ScalarHaversineKernel.EARTH_RADIUS * Math.PI / 180;
+
+    private static final double CUBIC_ERROR = 5e-9;
+
+    @Override
+    public String name() {
+        return "equirectangular";
+    }
+
+    @Override
+    public double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double longitudeScale = Math.cos(Math.toRadians((latitude1 + latitude2) / 2));
+        return Math.sqrt(squaredDistance(latitude2 - latitude1, longitude2 - longitude1, longitudeScale));
+    }
+
+    /**
+     * Squared distance in km² for a difference in degrees, with longitude scaled by
+     * {@code longitudeScale}. Used directly where only the ranking matters.
+     */
+    public static double squaredDistance(double latitudeDelta, double longitudeDelta, double longitudeScale) {
+        double dy = latitudeDelta * KM_PER_DEGREE;
+        double dx = longitudeDelta * KM_PER_DEGREE * longitudeScale;
+        return dx * dx + dy * dy;
+    }
+
+    @Override
+    public double errorBound(double distance) {
+        return distance * HaversineDistanceCalculator.SPHERICAL_RELATIVE_ERROR + CUBIC_ERROR * distance * distance * distance;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.geosvc.distance;
+
+/**
+ * Reusable buffer of points whose distances from one origin are computed with a single
+ * {@link HaversineKernel} call. Points are added in degrees and converted once on the way in.
+ */
+public final class HaversineBatch {
+
+    private final HaversineKernel kernel;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] latitudeRadians;
+    private final double[] longitudeRadians;
+    private final double[] latitudeCosines;
+    private final double[] distances;
+    private double originLatitude;
+    private double originLongitude;
+    private double originCosine;
+    private int size;
+
+    public HaversineBatch(HaversineKernel kernel, int capacity) {
+        this.kernel = kernel;
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.latitudeRadians = new double[capacity];
+        this.longitudeRadians = new double[capacity];
+        this.latitudeCosines = new double[capacity];
+        this.distances = new double[capacity];
+    }
+
+    /**
+     * Sets the origin for the next {@link #compute()} and empties the batch.
+     */
+    public void origin(double latitude, double longitude) {
+        originLatitude = Math.toRadians(latitude);
+        originLongitude = Math.toRadians(longitude);
+        originCosine = Math.cos(originLatitude);
+        size = 0;
+    }
+
+    public void add(double latitude, double longitude) {
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        latitudeRadians[size] = Math.toRadians(latitude);
+        longitudeRadians[size] = Math.toRadians(longitude);
+        latitudeCosines[size] = Math.cos(latitudeRadians[size]);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == distances.length;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Computes the distance from the origin to every point added since the last clear, in
+     * kilometres, and returns them indexed like the points. The array is reused.
+     */
+    public double[] compute() {
+        kernel.distances(originLatitude, originLongitude, originCosine,
+                latitudeRadians, longitudeRadians, latitudeCosines, 0, size, distances, 0);
+        return distances;
+    }
+
+    public double latitude(int index) {
+        return latitudes[index];
+    }
+
+    public double longitude(int index) {
+        return longitudes[index];
+    }
+}
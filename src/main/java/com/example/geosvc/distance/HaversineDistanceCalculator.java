@@ -0,0 +1,28 @@
+package com.example.geosvc.distance;
+
+/**
+ * Great-circle distance on a sphere of the mean Earth radius.
+ */
+public final class HaversineDistanceCalculator implements DistanceCalculator {
+
+    // Largest relative deviation of the spherical model from the WGS84 ellipsoid
+    static final double SPHERICAL_RELATIVE_ERROR = 0.0056;
+
+    @Override
+    public String name() {
+        return "haversine";
+    }
+
+    @Override
+    public double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1Radians = Math.toRadians(latitude1);
+        double lat2Radians = Math.toRadians(latitude2);
+        return ScalarHaversineKernel.distance(lat1Radians, Math.toRadians(longitude1), Math.cos(lat1Radians),
+                lat2Radians, Math.toRadians(longitude2), Math.cos(lat2Radians));
+    }
+
+    @Override
+    public double errorBound(double distance) {
+        return distance * SPHERICAL_RELATIVE_ERROR;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.geosvc.distance;
+
+/**
+ * Great-circle distances from one point to many, in kilometres.
+ * <p>
+ * Inputs are in radians with each latitude's cosine supplied, so callers that reuse points
+ * pay for the conversion and the cosine once.
+ */
+public interface HaversineKernel {
+
+    String name();
+
+    /**
+     * Writes the distance from the origin to each point in {@code [from, to)} into
+     * {@code target}, starting at {@code targetOffset}.
+     */
+    void distances(double latitude, double longitude, double latitudeCosine,
+                   double[] latitudes, double[] longitudes, double[] latitudeCosines,
+                   int from, int to, double[] target, int targetOffset);
+}
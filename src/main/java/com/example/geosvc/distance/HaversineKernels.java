@@ -0,0 +1,43 @@
+package com.example.geosvc.distance;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class HaversineKernels {
+    private static final Logger logger = LoggerFactory.getLogger(HaversineKernels.class);
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private HaversineKernels() {
+    }
+
+    public static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Creates the kernel called {@code name}, falling back to the scalar kernel when the
+     * vector one is requested but the JVM was started without {@code --add-modules jdk.incubator.vector}.
+     */
+    public static HaversineKernel create(String name) {
+        if ("scalar".equals(name)) {
+            return new ScalarHaversineKernel();
+        }
+        if (!"vector".equals(name)) {
+            throw new IllegalArgumentException("Unknown distance kernel: " + name);
+        }
+        if (!isVectorAvailable()) {
+            logger.warn("Module {} is not available, using the scalar distance kernel", VECTOR_MODULE);
+            return new ScalarHaversineKernel();
+        }
+        try {
+            // Loaded reflectively so the Vector API classes are never touched without the module
+            return (HaversineKernel) Class.forName("com.example.geosvc.distance.VectorHaversineKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.warn("Vector distance kernel could not be loaded, using the scalar kernel", e);
+            return new ScalarHaversineKernel();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.geosvc.distance;
+
+public final class ScalarHaversineKernel implements HaversineKernel {
+
+    public static final double EARTH_RADIUS = 6371; // radius in kilometers
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void distances(double latitude, double longitude, double latitudeCosine,
+                          double[] latitudes, double[] longitudes, double[] latitudeCosines,
+                          int from, int to, double[] target, int targetOffset) {
+        for (int i = from; i < to; i++) {
+            target[targetOffset + i - from] = distance(latitude, longitude, latitudeCosine,
+                    latitudes[i], longitudes[i], latitudeCosines[i]);
+        }
+    }
+
+    public static double distance(double lat1Radians, double lon1Radians, double lat1Cosine,
+                                  double lat2Radians, double lon2Radians, double lat2Cosine) {
+        // Using Haversine formula! See Wikipedia;
+        double a = haversine(lat1Radians, lat2Radians)
+                + lat1Cosine * lat2Cosine * haversine(lon1Radians, lon2Radians);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return (EARTH_RADIUS * c);
+    }
+
+    private static double haversine(double deg1, double deg2) {
+        return square(Math.sin((deg1 - deg2) / 2.0));
+    }
+
+    private static double square(double x) {
+        return x * x;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.geosvc.distance;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD version of {@link ScalarHaversineKernel} on the incubating Vector API.
+ * <p>
+ * Evaluates the same expression lane by lane. The vector trig functions may differ from
+ * {@link Math} in the last bit, so results match the scalar kernel within a tolerance
+ * rather than exactly. Only loaded when {@code jdk.incubator.vector} is available; see
+ * {@link HaversineKernels}.
+ */
+public final class VectorHaversineKernel implements HaversineKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+
+    @Override
+    public void distances(double latitude, double longitude, double latitudeCosine,
+                          double[] latitudes, double[] longitudes, double[] latitudeCosines,
+                          int from, int to, double[] target, int targetOffset) {
+        int i = from;
+        int upperBound = from + SPECIES.loopBound(to - from);
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector lat2 = DoubleVector.fromArray(SPECIES, latitudes, i);
+            DoubleVector lon2 = DoubleVector.fromArray(SPECIES, longitudes, i);
+            DoubleVector cos2 = DoubleVector.fromArray(SPECIES, latitudeCosines, i);
+
+            DoubleVector sinLatitude = lat2.neg().add(latitude).div(2.0).lanewise(VectorOperators.SIN);
+            DoubleVector sinLongitude = lon2.neg().add(longitude).div(2.0).lanewise(VectorOperators.SIN);
+            DoubleVector a = sinLatitude.mul(sinLatitude)
+                    .add(cos2.mul(latitudeCosine).mul(sinLongitude.mul(sinLongitude)));
+            DoubleVector c = a.sqrt().lanewise(VectorOperators.ATAN2, a.neg().add(1.0).sqrt()).mul(2.0);
+
+            c.mul(ScalarHaversineKernel.EARTH_RADIUS).intoArray(target, targetOffset + i - from);
+        }
+        for (; i < to; i++) {
+            target[targetOffset + i - from] = ScalarHaversineKernel.distance(latitude, longitude, latitudeCosine,
+                    latitudes[i], longitudes[i], latitudeCosines[i]);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.geosvc.distance;
+
+/**
+ * Vincenty's inverse formula on the WGS84 ellipsoid, accurate to well under a millimetre.
+ * <p>
+ * The iteration can fail to converge for nearly antipodal points, which cannot occur between
+ * UK postcodes; in that case the Haversine distance and its bound are used instead.
+ */
+public final class VincentyDistanceCalculator implements DistanceCalculator {
+
+    private static final double SEMI_MAJOR_AXIS = 6378.137;
+    private static final double FLATTENING = 1 / 298.257223563;
+    private static final double SEMI_MINOR_AXIS = SEMI_MAJOR_AXIS * (1 - FLATTENING);
+    private static final double CONVERGENCE = 1e-12;
+    private static final int MAX_ITERATIONS = 200;
+    private static final double ERROR_BOUND = 1e-6;
+    private static final double NEAR_ANTIPODAL = 19_000;
+
+    private final HaversineDistanceCalculator fallback = new HaversineDistanceCalculator();
+
+    @Override
+    public String name() {
+        return "vincenty";
+    }
+
+    @Override
+    public double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double result = inverse(latitude1, longitude1, latitude2, longitude2);
+        return Double.isNaN(result) ? fallback.distance(latitude1, longitude1, latitude2, longitude2) : result;
+    }
+
+    @Override
+    public double errorBound(double distance) {
+        // Only nearly antipodal distances can have come from the fallback
+        return distance > NEAR_ANTIPODAL ? fallback.errorBound(distance) : ERROR_BOUND;
+    }
+
+    private static double inverse(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double l = Math.toRadians(longitude2 - longitude1);
+        double u1 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(latitude1)));
+        double u2 = Math.atan((1 - FLATTENING) * Math.tan(Math.toRadians(latitude2)));
+        double sinU1 = Math.sin(u1);
+        double cosU1 = Math.cos(u1);
+        double sinU2 = Math.sin(u2);
+        double cosU2 = Math.cos(u2);
+
+        double lambda = l;
+        double sinSigma;
+        double cosSigma;
+        double sigma;
+        double cosSquaredAlpha;
+        double cos2SigmaM;
+        for (int iteration = 0; ; iteration++) {
+            if (iteration == MAX_ITERATIONS) {
+                return Double.NaN;
+            }
+            double sinLambda = Math.sin(lambda);
+            double cosLambda = Math.cos(lambda);
+            double y = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+            sinSigma = Math.sqrt(cosU2 * sinLambda * cosU2 * sinLambda + y * y);
+            if (sinSigma == 0) {
+                return 0;
+            }
+            cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            cosSquaredAlpha = 1 - sinAlpha * sinAlpha;
+            // Both points on the equator
+            cos2SigmaM = cosSquaredAlpha == 0 ? 0 : cosSigma - 2 * sinU1 * sinU2 / cosSquaredAlpha;
+            double c = FLATTENING / 16 * cosSquaredAlpha * (4 + FLATTENING * (4 - 3 * cosSquaredAlpha));
+            double previous = lambda;
+            lambda = l + (1 - c) * FLATTENING * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+            if (Math.abs(lambda - previous) <= CONVERGENCE) {
+                break;
+            }
+        }
+
+        double uSquared = cosSquaredAlpha * (SEMI_MAJOR_AXIS * SEMI_MAJOR_AXIS - SEMI_MINOR_AXIS * SEMI_MINOR_AXIS)
+                / (SEMI_MINOR_AXIS * SEMI_MINOR_AXIS);
+        double a = 1 + uSquared / 16384 * (4096 + uSquared * (-768 + uSquared * (320 - 175 * uSquared)));
+        double b = uSquared / 1024 * (256 + uSquared * (-128 + uSquared * (74 - 47 * uSquared)));
+        double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+        return SEMI_MINOR_AXIS * a * (sigma - deltaSigma);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.geosvc.dto;
+
+import java.util.List;
+
+public class BulkUpsertResponse {
+    private List<Result> results;
+    private int inserted;
+    private int updated;
+    private int unchanged;
+    private int rejected;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+
+    public enum Outcome {
+        INSERTED, UPDATED, UNCHANGED, REJECTED
+    }
+
+    public BulkUpsertResponse() {
+    }
+
+    public BulkUpsertResponse(List<Result> results, int inserted, int updated, int unchanged, int rejected,
+                              long elapsedMillis, long rowsPerSecond) {
+        this.results = results;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public static class Result {
+        private String postcode;
+        private Outcome outcome;
+        private String error;
+
+        public Result() {
+        }
+
+        public Result(String postcode, Outcome outcome, String error) {
+            this.postcode = postcode;
+            this.outcome = outcome;
+            this.error = error;
+        }
+
+        public String getPostcode() {
+            return postcode;
+        }
+
+        public void setPostcode(String postcode) {
+            this.postcode = postcode;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public void setOutcome(Outcome outcome) {
+            this.outcome = outcome;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.geosvc.dto;
+
+import java.util.List;
+
+public class DistanceBatchResponse {
+    private List<Result> results;
+    private int failed;
+    private final String unit = "km";
+
+    public DistanceBatchResponse() {
+    }
+
+    public DistanceBatchResponse(List<Result> results, int failed) {
+        this.results = results;
+        this.failed = failed;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public static class Result {
+        private String postcode1;
+        private String postcode2;
+        private Double distance;
+        private String error;
+
+        public Result() {
+        }
+
+        public Result(String postcode1, String postcode2, Double distance, String error) {
+            this.postcode1 = postcode1;
+            this.postcode2 = postcode2;
+            this.distance = distance;
+            this.error = error;
+        }
+
+        public String getPostcode1() {
+            return postcode1;
+        }
+
+        public void setPostcode1(String postcode1) {
+            this.postcode1 = postcode1;
+        }
+
+        public String getPostcode2() {
+            return postcode2;
+        }
+
+        public void setPostcode2(String postcode2) {
+            this.postcode2 = postcode2;
+        }
+
+        public Double getDistance() {
+            return distance;
+        }
+
+        public void setDistance(Double distance) {
+            this.distance = distance;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
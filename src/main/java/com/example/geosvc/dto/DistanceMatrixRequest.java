@@ -0,0 +1,37 @@
+package com.example.geosvc.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class DistanceMatrixRequest {
+    @NotEmpty(message = "At least one origin is required")
+    private List<String> origins;
+
+    @NotEmpty(message = "At least one destination is required")
+    private List<String> destinations;
+
+    public DistanceMatrixRequest() {
+    }
+
+    public DistanceMatrixRequest(List<String> origins, List<String> destinations) {
+        this.origins = origins;
+        this.destinations = destinations;
+    }
+
+    public List<String> getOrigins() {
+        return origins;
+    }
+
+    public void setOrigins(List<String> origins) {
+        this.origins = origins;
+    }
+
+    public List<String> getDestinations() {
+        return destinations;
+    }
+
+    public void setDestinations(List<String> destinations) {
+        this.destinations = destinations;
+    }
+}
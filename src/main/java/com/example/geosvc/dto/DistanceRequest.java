@@ -1,17 +1,15 @@
 package com.example.geosvc.dto;
 
+import com.example.geosvc.validation.UkPostcode;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 
 public class DistanceRequest {
     @NotBlank(message = "First postcode is required")
-    @Pattern(regexp = "^[A-Z]{1,2}[0-9][A-Z0-9]? ?[0-9][A-Z]{2}$", 
-            message = "Invalid UK postcode format for first postcode")
+    @UkPostcode(message = "Invalid UK postcode format for first postcode")
     private String postcode1;
 
     @NotBlank(message = "Second postcode is required")
-    @Pattern(regexp = "^[A-Z]{1,2}[0-9][A-Z0-9]? ?[0-9][A-Z]{2}$", 
-            message = "Invalid UK postcode format for second postcode")
+    @UkPostcode(message = "Invalid UK postcode format for second postcode")
     private String postcode2;
 
     public DistanceRequest() {
@@ -5,6 +5,8 @@ public class DistanceResponse {
     private Location location2;
     private double distance;
     private final String unit = "km";
+    private String mode;
+    private double errorBound;
 
     public DistanceResponse() {
     }
@@ -15,6 +17,12 @@ public class DistanceResponse {
         this.distance = distance;
     }
 
+    public DistanceResponse(Location location1, Location location2, double distance, String mode, double errorBound) {
+        this(location1, location2, distance);
+        this.mode = mode;
+        this.errorBound = errorBound;
+    }
+
     public Location getLocation1() {
         return location1;
     }
@@ -43,6 +51,22 @@ public class DistanceResponse {
         return unit;
     }
 
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public double getErrorBound() {
+        return errorBound;
+    }
+
+    public void setErrorBound(double errorBound) {
+        this.errorBound = errorBound;
+    }
+
     public static class Location {
         private String postcode;
         private double latitude;
@@ -0,0 +1,73 @@
+package com.example.geosvc.dto;
+
+import java.util.List;
+
+public class ImportResponse {
+    private long imported;
+    private long withoutCoordinates;
+    private long rejected;
+    private List<String> rejections;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+
+    public ImportResponse() {
+    }
+
+    public ImportResponse(long imported, long withoutCoordinates, long rejected, List<String> rejections,
+                          long elapsedMillis, long rowsPerSecond) {
+        this.imported = imported;
+        this.withoutCoordinates = withoutCoordinates;
+        this.rejected = rejected;
+        this.rejections = rejections;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getWithoutCoordinates() {
+        return withoutCoordinates;
+    }
+
+    public void setWithoutCoordinates(long withoutCoordinates) {
+        this.withoutCoordinates = withoutCoordinates;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<String> rejections) {
+        this.rejections = rejections;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+}
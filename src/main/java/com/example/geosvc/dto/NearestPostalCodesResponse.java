@@ -0,0 +1,86 @@
+package com.example.geosvc.dto;
+
+import java.util.List;
+
+public class NearestPostalCodesResponse {
+    private DistanceResponse.Location origin;
+    private List<Neighbour> postcodes;
+    private final String unit = "km";
+
+    public NearestPostalCodesResponse() {
+    }
+
+    public NearestPostalCodesResponse(DistanceResponse.Location origin, List<Neighbour> postcodes) {
+        this.origin = origin;
+        this.postcodes = postcodes;
+    }
+
+    public DistanceResponse.Location getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(DistanceResponse.Location origin) {
+        this.origin = origin;
+    }
+
+    public List<Neighbour> getPostcodes() {
+        return postcodes;
+    }
+
+    public void setPostcodes(List<Neighbour> postcodes) {
+        this.postcodes = postcodes;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public static class Neighbour {
+        private String postcode;
+        private double latitude;
+        private double longitude;
+        private double distance;
+
+        public Neighbour() {
+        }
+
+        public Neighbour(String postcode, double latitude, double longitude, double distance) {
+            this.postcode = postcode;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.distance = distance;
+        }
+
+        public String getPostcode() {
+            return postcode;
+        }
+
+        public void setPostcode(String postcode) {
+            this.postcode = postcode;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(double latitude) {
+            this.latitude = latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(double longitude) {
+            this.longitude = longitude;
+        }
+
+        public double getDistance() {
+            return distance;
+        }
+
+        public void setDistance(double distance) {
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.geosvc.dto;
+
+public class PostalCodeRecord {
+    private String postcode;
+    private Double latitude;
+    private Double longitude;
+
+    public PostalCodeRecord() {
+    }
+
+    public PostalCodeRecord(String postcode, Double latitude, Double longitude) {
+        this.postcode = postcode;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public String getPostcode() {
+        return postcode;
+    }
+
+    public void setPostcode(String postcode) {
+        this.postcode = postcode;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+}
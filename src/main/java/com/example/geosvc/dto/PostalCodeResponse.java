@@ -1,16 +1,14 @@
 package com.example.geosvc.dto;
 
-import java.math.BigDecimal;
-
 public class PostalCodeResponse {
     private String postcode;
-    private BigDecimal latitude;
-    private BigDecimal longitude;
+    private Double latitude;
+    private Double longitude;
 
     public PostalCodeResponse() {
     }
 
-    public PostalCodeResponse(String postcode, BigDecimal latitude, BigDecimal longitude) {
+    public PostalCodeResponse(String postcode, Double latitude, Double longitude) {
         this.postcode = postcode;
         this.latitude = latitude;
         this.longitude = longitude;
@@ -24,19 +22,19 @@ public class PostalCodeResponse {
         this.postcode = postcode;
     }
 
-    public BigDecimal getLatitude() {
+    public Double getLatitude() {
         return latitude;
     }
 
-    public void setLatitude(BigDecimal latitude) {
+    public void setLatitude(Double latitude) {
         this.latitude = latitude;
     }
 
-    public BigDecimal getLongitude() {
+    public Double getLongitude() {
         return longitude;
     }
 
-    public void setLongitude(BigDecimal longitude) {
+    public void setLongitude(Double longitude) {
         this.longitude = longitude;
     }
 } 
\ No newline at end of file
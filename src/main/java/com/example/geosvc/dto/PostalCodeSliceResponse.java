@@ -0,0 +1,42 @@
+package com.example.geosvc.dto;
+
+import java.util.List;
+
+public class PostalCodeSliceResponse {
+    private List<PostalCodeResponse> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public PostalCodeSliceResponse() {
+    }
+
+    public PostalCodeSliceResponse(List<PostalCodeResponse> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    public List<PostalCodeResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<PostalCodeResponse> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
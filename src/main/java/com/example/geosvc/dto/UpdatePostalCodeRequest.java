@@ -1,42 +1,35 @@
 package com.example.geosvc.dto;
 
-import jakarta.validation.constraints.DecimalMin;
-import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.NotNull;
-import java.math.BigDecimal;
 
 public class UpdatePostalCodeRequest {
     @NotNull(message = "Latitude is required")
-    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
-    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
-    private BigDecimal latitude;
+    private Double latitude;
 
     @NotNull(message = "Longitude is required")
-    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
-    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
-    private BigDecimal longitude;
+    private Double longitude;
 
     public UpdatePostalCodeRequest() {
     }
 
-    public UpdatePostalCodeRequest(BigDecimal latitude, BigDecimal longitude) {
+    public UpdatePostalCodeRequest(Double latitude, Double longitude) {
         this.latitude = latitude;
         this.longitude = longitude;
     }
 
-    public BigDecimal getLatitude() {
+    public Double getLatitude() {
         return latitude;
     }
 
-    public void setLatitude(BigDecimal latitude) {
+    public void setLatitude(Double latitude) {
         this.latitude = latitude;
     }
 
-    public BigDecimal getLongitude() {
+    public Double getLongitude() {
         return longitude;
     }
 
-    public void setLongitude(BigDecimal longitude) {
+    public void setLongitude(Double longitude) {
         this.longitude = longitude;
     }
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.geosvc.exception;
 
 import com.example.geosvc.dto.ErrorResponse;
+import com.example.geosvc.metrics.GeoMetrics;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,10 +15,17 @@ import java.util.stream.Collectors;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final GeoMetrics metrics;
+
+    public GlobalExceptionHandler(GeoMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidationExceptions(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
-        
+        metrics.validationFailed();
+
         List<ApiError.ValidationError> validationErrors = ex.getBindingResult().getFieldErrors().stream()
                 .map(error -> new ApiError.ValidationError(
                         error.getField(),
@@ -70,7 +78,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handlePostalCodeNotFoundException(
             PostalCodeNotFoundException ex,
             HttpServletRequest request) {
-        
+        metrics.postcodeNotFound();
+
         ErrorResponse errorResponse = new ErrorResponse(
             request.getRequestURI(),
             ex.getMessage(),
@@ -80,4 +89,35 @@ public class GlobalExceptionHandler {
         
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
-} 
\ No newline at end of file
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(
+            InvalidRequestException ex,
+            HttpServletRequest request) {
+        metrics.validationFailed();
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            request.getRequestURI(),
+            ex.getMessage(),
+            "Bad Request",
+            HttpStatus.BAD_REQUEST.value()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ServiceNotReadyException.class)
+    public ResponseEntity<ErrorResponse> handleServiceNotReadyException(
+            ServiceNotReadyException ex,
+            HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            request.getRequestURI(),
+            ex.getMessage(),
+            "Service Unavailable",
+            HttpStatus.SERVICE_UNAVAILABLE.value()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
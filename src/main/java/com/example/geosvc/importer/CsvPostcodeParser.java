@@ -0,0 +1,260 @@
+package com.example.geosvc.importer;
+
+import com.example.geosvc.exception.InvalidRequestException;
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeKey;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for postcode CSV files such as {@code ukpostcodes.csv}.
+ * <p>
+ * Lines are split in place in a reusable byte buffer; postcodes are encoded straight to
+ * {@link PostcodeKey}s and degrees to 1e-7 fixed point, so no strings are created per row.
+ * If the first line names a {@code postcode} column it is read as a header, otherwise the
+ * columns are taken to be postcode, latitude, longitude. Fields may be enclosed in double
+ * quotes but may not contain commas. Positions outside the valid latitude and longitude
+ * ranges, such as the {@code 99.999999,0} placeholders in the Ordnance Survey data, are
+ * passed on without coordinates.
+ */
+final class CsvPostcodeParser {
+
+    static final int MAX_LINE_LENGTH = 1 << 20;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_FIELDS = 32;
+    private static final long MALFORMED = Long.MIN_VALUE;
+    private static final long MAX_LATITUDE_E7 = 900_000_000L;
+    private static final long MAX_LONGITUDE_E7 = 1_800_000_000L;
+
+    private final InputStream in;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private int lineStart;
+    private long line;
+
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private int fieldCount;
+
+    private int postcodeColumn = 0;
+    private int latitudeColumn = 1;
+    private int longitudeColumn = 2;
+
+    CsvPostcodeParser(InputStream in) {
+        this.in = in;
+    }
+
+    void parse(PostcodeRecordHandler handler) throws IOException {
+        int lineEnd;
+        while ((lineEnd = nextLine()) >= 0) {
+            line++;
+            split(lineStart, lineEnd);
+            if (fieldCount == 1 && fieldStarts[0] == fieldEnds[0]) {
+                continue;
+            }
+            if (line == 1 && readHeader()) {
+                continue;
+            }
+            parseRow(handler);
+        }
+    }
+
+    private void parseRow(PostcodeRecordHandler handler) {
+        int columns = Math.max(postcodeColumn, Math.max(latitudeColumn, longitudeColumn)) + 1;
+        if (fieldCount < columns) {
+            handler.reject(line, "expected at least " + columns + " fields");
+            return;
+        }
+        long key = PostcodeKey.encode(buffer, fieldStarts[postcodeColumn],
+                fieldEnds[postcodeColumn] - fieldStarts[postcodeColumn]);
+        if (key == PostcodeKey.INVALID) {
+            handler.reject(line, "invalid postcode");
+            return;
+        }
+        long latitude = parseE7(fieldStarts[latitudeColumn], fieldEnds[latitudeColumn]);
+        long longitude = parseE7(fieldStarts[longitudeColumn], fieldEnds[longitudeColumn]);
+        if (latitude == MALFORMED || longitude == MALFORMED) {
+            handler.reject(line, "invalid coordinates");
+            return;
+        }
+        if (Math.abs(latitude) > MAX_LATITUDE_E7 || Math.abs(longitude) > MAX_LONGITUDE_E7) {
+            latitude = Coordinates.NO_COORDINATE;
+            longitude = Coordinates.NO_COORDINATE;
+        }
+        handler.accept(key, (int) latitude, (int) longitude);
+    }
+
+    private boolean readHeader() {
+        int postcode = -1;
+        int latitude = -1;
+        int longitude = -1;
+        for (int i = 0; i < fieldCount; i++) {
+            if (fieldEquals(i, "postcode")) {
+                postcode = i;
+            } else if (fieldEquals(i, "latitude") || fieldEquals(i, "lat")) {
+                latitude = i;
+            } else if (fieldEquals(i, "longitude") || fieldEquals(i, "lon") || fieldEquals(i, "lng")) {
+                longitude = i;
+            }
+        }
+        if (postcode < 0) {
+            return false;
+        }
+        if (latitude < 0 || longitude < 0) {
+            throw new InvalidRequestException("CSV header must name postcode, latitude and longitude columns");
+        }
+        postcodeColumn = postcode;
+        latitudeColumn = latitude;
+        longitudeColumn = longitude;
+        return true;
+    }
+
+    private boolean fieldEquals(int field, String name) {
+        int start = fieldStarts[field];
+        if (fieldEnds[field] - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.toLowerCase((char) (buffer[start + i] & 0xFF)) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Splits [start, end) on commas, dropping surrounding spaces and double quotes from each field
+    private void split(int start, int end) {
+        if (end > start && buffer[end - 1] == '\r') {
+            end--;
+        }
+        fieldCount = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer[i] == ',') {
+                if (fieldCount == MAX_FIELDS) {
+                    return;
+                }
+                int from = fieldStart;
+                int to = i;
+                while (from < to && buffer[from] == ' ') {
+                    from++;
+                }
+                while (to > from && buffer[to - 1] == ' ') {
+                    to--;
+                }
+                if (to - from >= 2 && buffer[from] == '"' && buffer[to - 1] == '"') {
+                    from++;
+                    to--;
+                }
+                fieldStarts[fieldCount] = from;
+                fieldEnds[fieldCount] = to;
+                fieldCount++;
+                fieldStart = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Parses a decimal number of degrees into 1e-7 units, rounding half up beyond the seventh
+     * decimal place like {@link Coordinates#toE7(java.math.BigDecimal)}. Empty and {@code \N}
+     * fields have no coordinate.
+     */
+    private long parseE7(int start, int end) {
+        if (start == end || (end - start == 2 && buffer[start] == '\\' && buffer[start + 1] == 'N')) {
+            return Coordinates.NO_COORDINATE;
+        }
+        int i = start;
+        boolean negative = buffer[i] == '-';
+        if (negative || buffer[i] == '+') {
+            i++;
+        }
+        long value = 0;
+        int integerDigits = 0;
+        while (i < end && isDigit(buffer[i])) {
+            if (++integerDigits > 3) {
+                return MALFORMED;
+            }
+            value = value * 10 + (buffer[i++] - '0');
+        }
+        int scale = 0;
+        boolean roundUp = false;
+        if (i < end && buffer[i] == '.') {
+            i++;
+            int fractionStart = i;
+            while (i < end && isDigit(buffer[i])) {
+                if (scale < Coordinates.SCALE) {
+                    value = value * 10 + (buffer[i] - '0');
+                    scale++;
+                } else if (i - fractionStart == Coordinates.SCALE) {
+                    roundUp = buffer[i] >= '5';
+                }
+                i++;
+            }
+            if (integerDigits == 0 && i == fractionStart) {
+                return MALFORMED;
+            }
+        } else if (integerDigits == 0) {
+            return MALFORMED;
+        }
+        if (i != end) {
+            return MALFORMED;
+        }
+        for (; scale < Coordinates.SCALE; scale++) {
+            value *= 10;
+        }
+        if (roundUp) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    // Returns the end of the next line, which starts at lineStart, or -1 at the end of the input
+    private int nextLine() throws IOException {
+        int scanned = 0;
+        while (true) {
+            for (int i = position + scanned; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    lineStart = position;
+                    position = i + 1;
+                    return i;
+                }
+            }
+            scanned = limit - position;
+            if (!fill()) {
+                if (position < limit) {
+                    lineStart = position;
+                    position = limit;
+                    return limit;
+                }
+                return -1;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        } else if (limit == buffer.length) {
+            if (buffer.length >= MAX_LINE_LENGTH) {
+                throw new InvalidRequestException("Line " + (line + 1) + " is longer than " + MAX_LINE_LENGTH + " bytes");
+            }
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+}
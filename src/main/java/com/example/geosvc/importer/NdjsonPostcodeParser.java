@@ -0,0 +1,93 @@
+package com.example.geosvc.importer;
+
+import com.example.geosvc.exception.InvalidRequestException;
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeKey;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming parser for newline-delimited JSON objects with {@code postcode}, {@code latitude}
+ * and {@code longitude} fields, the same shape as the {@code /within} output. Other fields are
+ * ignored. Rows are read one token at a time, so the input is never held in memory.
+ */
+final class NdjsonPostcodeParser {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .build();
+
+    private final InputStream in;
+
+    NdjsonPostcodeParser(InputStream in) {
+        this.in = in;
+    }
+
+    void parse(PostcodeRecordHandler handler) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                long line = parser.currentLocation().getLineNr();
+                if (token != JsonToken.START_OBJECT) {
+                    handler.reject(line, "expected a JSON object");
+                    parser.skipChildren();
+                    continue;
+                }
+                parseRow(parser, line, handler);
+            }
+        } catch (JsonProcessingException e) {
+            String location = e.getLocation() == null ? "" : " at line " + e.getLocation().getLineNr();
+            throw new InvalidRequestException("Malformed JSON" + location + ": " + e.getOriginalMessage());
+        }
+    }
+
+    private static void parseRow(JsonParser parser, long line, PostcodeRecordHandler handler) throws IOException {
+        long key = PostcodeKey.INVALID;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        boolean malformed = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "postcode" -> key = value == JsonToken.VALUE_STRING ? PostcodeKey.encode(parser.getText()) : PostcodeKey.INVALID;
+                case "latitude" -> {
+                    latitude = degrees(parser, value);
+                    malformed |= latitude == Double.NEGATIVE_INFINITY;
+                }
+                case "longitude" -> {
+                    longitude = degrees(parser, value);
+                    malformed |= longitude == Double.NEGATIVE_INFINITY;
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (key == PostcodeKey.INVALID) {
+            handler.reject(line, "invalid postcode");
+        } else if (malformed) {
+            handler.reject(line, "invalid coordinates");
+        } else if (!(Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180)) {
+            handler.accept(key, Coordinates.NO_COORDINATE, Coordinates.NO_COORDINATE);
+        } else {
+            handler.accept(key, Coordinates.toE7(latitude), Coordinates.toE7(longitude));
+        }
+    }
+
+    // NaN for null, negative infinity for anything that is not a number
+    private static double degrees(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return Double.NaN;
+        }
+        if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        parser.skipChildren();
+        return Double.NEGATIVE_INFINITY;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.geosvc.importer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports the file named by {@code geo.import.file} at startup. Files ending in {@code .ndjson}
+ * or {@code .jsonl} are read as NDJSON and anything else as CSV; a {@code .gz} suffix is
+ * decompressed on the fly. A failed import fails startup.
+ */
+@Component
+@ConditionalOnProperty(name = "geo.import.file")
+public class PostcodeImportRunner implements ApplicationRunner {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PostcodeImporter postcodeImporter;
+    private final Path file;
+
+    public PostcodeImportRunner(PostcodeImporter postcodeImporter, @Value("${geo.import.file}") Path file) {
+        this.postcodeImporter = postcodeImporter;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        boolean gzipped = name.endsWith(".gz");
+        if (gzipped) {
+            name = name.substring(0, name.length() - ".gz".length());
+        }
+        PostcodeImporter.Format format = name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                ? PostcodeImporter.Format.NDJSON
+                : PostcodeImporter.Format.CSV;
+
+        try (InputStream in = Files.newInputStream(file)) {
+            InputStream source = gzipped ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+            postcodeImporter.importPostcodes(source, format);
+        }
+    }
+}
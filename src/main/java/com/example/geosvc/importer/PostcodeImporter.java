@@ -0,0 +1,211 @@
+package com.example.geosvc.importer;
+
+import com.example.geosvc.dto.BulkUpsertResponse;
+import com.example.geosvc.dto.BulkUpsertResponse.Outcome;
+import com.example.geosvc.dto.BulkUpsertResponse.Result;
+import com.example.geosvc.dto.ImportResponse;
+import com.example.geosvc.dto.PostalCodeRecord;
+import com.example.geosvc.exception.InvalidRequestException;
+import com.example.geosvc.repository.PostalCodeJdbcRepository;
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeKey;
+import com.example.geosvc.store.PostcodesChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams postcodes from a CSV or NDJSON source into {@code postcodelatlng}, upserting them in
+ * JDBC batches and publishing each batch as a {@link PostcodesChangedEvent} in the same
+ * transaction, so listeners that write alongside it (the change log) commit with the rows.
+ * <p>
+ * Every batch commits on its own, so a failed import leaves the batches before the failure in
+ * place; running it again is safe because rows are upserted by postcode.
+ * <p>
+ * {@link #upsertAll} does the same for records posted as JSON. It reports what happened to each
+ * row; the JPA path would instead select and save each row on its own.
+ */
+@Service
+public class PostcodeImporter {
+    private static final Logger logger = LoggerFactory.getLogger(PostcodeImporter.class);
+
+    private static final int MAX_REJECTIONS_REPORTED = 10;
+    private static final int MAX_UPSERT_RECORDS = 100_000;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final PostalCodeJdbcRepository postalCodeJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+
+    public PostcodeImporter(PostalCodeJdbcRepository postalCodeJdbcRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            TransactionOperations transactionOperations,
+                            @Value("${geo.import.batch-size:5000}") int batchSize) {
+        this.postalCodeJdbcRepository = postalCodeJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResponse importPostcodes(InputStream in, Format format) throws IOException {
+        long start = System.nanoTime();
+        Batch batch = new Batch();
+        if (format == Format.NDJSON) {
+            new NdjsonPostcodeParser(in).parse(batch);
+        } else {
+            new CsvPostcodeParser(in).parse(batch);
+        }
+        batch.flush();
+
+        long elapsedNanos = System.nanoTime() - start;
+        long rowsPerSecond = elapsedNanos == 0 ? 0 : batch.imported * 1_000_000_000L / elapsedNanos;
+        logger.info("Imported {} postcodes ({} without coordinates, {} rejected) in {} ms, {} rows/s",
+                batch.imported, batch.withoutCoordinates, batch.rejected, elapsedNanos / 1_000_000, rowsPerSecond);
+        return new ImportResponse(batch.imported, batch.withoutCoordinates, batch.rejected, batch.rejections,
+                elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    /**
+     * Inserts or updates every valid record. Each chunk of {@code geo.import.batch-size} records
+     * needs one {@code IN} query, to tell inserts from updates, and one upsert batch. Both run in
+     * a single transaction. Rows whose stored coordinates already match are not written. A
+     * postcode that appears more than once takes its last value.
+     */
+    public BulkUpsertResponse upsertAll(List<PostalCodeRecord> records) {
+        if (records.size() > MAX_UPSERT_RECORDS) {
+            throw new InvalidRequestException("A bulk upsert can contain at most " + MAX_UPSERT_RECORDS + " records");
+        }
+        long start = System.nanoTime();
+        Result[] results = new Result[records.size()];
+        for (int from = 0; from < records.size(); from += batchSize) {
+            upsertChunk(records, from, Math.min(from + batchSize, records.size()), results);
+        }
+
+        int[] counts = new int[Outcome.values().length];
+        for (Result result : results) {
+            counts[result.getOutcome().ordinal()]++;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long rowsPerSecond = elapsedNanos == 0 ? 0 : results.length * 1_000_000_000L / elapsedNanos;
+        logger.info("Upserted {} postcodes ({} inserted, {} updated, {} unchanged, {} rejected) in {} ms, {} rows/s",
+                results.length, counts[Outcome.INSERTED.ordinal()], counts[Outcome.UPDATED.ordinal()],
+                counts[Outcome.UNCHANGED.ordinal()], counts[Outcome.REJECTED.ordinal()],
+                elapsedNanos / 1_000_000, rowsPerSecond);
+        return new BulkUpsertResponse(Arrays.asList(results), counts[Outcome.INSERTED.ordinal()], counts[Outcome.UPDATED.ordinal()],
+                counts[Outcome.UNCHANGED.ordinal()], counts[Outcome.REJECTED.ordinal()],
+                elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    private void upsertChunk(List<PostalCodeRecord> records, int from, int to, Result[] results) {
+        long[] keys = new long[to - from];
+        long[] coordinates = new long[to - from];
+        Set<Long> uniqueKeys = new LinkedHashSet<>();
+        for (int i = from; i < to; i++) {
+            PostalCodeRecord record = records.get(i);
+            String postcode = record == null ? null : record.getPostcode();
+            long key = PostcodeKey.encode(postcode);
+            if (key == PostcodeKey.INVALID) {
+                results[i] = new Result(postcode, Outcome.REJECTED, "invalid postcode");
+            } else if (record.getLatitude() == null || !Coordinates.isValidLatitude(record.getLatitude())
+                    || record.getLongitude() == null || !Coordinates.isValidLongitude(record.getLongitude())) {
+                results[i] = new Result(PostcodeKey.toString(key), Outcome.REJECTED, "invalid coordinates");
+            } else {
+                keys[i - from] = key;
+                uniqueKeys.add(key);
+                coordinates[i - from] = Coordinates.pack(
+                        Coordinates.toE7(record.getLatitude()), Coordinates.toE7(record.getLongitude()));
+            }
+        }
+
+        transactionOperations.executeWithoutResult(status -> {
+            long[] lookup = uniqueKeys.stream().mapToLong(Long::longValue).toArray();
+            Map<Long, Long> stored = postalCodeJdbcRepository.findCoordinates(lookup, lookup.length);
+            Map<Long, Long> latest = new LinkedHashMap<>();
+            for (int i = from; i < to; i++) {
+                if (results[i] != null) {
+                    continue;
+                }
+                long key = keys[i - from];
+                Long previous = latest.containsKey(key) ? latest.get(key) : stored.get(key);
+                Outcome outcome = previous == null ? Outcome.INSERTED
+                        : previous.longValue() == coordinates[i - from] ? Outcome.UNCHANGED
+                        : Outcome.UPDATED;
+                results[i] = new Result(PostcodeKey.toString(key), outcome, null);
+                latest.put(key, coordinates[i - from]);
+            }
+            latest.entrySet().removeIf(entry -> entry.getValue().equals(stored.get(entry.getKey())));
+            if (latest.isEmpty()) {
+                return;
+            }
+            long[] changedKeys = new long[latest.size()];
+            long[] changedCoordinates = new long[latest.size()];
+            int size = 0;
+            for (Map.Entry<Long, Long> entry : latest.entrySet()) {
+                changedKeys[size] = entry.getKey();
+                changedCoordinates[size++] = entry.getValue();
+            }
+            postalCodeJdbcRepository.upsertCoordinates(changedKeys, changedCoordinates, size);
+            eventPublisher.publishEvent(new PostcodesChangedEvent(changedKeys, changedCoordinates, size));
+        });
+    }
+
+    private final class Batch implements PostcodeRecordHandler {
+        private final long[] keys = new long[batchSize];
+        private final long[] coordinates = new long[batchSize];
+        private int size;
+        private long imported;
+        private long withoutCoordinates;
+        private long rejected;
+        private final List<String> rejections = new ArrayList<>();
+
+        @Override
+        public void accept(long key, int latitudeE7, int longitudeE7) {
+            keys[size] = key;
+            coordinates[size] = Coordinates.pack(latitudeE7, longitudeE7);
+            if (latitudeE7 == Coordinates.NO_COORDINATE) {
+                withoutCoordinates++;
+            }
+            if (++size == batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void reject(long line, String reason) {
+            rejected++;
+            if (rejections.size() < MAX_REJECTIONS_REPORTED) {
+                rejections.add("line " + line + ": " + reason);
+            }
+        }
+
+        private void flush() {
+            if (size == 0) {
+                return;
+            }
+            transactionOperations.executeWithoutResult(status -> {
+                postalCodeJdbcRepository.upsertCoordinates(keys, coordinates, size);
+                eventPublisher.publishEvent(new PostcodesChangedEvent(
+                        Arrays.copyOf(keys, size), Arrays.copyOf(coordinates, size), size));
+            });
+            imported += size;
+            size = 0;
+        }
+    }
+}
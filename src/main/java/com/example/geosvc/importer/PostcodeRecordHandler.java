@@ -0,0 +1,12 @@
+package com.example.geosvc.importer;
+
+interface PostcodeRecordHandler {
+
+    /**
+     * A parsed row. Either coordinate is {@link com.example.geosvc.store.Coordinates#NO_COORDINATE}
+     * when the row has no usable position.
+     */
+    void accept(long key, int latitudeE7, int longitudeE7);
+
+    void reject(long line, String reason);
+}
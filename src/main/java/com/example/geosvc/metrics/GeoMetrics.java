@@ -0,0 +1,97 @@
+package com.example.geosvc.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service level meters, registered once so the request path only reads a field and records a
+ * duration. Percentiles and histograms are configured through
+ * {@code management.metrics.distribution.*} properties.
+ */
+@Component
+public class GeoMetrics {
+
+    public enum Operation {
+        DISTANCE, DISTANCE_BATCH, DISTANCE_MATRIX, NEAREST, WITHIN, POSTCODE
+    }
+
+    public enum Phase {
+        LOOKUP, DISTANCE, SERIALIZATION
+    }
+
+    private final MeterRegistry registry;
+    private final Timer[][] phaseTimers;
+    private final Timer[] authTimers;
+    private final Counter notFound;
+    private final Counter validationFailures;
+    private final Map<Class<?>, Timer> serializationTimers = new ConcurrentHashMap<>();
+
+    public GeoMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.phaseTimers = new Timer[Operation.values().length][Phase.values().length];
+        for (Operation operation : Operation.values()) {
+            for (Phase phase : Phase.values()) {
+                phaseTimers[operation.ordinal()][phase.ordinal()] = Timer.builder("geo.request.phase")
+                        .description("Time spent in each phase of a postal code request")
+                        .tag("operation", tagValue(operation))
+                        .tag("phase", tagValue(phase))
+                        .register(registry);
+            }
+        }
+        this.authTimers = new Timer[]{
+                authTimer("stateful", "authenticated"), authTimer("stateful", "rejected"),
+                authTimer("stateless", "authenticated"), authTimer("stateless", "rejected")};
+        this.notFound = Counter.builder("geo.postcodes.not.found")
+                .description("Postcodes that were requested but are not known")
+                .register(registry);
+        this.validationFailures = Counter.builder("geo.validation.failures")
+                .description("Requests or batch entries rejected as invalid")
+                .register(registry);
+    }
+
+    public void record(Operation operation, Phase phase, long nanos) {
+        phaseTimers[operation.ordinal()][phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAuthentication(boolean stateless, boolean authenticated, long nanos) {
+        authTimers[(stateless ? 2 : 0) + (authenticated ? 0 : 1)].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time taken to write a JSON response body of the given type.
+     */
+    public void recordSerialization(Class<?> type, long nanos) {
+        serializationTimers.computeIfAbsent(type, t -> Timer.builder("geo.serialization")
+                        .description("Time spent writing JSON response bodies")
+                        .tag("type", t.getSimpleName())
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void postcodeNotFound() {
+        notFound.increment();
+    }
+
+    public void validationFailed() {
+        validationFailures.increment();
+    }
+
+    private Timer authTimer(String mode, String outcome) {
+        return Timer.builder("geo.auth.filter")
+                .description("Time spent authenticating bearer tokens")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
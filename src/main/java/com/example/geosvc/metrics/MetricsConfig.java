@@ -0,0 +1,29 @@
+package com.example.geosvc.metrics;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final GeoMetrics metrics;
+
+    public MetricsConfig(GeoMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Swaps in a timed copy of the JSON converter, keeping its position and ObjectMapper
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter json
+                    && !(json instanceof TimedJsonHttpMessageConverter)) {
+                converters.set(i, new TimedJsonHttpMessageConverter(json.getObjectMapper(), metrics));
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.geosvc.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that records how long each response body takes to serialize.
+ */
+class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final GeoMetrics metrics;
+
+    TimedJsonHttpMessageConverter(ObjectMapper objectMapper, GeoMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            metrics.recordSerialization(object.getClass(), System.nanoTime() - start);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.geosvc.model;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 
 @Entity
-@Table(name = "postcodelatlng")
+@Table(name = "postcodelatlng", indexes = {
+        @Index(name = "ux_postcodelatlng_postcode", columnList = "postcode", unique = true),
+        @Index(name = "ix_postcodelatlng_postcode_coordinates", columnList = "postcode, latitude, longitude")
+})
 public class PostalCode {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -13,16 +15,17 @@ public class PostalCode {
     @Column(nullable = false, length = 8)
     private String postcode;
 
-    @Column(precision = 10, scale = 7)
-    private BigDecimal latitude;
+    // Held as doubles, which round-trip every DECIMAL(10,7) value; the column stays exact
+    @Column(columnDefinition = "decimal(10,7)")
+    private Double latitude;
 
-    @Column(precision = 10, scale = 7)
-    private BigDecimal longitude;
+    @Column(columnDefinition = "decimal(10,7)")
+    private Double longitude;
 
     public PostalCode() {
     }
 
-    public PostalCode(String postcode, BigDecimal latitude, BigDecimal longitude) {
+    public PostalCode(String postcode, Double latitude, Double longitude) {
         this.postcode = postcode;
         this.latitude = latitude;
         this.longitude = longitude;
@@ -44,19 +47,19 @@ public class PostalCode {
         this.postcode = postcode;
     }
 
-    public BigDecimal getLatitude() {
+    public Double getLatitude() {
         return latitude;
     }
 
-    public void setLatitude(BigDecimal latitude) {
+    public void setLatitude(Double latitude) {
         this.latitude = latitude;
     }
 
-    public BigDecimal getLongitude() {
+    public Double getLongitude() {
         return longitude;
     }
 
-    public void setLongitude(BigDecimal longitude) {
+    public void setLongitude(Double longitude) {
         this.longitude = longitude;
     }
 } 
\ No newline at end of file
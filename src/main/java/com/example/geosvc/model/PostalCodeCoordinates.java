@@ -0,0 +1,29 @@
+package com.example.geosvc.model;
+
+/**
+ * Read-only projection of a {@code postcodelatlng} row. Selected with a constructor
+ * expression, so no managed {@link PostalCode} entity is created for it.
+ */
+public class PostalCodeCoordinates {
+    private final String postcode;
+    private final Double latitude;
+    private final Double longitude;
+
+    public PostalCodeCoordinates(String postcode, Double latitude, Double longitude) {
+        this.postcode = postcode;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public String getPostcode() {
+        return postcode;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+}
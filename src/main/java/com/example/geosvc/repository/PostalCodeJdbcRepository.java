@@ -0,0 +1,174 @@
+package com.example.geosvc.repository;
+
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeKey;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class PostalCodeJdbcRepository {
+
+    // Connector/J only streams rows one at a time when the fetch size is Integer.MIN_VALUE;
+    // any other value buffers the whole result set in memory first.
+    static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final String SELECT_COORDINATES =
+            "SELECT postcode, latitude, longitude FROM postcodelatlng ORDER BY id";
+
+    // Walks ux_postcodelatlng_postcode, so a caller can resume after the last postcode it saw
+    private static final String SELECT_ROWS_AFTER =
+            "SELECT postcode, latitude, longitude FROM postcodelatlng WHERE postcode > ? ORDER BY postcode";
+
+    // Sent as multi-row inserts when the URL sets rewriteBatchedStatements=true
+    private static final String UPSERT_COORDINATES =
+            "INSERT INTO postcodelatlng (postcode, latitude, longitude) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE latitude = VALUES(latitude), longitude = VALUES(longitude)";
+
+    private static final String SELECT_COORDINATES_IN =
+            "SELECT postcode, latitude, longitude FROM postcodelatlng WHERE postcode IN (%s)";
+
+    private static final String SELECT_TABLE_VERSION =
+            "SELECT COUNT(*), COALESCE(MAX(id), 0), " +
+            "(SELECT UPDATE_TIME FROM information_schema.tables " +
+            "WHERE table_schema = DATABASE() AND table_name = 'postcodelatlng') " +
+            "FROM postcodelatlng";
+
+    // information_schema.tables serves cached statistics for up to a day unless told otherwise
+    private static final String DISABLE_STATS_CACHE = "SET SESSION information_schema_stats_expiry = 0";
+    private static final String RESET_STATS_CACHE = "SET SESSION information_schema_stats_expiry = DEFAULT";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostalCodeJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forEachCoordinate(CoordinateHandler handler) {
+        stream(SELECT_COORDINATES, rs -> {
+            double latitude = rs.getDouble(2);
+            boolean latitudeNull = rs.wasNull();
+            double longitude = rs.getDouble(3);
+            boolean longitudeNull = rs.wasNull();
+            handler.accept(rs.getString(1),
+                    latitudeNull ? Double.NaN : latitude,
+                    longitudeNull ? Double.NaN : longitude);
+        });
+    }
+
+    /**
+     * Streams every row with a postcode after {@code afterPostcode} in postcode order. The
+     * coordinates are passed as the database's decimal text, or {@code null}.
+     */
+    public void forEachRow(String afterPostcode, RowHandler handler) {
+        stream(SELECT_ROWS_AFTER, rs -> handler.accept(rs.getString(1), rs.getString(2), rs.getString(3)), afterPostcode);
+    }
+
+    /**
+     * Returns the stored coordinates of whichever of the first {@code count} postcodes exist,
+     * keyed by {@link PostcodeKey}, with one {@code IN} query.
+     */
+    public Map<Long, Long> findCoordinates(long[] keys, int count) {
+        Map<Long, Long> found = new HashMap<>();
+        if (count == 0) {
+            return found;
+        }
+        Object[] postcodes = new Object[count];
+        for (int i = 0; i < count; i++) {
+            postcodes[i] = PostcodeKey.toString(keys[i]);
+        }
+        String placeholders = String.join(",", Collections.nCopies(count, "?"));
+        jdbcTemplate.query(String.format(SELECT_COORDINATES_IN, placeholders), rs -> {
+            long key = PostcodeKey.encode(rs.getString(1));
+            if (key != PostcodeKey.INVALID) {
+                found.put(key, Coordinates.pack(getE7(rs, 2), getE7(rs, 3)));
+            }
+        }, postcodes);
+        return found;
+    }
+
+    /**
+     * Reads the current {@link PostcodeTableVersion}. The count walks the smallest index, which
+     * is far cheaper than reading the rows themselves.
+     */
+    public PostcodeTableVersion readTableVersion() {
+        return jdbcTemplate.execute((ConnectionCallback<PostcodeTableVersion>) con -> {
+            try (Statement statement = con.createStatement()) {
+                statement.execute(DISABLE_STATS_CACHE);
+                try (ResultSet rs = statement.executeQuery(SELECT_TABLE_VERSION)) {
+                    rs.next();
+                    Timestamp updatedAt = rs.getTimestamp(3);
+                    return new PostcodeTableVersion(rs.getLong(1), rs.getLong(2),
+                            updatedAt == null ? 0 : updatedAt.getTime());
+                } finally {
+                    statement.execute(RESET_STATS_CACHE);
+                }
+            }
+        });
+    }
+
+    /**
+     * Inserts or updates the first {@code count} postcodes as a single JDBC batch.
+     */
+    public void upsertCoordinates(long[] keys, long[] coordinates, int count) {
+        jdbcTemplate.batchUpdate(UPSERT_COORDINATES, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, PostcodeKey.toString(keys[i]));
+                setDegrees(ps, 2, Coordinates.latitudeE7(coordinates[i]));
+                setDegrees(ps, 3, Coordinates.longitudeE7(coordinates[i]));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    private static int getE7(ResultSet rs, int index) throws SQLException {
+        double degrees = rs.getDouble(index);
+        return rs.wasNull() ? Coordinates.NO_COORDINATE : Coordinates.toE7(degrees);
+    }
+
+    private static void setDegrees(PreparedStatement ps, int index, int e7) throws SQLException {
+        if (e7 == Coordinates.NO_COORDINATE) {
+            ps.setNull(index, Types.DECIMAL);
+        } else {
+            ps.setBigDecimal(index, Coordinates.toBigDecimal(e7));
+        }
+    }
+
+    private void stream(String sql, RowCallbackHandler rowHandler, String... parameters) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAMING_FETCH_SIZE);
+            for (int i = 0; i < parameters.length; i++) {
+                ps.setString(i + 1, parameters[i]);
+            }
+            return ps;
+        }, rowHandler);
+    }
+
+    @FunctionalInterface
+    public interface CoordinateHandler {
+        void accept(String postcode, double latitude, double longitude);
+    }
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void accept(String postcode, String latitude, String longitude);
+    }
+}
@@ -1,12 +1,32 @@
 package com.example.geosvc.repository;
 
 import com.example.geosvc.model.PostalCode;
+import com.example.geosvc.model.PostalCodeCoordinates;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PostalCodeRepository extends JpaRepository<PostalCode, Long> {
     Optional<PostalCode> findByPostcode(String postcode);
-} 
\ No newline at end of file
+
+    // Served entirely from ix_postcodelatlng_postcode_coordinates
+    @Query("select new com.example.geosvc.model.PostalCodeCoordinates(p.postcode, p.latitude, p.longitude) " +
+            "from PostalCode p where p.postcode = :postcode")
+    Optional<PostalCodeCoordinates> findCoordinatesByPostcode(@Param("postcode") String postcode);
+
+    @Query("select new com.example.geosvc.model.PostalCodeCoordinates(p.postcode, p.latitude, p.longitude) " +
+            "from PostalCode p where p.postcode in :postcodes")
+    List<PostalCodeCoordinates> findCoordinatesByPostcodeIn(@Param("postcodes") Collection<String> postcodes);
+
+    // Keyset pages: a List result skips the count query that a Page would run
+    List<PostalCode> findByPostcodeGreaterThanOrderByPostcodeAsc(String postcode, Pageable pageable);
+
+    List<PostalCode> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -0,0 +1,124 @@
+package com.example.geosvc.repository;
+
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeKey;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Append-only log of postcode coordinate changes in {@code postcode_changes}. Every row gets
+ * the next {@code version} from the table's auto-increment, so replicas can read the log in
+ * order and resume from the last version they applied.
+ */
+@Repository
+public class PostcodeChangeRepository {
+
+    private static final String INSERT_CHANGE =
+            "INSERT INTO postcode_changes (postcode, latitude, longitude) VALUES (?, ?, ?)";
+
+    private static final String SELECT_LATEST_VERSION =
+            "SELECT COALESCE(MAX(version), 0) FROM postcode_changes";
+
+    private static final String SELECT_CHANGES_AFTER =
+            "SELECT version, postcode, latitude, longitude FROM postcode_changes WHERE version > ? ORDER BY version LIMIT ?";
+
+    private static final String SELECT_CHANGES_IN =
+            "SELECT version, postcode, latitude, longitude FROM postcode_changes WHERE version IN (%s) ORDER BY version";
+
+    private static final String DELETE_CHANGES_BEFORE =
+            "DELETE FROM postcode_changes WHERE changed_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostcodeChangeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Appends the first {@code count} changes as one JDBC batch, in the caller's transaction.
+     */
+    public void append(long[] keys, long[] coordinates, int count) {
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, PostcodeKey.toString(keys[i]));
+                setDegrees(ps, 2, Coordinates.latitudeE7(coordinates[i]));
+                setDegrees(ps, 3, Coordinates.longitudeE7(coordinates[i]));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    public long latestVersion() {
+        Long version = jdbcTemplate.queryForObject(SELECT_LATEST_VERSION, Long.class);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Visits up to {@code limit} changes with a version above {@code afterVersion}, oldest
+     * first, and returns how many there were.
+     */
+    public int forEachAfter(long afterVersion, int limit, ChangeHandler handler) {
+        int[] count = new int[1];
+        jdbcTemplate.query(SELECT_CHANGES_AFTER, rowHandler(handler, count), afterVersion, limit);
+        return count[0];
+    }
+
+    /**
+     * Visits whichever of {@code versions} now exist, oldest first.
+     */
+    public void forEachVersion(Collection<Long> versions, ChangeHandler handler) {
+        if (versions.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(",", Collections.nCopies(versions.size(), "?"));
+        jdbcTemplate.query(String.format(SELECT_CHANGES_IN, placeholders), rowHandler(handler, new int[1]),
+                versions.toArray());
+    }
+
+    public int deleteOlderThan(Instant cutoff) {
+        return jdbcTemplate.update(DELETE_CHANGES_BEFORE, Timestamp.from(cutoff));
+    }
+
+    private static RowCallbackHandler rowHandler(ChangeHandler handler, int[] count) {
+        return rs -> {
+            count[0]++;
+            handler.accept(rs.getLong(1), PostcodeKey.encode(rs.getString(2)), Coordinates.pack(
+                    getE7(rs, 3), getE7(rs, 4)));
+        };
+    }
+
+    private static int getE7(ResultSet rs, int index) throws SQLException {
+        double degrees = rs.getDouble(index);
+        return rs.wasNull() ? Coordinates.NO_COORDINATE : Coordinates.toE7(degrees);
+    }
+
+    private static void setDegrees(PreparedStatement ps, int index, int e7) throws SQLException {
+        if (e7 == Coordinates.NO_COORDINATE) {
+            ps.setNull(index, Types.DECIMAL);
+        } else {
+            ps.setBigDecimal(index, Coordinates.toBigDecimal(e7));
+        }
+    }
+
+    // key is PostcodeKey.INVALID if the stored postcode no longer parses
+    @FunctionalInterface
+    public interface ChangeHandler {
+        void accept(long version, long key, long coordinates);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.geosvc.repository;
+
+/**
+ * Cheap marker for the state of {@code postcodelatlng}: the row count, the highest id and the
+ * time InnoDB last recorded a write to the table. Two markers that differ mean the table has
+ * changed in between; equal markers are taken to mean it has not.
+ */
+public final class PostcodeTableVersion {
+    private final long rowCount;
+    private final long maxId;
+    // Epoch millis, or 0 when MySQL has no update time for the table (e.g. since a restart)
+    private final long updatedAt;
+
+    public PostcodeTableVersion(long rowCount, long maxId, long updatedAt) {
+        this.rowCount = rowCount;
+        this.maxId = maxId;
+        this.updatedAt = updatedAt;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Whether this marker can vouch for the table. Without an update time an in-place
+     * {@code UPDATE} changes neither the count nor the highest id, so nothing can be compared.
+     */
+    public boolean isKnown() {
+        return updatedAt != 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PostcodeTableVersion version
+                && version.rowCount == rowCount && version.maxId == maxId && version.updatedAt == updatedAt;
+    }
+
+    @Override
+    public int hashCode() {
+        return (Long.hashCode(rowCount) * 31 + Long.hashCode(maxId)) * 31 + Long.hashCode(updatedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "rows=" + rowCount + ", maxId=" + maxId + ", updatedAt=" + updatedAt;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.geosvc.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Token revocations shared by all replicas in {@code revoked_users}, one row per user with the
+ * latest revocation time in epoch milliseconds.
+ */
+@Repository
+public class RevokedUserRepository {
+
+    private static final String UPSERT_REVOCATION =
+            "INSERT INTO revoked_users (username, revoked_at) VALUES (?, ?) "
+                    + "ON DUPLICATE KEY UPDATE revoked_at = GREATEST(revoked_at, VALUES(revoked_at))";
+
+    private static final String SELECT_REVOKED_SINCE =
+            "SELECT username, revoked_at FROM revoked_users WHERE revoked_at > ?";
+
+    private static final String DELETE_REVOKED_BEFORE =
+            "DELETE FROM revoked_users WHERE revoked_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RevokedUserRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void save(String username, long revokedAt) {
+        jdbcTemplate.update(UPSERT_REVOCATION, username, revokedAt);
+    }
+
+    /**
+     * Visits every user revoked after {@code cutoff} and returns how many there were.
+     */
+    public int forEachRevokedSince(long cutoff, RevocationHandler handler) {
+        int[] count = new int[1];
+        jdbcTemplate.query(SELECT_REVOKED_SINCE, rs -> {
+            count[0]++;
+            handler.accept(rs.getString(1), rs.getLong(2));
+        }, cutoff);
+        return count[0];
+    }
+
+    public int deleteOlderThan(long cutoff) {
+        return jdbcTemplate.update(DELETE_REVOKED_BEFORE, cutoff);
+    }
+
+    @FunctionalInterface
+    public interface RevocationHandler {
+        void accept(String username, long revokedAt);
+    }
+}
@@ -1,28 +1,45 @@
 package com.example.geosvc.security;
 
+import com.example.geosvc.metrics.GeoMetrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
-@Component
+/**
+ * Authenticates requests carrying a bearer token.
+ * <p>
+ * In stateless mode the principal and its authorities are rebuilt from the verified claims,
+ * so the user store is only consulted at login. Otherwise the user is reloaded from the
+ * {@link UserDetailsService} on every request.
+ * <p>
+ * Built by {@link SecurityConfig}, which reads {@code jwt.stateless} (default {@code true}).
+ */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final RevokedUsers revokedUsers;
+    private final boolean stateless;
+    private final GeoMetrics metrics;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   RevokedUsers revokedUsers, boolean stateless,
+                                   GeoMetrics metrics) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.revokedUsers = revokedUsers;
+        this.stateless = stateless;
+        this.metrics = metrics;
     }
 
     @Override
@@ -35,25 +52,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         
+        long start = System.nanoTime();
+        boolean authenticated = false;
         try {
             final String jwt = authHeader.substring(7);
             final String username = jwtService.extractUsername(jwt);
             
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !revokedUsers.isRevoked(username, jwtService.extractIssuedAt(jwt))) {
+                UserDetails userDetails = stateless
+                        ? new User(username, "", jwtService.extractAuthorities(jwt))
+                        : userDetailsService.loadUserByUsername(username);
                 
                 if (jwtService.validateToken(jwt, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    authenticated = true;
                 }
             }
-            filterChain.doFilter(request, response);
         } catch (Exception e) {
             // Let the JwtAuthenticationEntryPoint handle the authentication error
             SecurityContextHolder.clearContext();
-            filterChain.doFilter(request, response);
         }
+        metrics.recordAuthentication(stateless, authenticated, System.nanoTime() - start);
+        filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+}
@@ -1,40 +1,79 @@
 package com.example.geosvc.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ * <p>
+ * The signing key and parser are built once. Verified tokens are cached by their SHA-256
+ * hash until they expire, so a token is parsed and HMAC-checked once however many
+ * times its claims are read. Invalid tokens are never cached.
+ */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String ROLES_CLAIM = "roles";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private static final long MAX_CACHED_CLAIMS = 100_000;
+    private static final long MAX_CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final long jwtExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> verifiedClaims;
+
+    public JwtService(@Value("${jwt.secret}") String jwtSecret,
+                      @Value("${jwt.expiration}") long jwtExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_CLAIMS)
+                .expireAfter(new ClaimsExpiry())
+                .build();
+    }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claims(extraClaims)
+                .subject(userDetails.getUsername())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -45,8 +84,7 @@ public class JwtService {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
+            return !isTokenExpired(token);
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
@@ -56,29 +94,82 @@ public class JwtService {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public Date extractIssuedAt(String token) {
+        return extractClaim(token, Claims::getIssuedAt);
+    }
+
+    /**
+     * Returns the authorities embedded in the token's roles claim, or none for tokens issued
+     * without one.
+     */
+    public List<GrantedAuthority> extractAuthorities(String token) {
+        Object roles = extractClaim(token, claims -> claims.get(ROLES_CLAIM));
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(values.size());
+        for (Object value : values) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(value)));
+        }
+        return authorities;
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Returns the claims of a token whose signature has been verified, parsing it only if it
+     * is not already cached.
+     */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String tokenHash = hash(token);
+        Claims claims = verifiedClaims.getIfPresent(tokenHash);
+        if (claims == null) {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedClaims.put(tokenHash, claims);
+        }
+        return claims;
     }
 
     private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        Date expiration = extractExpiration(token);
+        return expiration != null && expiration.before(new Date());
     }
 
     private Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Keeps claims until the token expires, and never longer than MAX_CACHE_TTL_MS
+    private static final class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long ttl = MAX_CACHE_TTL_MS;
+            if (claims.getExpiration() != null) {
+                ttl = Math.min(ttl, claims.getExpiration().getTime() - System.currentTimeMillis());
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(ttl, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package com.example.geosvc.security;
+
+import com.example.geosvc.repository.RevokedUserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares token revocations between replicas through the {@code revoked_users} table.
+ * <p>
+ * A revocation is written to the table before the request that made it returns. Each replica
+ * polls the table for revocations younger than the token lifetime and records them in its
+ * {@link RevokedUsers}, so a revocation reaches every replica within one poll interval and
+ * survives restarts. Rows older than the token lifetime revoke nothing and are pruned.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.revocations.shared", havingValue = "true", matchIfMissing = true)
+public class RevocationFeed implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(RevocationFeed.class);
+
+    private final RevokedUserRepository revokedUserRepository;
+    private final RevokedUsers revokedUsers;
+    private final long jwtExpiration;
+    private final Duration pollInterval;
+    private final ScheduledExecutorService pollExecutor;
+
+    public RevocationFeed(RevokedUserRepository revokedUserRepository, RevokedUsers revokedUsers,
+                          @Value("${jwt.expiration}") long jwtExpiration,
+                          @Value("${jwt.revocations.poll-interval:1s}") Duration pollInterval) {
+        this.revokedUserRepository = revokedUserRepository;
+        this.revokedUsers = revokedUsers;
+        this.jwtExpiration = jwtExpiration;
+        this.pollInterval = pollInterval;
+        this.pollExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "revocation-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // The first poll runs at once, so a restarted replica rejects revoked tokens straight away
+    @Override
+    public void run(ApplicationArguments args) {
+        pollExecutor.scheduleWithFixedDelay(this::pollSafely, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        pollExecutor.scheduleWithFixedDelay(this::prune, 1, 60, TimeUnit.MINUTES);
+    }
+
+    // Synchronous, so a revocation that could not be shared fails the request
+    @EventListener
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        revokedUserRepository.save(event.getUsername(), event.getRevokedAt());
+    }
+
+    /**
+     * Records every revocation that can still reject a token and returns how many there were.
+     */
+    int poll() {
+        return revokedUserRepository.forEachRevokedSince(System.currentTimeMillis() - jwtExpiration,
+                revokedUsers::record);
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            logger.warn("Polling the revoked users failed, will retry", e);
+        }
+    }
+
+    private void prune() {
+        try {
+            int deleted = revokedUserRepository.deleteOlderThan(System.currentTimeMillis() - jwtExpiration);
+            if (deleted > 0) {
+                logger.info("Pruned {} expired token revocations", deleted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Pruning the revoked users failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.geosvc.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Users whose tokens were revoked, with the time of revocation.
+ * <p>
+ * Tokens issued up to that moment are rejected. An entry only has to outlive the tokens it
+ * revokes, so it expires after the token lifetime. Entries are never evicted for space, since
+ * that would let the user's tokens through again. Each revocation is published as a
+ * {@link TokensRevokedEvent}, which {@link RevocationFeed} shares with the other replicas.
+ */
+@Component
+public class RevokedUsers {
+
+    private final Cache<String, Long> revokedAt;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RevokedUsers(@Value("${jwt.expiration}") long jwtExpiration, ApplicationEventPublisher eventPublisher) {
+        this.revokedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(Math.max(jwtExpiration, 0)))
+                .build();
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void revoke(String username) {
+        long now = System.currentTimeMillis();
+        record(username, now);
+        eventPublisher.publishEvent(new TokensRevokedEvent(username, now));
+    }
+
+    /**
+     * Records a revocation made on this or another replica. Older revocations of the same
+     * user are ignored.
+     */
+    public void record(String username, long time) {
+        Long current = revokedAt.getIfPresent(username);
+        if (current == null || current < time) {
+            revokedAt.put(username, time);
+        }
+    }
+
+    public boolean isRevoked(String username, Date issuedAt) {
+        Long revoked = revokedAt.getIfPresent(username);
+        // Tokens without an issue time cannot be proven newer than the revocation
+        return revoked != null && (issuedAt == null || issuedAt.getTime() <= revoked);
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.geosvc.security;
 
+import com.example.geosvc.metrics.GeoMetrics;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -33,6 +37,11 @@ public class SecurityConfig {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // Streamed responses complete on an async dispatch of an already authorized request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .requestMatchers("/api/auth/users/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/postal-codes/import", "/api/postal-codes/bulk").hasRole("ADMIN")
                 .requestMatchers("/api/auth/**").permitAll()
                 .anyRequest().authenticated()
             )
@@ -78,7 +87,10 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtService, userDetailsService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                                           RevokedUsers revokedUsers,
+                                                           @Value("${jwt.stateless:true}") boolean stateless,
+                                                           GeoMetrics metrics) {
+        return new JwtAuthenticationFilter(jwtService, userDetailsService, revokedUsers, stateless, metrics);
     }
 } 
\ No newline at end of file
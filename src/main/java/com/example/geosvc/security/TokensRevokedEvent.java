@@ -0,0 +1,19 @@
+package com.example.geosvc.security;
+
+public class TokensRevokedEvent {
+    private final String username;
+    private final long revokedAt;
+
+    public TokensRevokedEvent(String username, long revokedAt) {
+        this.username = username;
+        this.revokedAt = revokedAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getRevokedAt() {
+        return revokedAt;
+    }
+}
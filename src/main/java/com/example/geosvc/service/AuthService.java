@@ -4,6 +4,7 @@ import com.example.geosvc.dto.LoginRequest;
 import com.example.geosvc.dto.LoginResponse;
 import com.example.geosvc.exception.AuthenticationException;
 import com.example.geosvc.security.JwtService;
+import com.example.geosvc.security.RevokedUsers;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -15,10 +16,12 @@ public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final RevokedUsers revokedUsers;
 
-    public AuthService(AuthenticationManager authenticationManager, JwtService jwtService) {
+    public AuthService(AuthenticationManager authenticationManager, JwtService jwtService, RevokedUsers revokedUsers) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.revokedUsers = revokedUsers;
     }
 
     public LoginResponse login(LoginRequest request) {
@@ -35,4 +38,8 @@ public class AuthService {
             throw new AuthenticationException("Incorrect username or password");
         }
     }
-} 
\ No newline at end of file
+
+    public void revokeTokens(String username) {
+        revokedUsers.revoke(username);
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.geosvc.service;
+
+import com.example.geosvc.distance.HaversineKernel;
+import com.example.geosvc.metrics.GeoMetrics;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Origin by destination distance matrix over resolved coordinates.
+ * <p>
+ * Nothing is materialised up front: the matrix is computed in blocks of whole rows, each
+ * block filled in parallel on the common fork/join pool and handed to the caller before
+ * the next one is computed, so memory stays bounded however large the matrix is. Each row
+ * is one call into the configured {@link HaversineKernel}.
+ */
+public final class DistanceMatrix {
+
+    private static final int BLOCK_CELLS = 1 << 20;
+    private static final int TASK_CELLS = 1 << 14;
+
+    private final HaversineKernel kernel;
+    private final List<String> origins;
+    private final List<String> destinations;
+    private final double[] originLatitudes;
+    private final double[] originLongitudes;
+    private final double[] originCosines;
+    private final double[] destinationLatitudes;
+    private final double[] destinationLongitudes;
+    private final double[] destinationCosines;
+    private final GeoMetrics metrics;
+
+    DistanceMatrix(HaversineKernel kernel, List<String> origins, double[] originLatitudes, double[] originLongitudes,
+                   List<String> destinations, double[] destinationLatitudes, double[] destinationLongitudes,
+                   GeoMetrics metrics) {
+        this.kernel = kernel;
+        this.metrics = metrics;
+        this.origins = origins;
+        this.destinations = destinations;
+        this.originLatitudes = toRadians(originLatitudes);
+        this.originLongitudes = toRadians(originLongitudes);
+        this.originCosines = cosines(this.originLatitudes);
+        this.destinationLatitudes = toRadians(destinationLatitudes);
+        this.destinationLongitudes = toRadians(destinationLongitudes);
+        this.destinationCosines = cosines(this.destinationLatitudes);
+    }
+
+    public int rows() {
+        return origins.size();
+    }
+
+    public int columns() {
+        return destinations.size();
+    }
+
+    /**
+     * Computes the matrix block by block, passing each block's distances in kilometres,
+     * row-major. The array is reused between blocks. Time spent computing and time spent in
+     * {@code consumer} are recorded as the distance and serialization phases.
+     */
+    public void forEachBlock(BlockConsumer consumer) throws IOException {
+        int rowsPerBlock = rowsPerBlock();
+        float[] block = new float[rowsPerBlock * columns()];
+        long computeNanos = 0;
+        long consumeNanos = 0;
+        try {
+            for (int firstRow = 0; firstRow < rows(); firstRow += rowsPerBlock) {
+                int lastRow = Math.min(firstRow + rowsPerBlock, rows());
+                long start = System.nanoTime();
+                ForkJoinPool.commonPool().invoke(new RowsTask(block, firstRow, firstRow, lastRow));
+                long computed = System.nanoTime();
+                consumer.accept(firstRow, lastRow - firstRow, block);
+                computeNanos += computed - start;
+                consumeNanos += System.nanoTime() - computed;
+            }
+        } finally {
+            metrics.record(GeoMetrics.Operation.DISTANCE_MATRIX, GeoMetrics.Phase.DISTANCE, computeNanos);
+            metrics.record(GeoMetrics.Operation.DISTANCE_MATRIX, GeoMetrics.Phase.SERIALIZATION, consumeNanos);
+        }
+    }
+
+    private int rowsPerBlock() {
+        return Math.max(1, Math.min(rows(), BLOCK_CELLS / Math.max(columns(), 1)));
+    }
+
+    /**
+     * Writes the distances as little-endian float32 values, row-major.
+     */
+    public void writeBinary(OutputStream outputStream) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(rowsPerBlock() * columns() * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        FloatBuffer floats = bytes.asFloatBuffer();
+        forEachBlock((firstRow, rowCount, distances) -> {
+            int values = rowCount * columns();
+            floats.clear();
+            floats.put(distances, 0, values);
+            outputStream.write(bytes.array(), 0, values * Float.BYTES);
+        });
+    }
+
+    /**
+     * Writes a header of destinations followed by one line per origin, distances rounded to
+     * the metre.
+     */
+    public void writeCsv(OutputStream outputStream) throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, 1 << 16);
+        out.write("origin".getBytes(StandardCharsets.US_ASCII));
+        for (String destination : destinations) {
+            out.write(',');
+            out.write(destination.getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write('\n');
+
+        byte[] number = new byte[24];
+        forEachBlock((firstRow, rowCount, distances) -> {
+            for (int r = 0; r < rowCount; r++) {
+                out.write(origins.get(firstRow + r).getBytes(StandardCharsets.US_ASCII));
+                for (int c = 0, offset = r * columns(); c < columns(); c++) {
+                    out.write(',');
+                    out.write(number, 0, formatMetres(distances[offset + c], number));
+                }
+                out.write('\n');
+            }
+        });
+        out.flush();
+    }
+
+    // Formats a kilometre distance with three decimals without going through String
+    private static int formatMetres(float distance, byte[] target) {
+        long metres = Math.round(distance * 1000.0);
+        long kilometres = metres / 1000;
+        int fraction = (int) (metres % 1000);
+        int length = 0;
+        do {
+            target[length++] = (byte) ('0' + kilometres % 10);
+            kilometres /= 10;
+        } while (kilometres > 0);
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            byte swap = target[i];
+            target[i] = target[j];
+            target[j] = swap;
+        }
+        target[length++] = '.';
+        target[length++] = (byte) ('0' + fraction / 100);
+        target[length++] = (byte) ('0' + fraction / 10 % 10);
+        target[length++] = (byte) ('0' + fraction % 10);
+        return length;
+    }
+
+    private static double[] toRadians(double[] degrees) {
+        double[] radians = new double[degrees.length];
+        for (int i = 0; i < degrees.length; i++) {
+            radians[i] = Math.toRadians(degrees[i]);
+        }
+        return radians;
+    }
+
+    private static double[] cosines(double[] radians) {
+        double[] cosines = new double[radians.length];
+        for (int i = 0; i < radians.length; i++) {
+            cosines[i] = Math.cos(radians[i]);
+        }
+        return cosines;
+    }
+
+    @FunctionalInterface
+    public interface BlockConsumer {
+        void accept(int firstRow, int rowCount, float[] distances) throws IOException;
+    }
+
+    private final class RowsTask extends RecursiveAction {
+        private final float[] block;
+        private final int blockStart;
+        private final int fromRow;
+        private final int toRow;
+
+        private RowsTask(float[] block, int blockStart, int fromRow, int toRow) {
+            this.block = block;
+            this.blockStart = blockStart;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            int columns = columns();
+            if (toRow - fromRow > 1 && (long) (toRow - fromRow) * columns > TASK_CELLS) {
+                int middle = (fromRow + toRow) >>> 1;
+                invokeAll(new RowsTask(block, blockStart, fromRow, middle), new RowsTask(block, blockStart, middle, toRow));
+                return;
+            }
+            double[] row = new double[columns];
+            for (int r = fromRow; r < toRow; r++) {
+                kernel.distances(originLatitudes[r], originLongitudes[r], originCosines[r],
+                        destinationLatitudes, destinationLongitudes, destinationCosines, 0, columns, row, 0);
+                int offset = (r - blockStart) * columns;
+                for (int c = 0; c < columns; c++) {
+                    block[offset + c] = (float) row[c];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.geosvc.service;
+
+import com.example.geosvc.distance.DistanceMode;
+import com.example.geosvc.dto.DistanceResponse;
+import com.example.geosvc.metrics.GeoMetrics;
+import com.example.geosvc.store.PostcodeChangedEvent;
+import com.example.geosvc.store.PostcodesChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialized distance responses for recently requested postcode pairs.
+ * <p>
+ * A pair is cached once whichever way round it is asked for; the body for the other order is
+ * serialized the first time it is needed. Entries that involve a postcode are dropped when
+ * that postcode changes. A calculation can read the database, so it runs on the calling
+ * thread rather than inside the cache's map lock; concurrent requests for the same pair wait
+ * on its future.
+ */
+@Component
+public class DistancePairCache {
+
+    private final AsyncCache<Pair, Entry> cache;
+    private final ObjectMapper objectMapper;
+    private final GeoMetrics metrics;
+    // Bumped on every change so a calculation that raced with one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public DistancePairCache(ObjectMapper objectMapper, GeoMetrics metrics, MeterRegistry meterRegistry,
+                             @Value("${geo.distance.cache.maximum-size:10000}") long maximumSize) {
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "distance-pairs");
+    }
+
+    /**
+     * Returns the JSON body for the distance from {@code key1} to {@code key2}, calling
+     * {@code calculation} only if the pair is not cached in either order.
+     */
+    public byte[] get(long key1, long key2, DistanceMode mode, Supplier<DistanceResponse> calculation) {
+        Pair pair = new Pair(Math.min(key1, key2), Math.max(key1, key2), mode);
+        long before = generation.get();
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> future = cache.get(pair, (p, executor) -> created);
+        if (future != created) {
+            return join(future).body(key1, this);
+        }
+        Entry entry;
+        try {
+            DistanceResponse response = calculation.get();
+            entry = new Entry(key1, response, serialize(response));
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        }
+        created.complete(entry);
+        if (generation.get() != before) {
+            cache.synchronous().invalidate(pair);
+        }
+        return entry.body(key1, this);
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    byte[] serialize(DistanceResponse response) {
+        long start = System.nanoTime();
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            metrics.recordSerialization(DistanceResponse.class, System.nanoTime() - start);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodeChanged(PostcodeChangedEvent event) {
+        generation.incrementAndGet();
+        long key = event.getKey();
+        cache.synchronous().asMap().keySet().removeIf(pair -> pair.low == key || pair.high == key);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodesChanged(PostcodesChangedEvent event) {
+        generation.incrementAndGet();
+        long[] keys = Arrays.copyOf(event.getKeys(), event.getCount());
+        Arrays.sort(keys);
+        cache.synchronous().asMap().keySet().removeIf(pair ->
+                Arrays.binarySearch(keys, pair.low) >= 0 || Arrays.binarySearch(keys, pair.high) >= 0);
+    }
+
+    private static final class Pair {
+        private final long low;
+        private final long high;
+        private final DistanceMode mode;
+
+        private Pair(long low, long high, DistanceMode mode) {
+            this.low = low;
+            this.high = high;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Pair pair && pair.low == low && pair.high == high && pair.mode == mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(low) * 31 + Long.hashCode(high)) * 31 + mode.ordinal();
+        }
+    }
+
+    private static final class Entry {
+        private final long firstKey;
+        private final DistanceResponse response;
+        private final byte[] body;
+        private volatile byte[] reversedBody;
+
+        private Entry(long firstKey, DistanceResponse response, byte[] body) {
+            this.firstKey = firstKey;
+            this.response = response;
+            this.body = body;
+        }
+
+        private byte[] body(long requestedFirstKey, DistancePairCache owner) {
+            if (requestedFirstKey == firstKey) {
+                return body;
+            }
+            byte[] reversed = reversedBody;
+            if (reversed == null) {
+                reversed = owner.serialize(new DistanceResponse(response.getLocation2(), response.getLocation1(),
+                        response.getDistance(), response.getMode(), response.getErrorBound()));
+                reversedBody = reversed;
+            }
+            return reversed;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.geosvc.service;
+
+import com.example.geosvc.dto.PostalCodeResponse;
+import com.example.geosvc.metrics.GeoMetrics;
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeChangedEvent;
+import com.example.geosvc.store.PostcodesChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialized {@code GET /api/postal-codes/{postcode}} bodies for recently requested postcodes,
+ * each with a strong ETag.
+ * <p>
+ * The ETag is the postcode's packed coordinates, which act as the row's version: any write
+ * that changes the row changes the tag. Every replica derives the same tag for the same row,
+ * so a client can revalidate against any of them. Entries are dropped when their postcode changes.
+ */
+@Component
+public class PostalCodeResponseCache {
+
+    private final AsyncCache<Long, Entry> cache;
+    private final ObjectMapper objectMapper;
+    private final GeoMetrics metrics;
+    // Bumped on every change so a lookup that raced with one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public PostalCodeResponseCache(ObjectMapper objectMapper, GeoMetrics metrics, MeterRegistry meterRegistry,
+                                   @Value("${geo.response.cache.maximum-size:100000}") long maximumSize) {
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "postcode-responses");
+    }
+
+    /**
+     * Returns the encoded response for {@code key}, calling {@code lookup} only if it is not
+     * cached. Exceptions from {@code lookup}, such as an unknown postcode, are rethrown and
+     * nothing is cached.
+     */
+    public Entry get(long key, Supplier<PostalCodeResponse> lookup) {
+        long before = generation.get();
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> future = cache.get(key, (k, executor) -> created);
+        if (future != created) {
+            return join(future);
+        }
+        Entry entry;
+        try {
+            entry = encode(lookup.get());
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        }
+        created.complete(entry);
+        if (generation.get() != before) {
+            cache.synchronous().invalidate(key);
+        }
+        return entry;
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public Entry encode(PostalCodeResponse response) {
+        long coordinates = Coordinates.pack(
+                Coordinates.toE7(response.getLatitude()), Coordinates.toE7(response.getLongitude()));
+        return new Entry("\"" + Long.toHexString(coordinates) + "\"", serialize(response));
+    }
+
+    private byte[] serialize(PostalCodeResponse response) {
+        long start = System.nanoTime();
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            metrics.recordSerialization(PostalCodeResponse.class, System.nanoTime() - start);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodeChanged(PostcodeChangedEvent event) {
+        generation.incrementAndGet();
+        cache.synchronous().invalidate(event.getKey());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodesChanged(PostcodesChangedEvent event) {
+        generation.incrementAndGet();
+        List<Long> keys = new ArrayList<>(event.getCount());
+        for (int i = 0; i < event.getCount(); i++) {
+            keys.add(event.getKeys()[i]);
+        }
+        cache.synchronous().invalidateAll(keys);
+    }
+
+    public static final class Entry {
+        private final String eTag;
+        private final byte[] body;
+
+        private Entry(String eTag, byte[] body) {
+            this.eTag = eTag;
+            this.body = body;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
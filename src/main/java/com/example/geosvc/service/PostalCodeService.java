@@ -1,100 +1,623 @@
 package com.example.geosvc.service;
 
+import com.example.geosvc.distance.DistanceCalculator;
+import com.example.geosvc.distance.DistanceMode;
+import com.example.geosvc.distance.HaversineBatch;
+import com.example.geosvc.distance.HaversineKernel;
+import com.example.geosvc.dto.DistanceBatchResponse;
+import com.example.geosvc.dto.DistanceRequest;
 import com.example.geosvc.dto.DistanceResponse;
+import com.example.geosvc.dto.NearestPostalCodesResponse;
 import com.example.geosvc.dto.PostalCodeResponse;
+import com.example.geosvc.dto.PostalCodeSliceResponse;
 import com.example.geosvc.dto.UpdatePostalCodeRequest;
+import com.example.geosvc.exception.InvalidRequestException;
 import com.example.geosvc.exception.PostalCodeNotFoundException;
+import com.example.geosvc.exception.ServiceNotReadyException;
+import com.example.geosvc.metrics.GeoMetrics;
+import com.example.geosvc.metrics.GeoMetrics.Operation;
+import com.example.geosvc.metrics.GeoMetrics.Phase;
 import com.example.geosvc.model.PostalCode;
+import com.example.geosvc.model.PostalCodeCoordinates;
 import com.example.geosvc.repository.PostalCodeRepository;
+import com.example.geosvc.spatial.NearestNeighbours;
+import com.example.geosvc.spatial.PostcodeSpatialIndex;
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeCache;
+import com.example.geosvc.store.PostcodeChangedEvent;
+import com.example.geosvc.store.PostcodeKey;
+import com.example.geosvc.store.PostcodeStore;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PostalCodeService {
 
-    private final static double EARTH_RADIUS = 6371; // radius in kilometers
+    private final static int MAX_NEIGHBOURS = 1000;
+    private final static int NEIGHBOUR_CANDIDATE_MARGIN = 16;
+    private final static double MAX_RADIUS_KM = 1500;
+    private final static int MAX_BATCH_SIZE = 100_000;
+    private final static int WITHIN_BATCH_SIZE = 1024;
+    private final static int IN_QUERY_CHUNK_SIZE = 1000;
+    private final static long MAX_MATRIX_CELLS = 250_000_000L;
+    private final static int MAX_SLICE_LIMIT = 1000;
+    // Both are indexed, so ordering by either never sorts the table
+    private final static List<String> SORTABLE_FIELDS = List.of("id", "postcode");
 
     private final PostalCodeRepository postalCodeRepository;
+    private final PostcodeStore postcodeStore;
+    private final PostcodeSpatialIndex spatialIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HaversineKernel haversineKernel;
+    private final GeoMetrics metrics;
+    private final PostcodeCache postcodeCache;
+    private final DistancePairCache distancePairCache;
 
-    public PostalCodeService(PostalCodeRepository postalCodeRepository) {
+    public PostalCodeService(PostalCodeRepository postalCodeRepository,
+                             PostcodeStore postcodeStore,
+                             PostcodeSpatialIndex spatialIndex,
+                             ApplicationEventPublisher eventPublisher,
+                             HaversineKernel haversineKernel,
+                             GeoMetrics metrics,
+                             PostcodeCache postcodeCache,
+                             DistancePairCache distancePairCache) {
         this.postalCodeRepository = postalCodeRepository;
+        this.postcodeStore = postcodeStore;
+        this.spatialIndex = spatialIndex;
+        this.eventPublisher = eventPublisher;
+        this.haversineKernel = haversineKernel;
+        this.metrics = metrics;
+        this.postcodeCache = postcodeCache;
+        this.distancePairCache = distancePairCache;
     }
 
     public DistanceResponse calculateDistance(String postcode1, String postcode2) {
-        PostalCode pc1 = postalCodeRepository.findByPostcode(postcode1)
-                .orElseThrow(() -> new IllegalArgumentException("Postcode not found: " + postcode1));
-        PostalCode pc2 = postalCodeRepository.findByPostcode(postcode2)
-                .orElseThrow(() -> new IllegalArgumentException("Postcode not found: " + postcode2));
+        return calculateDistance(postcode1, postcode2, DistanceMode.HAVERSINE);
+    }
+
+    public DistanceResponse calculateDistance(String postcode1, String postcode2, DistanceMode mode) {
+        long start = System.nanoTime();
+        DistanceResponse.Location location1 = locate(postcode1);
+        DistanceResponse.Location location2 = locate(postcode2);
+        long located = System.nanoTime();
+        metrics.record(Operation.DISTANCE, Phase.LOOKUP, located - start);
+
+        DistanceCalculator calculator = mode.calculator();
+        double distance = calculator.distance(
+                location1.getLatitude(), location1.getLongitude(),
+                location2.getLatitude(), location2.getLongitude());
+        metrics.record(Operation.DISTANCE, Phase.DISTANCE, System.nanoTime() - located);
+
+        return new DistanceResponse(location1, location2, distance, calculator.name(), calculator.errorBound(distance));
+    }
+
+    /**
+     * Returns the distance as a serialized {@link DistanceResponse}, reusing the body from
+     * an earlier request for the same pair of postcodes where possible.
+     */
+    public byte[] calculateDistanceJson(String postcode1, String postcode2, DistanceMode mode) {
+        long key1 = PostcodeKey.encode(postcode1);
+        long key2 = PostcodeKey.encode(postcode2);
+        if (key1 == PostcodeKey.INVALID || key2 == PostcodeKey.INVALID) {
+            return distancePairCache.serialize(calculateDistance(postcode1, postcode2, mode));
+        }
+        return distancePairCache.get(key1, key2, mode, () -> calculateDistance(postcode1, postcode2, mode));
+    }
+
+    /**
+     * Calculates the distance for every pair, resolving each distinct postcode once up front.
+     * Pairs that cannot be calculated carry an error instead of failing the whole batch.
+     */
+    public DistanceBatchResponse calculateDistances(List<DistanceRequest> requests) {
+        return calculateDistances(requests, DistanceMode.HAVERSINE);
+    }
+
+    public DistanceBatchResponse calculateDistances(List<DistanceRequest> requests, DistanceMode mode) {
+        DistanceCalculator calculator = mode.calculator();
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("A batch can contain at most " + MAX_BATCH_SIZE + " pairs");
+        }
+        long start = System.nanoTime();
+        long[] keys = new long[requests.size() * 2];
+        for (int i = 0; i < requests.size(); i++) {
+            DistanceRequest request = requests.get(i);
+            keys[2 * i] = request == null ? PostcodeKey.INVALID : PostcodeKey.encode(request.getPostcode1());
+            keys[2 * i + 1] = request == null ? PostcodeKey.INVALID : PostcodeKey.encode(request.getPostcode2());
+        }
+        long[] distinctKeys = distinctValidKeys(keys);
+        long[] coordinates = resolveCoordinates(distinctKeys);
+        long resolved = System.nanoTime();
+        metrics.record(Operation.DISTANCE_BATCH, Phase.LOOKUP, resolved - start);
+
+        double[] distances = mode == DistanceMode.HAVERSINE
+                ? haversineDistances(keys, distinctKeys, coordinates)
+                : null;
+        List<DistanceBatchResponse.Result> results = new ArrayList<>(requests.size());
+        int failed = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            DistanceRequest request = requests.get(i);
+            String postcode1 = request == null ? null : request.getPostcode1();
+            String postcode2 = request == null ? null : request.getPostcode2();
+            long coordinates1 = lookup(distinctKeys, coordinates, keys[2 * i]);
+            long coordinates2 = lookup(distinctKeys, coordinates, keys[2 * i + 1]);
+
+            String error = null;
+            if (keys[2 * i] == PostcodeKey.INVALID) {
+                error = "Invalid UK postcode format for first postcode";
+                metrics.validationFailed();
+            } else if (keys[2 * i + 1] == PostcodeKey.INVALID) {
+                error = "Invalid UK postcode format for second postcode";
+                metrics.validationFailed();
+            } else if (!isLocated(coordinates1)) {
+                error = "Postcode not found: " + postcode1;
+                metrics.postcodeNotFound();
+            } else if (!isLocated(coordinates2)) {
+                error = "Postcode not found: " + postcode2;
+                metrics.postcodeNotFound();
+            }
+
+            if (error != null) {
+                failed++;
+                results.add(new DistanceBatchResponse.Result(postcode1, postcode2, null, error));
+            } else if (distances != null) {
+                results.add(new DistanceBatchResponse.Result(postcode1, postcode2, distances[i], null));
+            } else {
+                results.add(new DistanceBatchResponse.Result(postcode1, postcode2, calculator.distance(
+                        Coordinates.latitude(coordinates1), Coordinates.longitude(coordinates1),
+                        Coordinates.latitude(coordinates2), Coordinates.longitude(coordinates2)), null));
+            }
+        }
+        metrics.record(Operation.DISTANCE_BATCH, Phase.DISTANCE, System.nanoTime() - resolved);
+        return new DistanceBatchResponse(results, failed);
+    }
+
+    /**
+     * Haversine distance of every pair with both ends located, indexed by pair. Pairs are
+     * grouped by origin with a counting sort, and each origin's destinations are measured
+     * with one call into the configured {@link HaversineKernel}.
+     */
+    private double[] haversineDistances(long[] keys, long[] distinctKeys, long[] coordinates) {
+        int pairs = keys.length / 2;
+        int[] originOf = new int[pairs];
+        int[] groupStart = new int[distinctKeys.length + 1];
+        for (int i = 0; i < pairs; i++) {
+            int origin = keys[2 * i] == PostcodeKey.INVALID ? -1 : Arrays.binarySearch(distinctKeys, keys[2 * i]);
+            if (origin >= 0 && !(isLocated(coordinates[origin])
+                    && isLocated(lookup(distinctKeys, coordinates, keys[2 * i + 1])))) {
+                origin = -1;
+            }
+            originOf[i] = origin;
+            if (origin >= 0) {
+                groupStart[origin + 1]++;
+            }
+        }
+        int largestGroup = 0;
+        for (int g = 0; g < distinctKeys.length; g++) {
+            largestGroup = Math.max(largestGroup, groupStart[g + 1]);
+            groupStart[g + 1] += groupStart[g];
+        }
+        int[] next = Arrays.copyOf(groupStart, distinctKeys.length);
+        int[] pairsByOrigin = new int[groupStart[distinctKeys.length]];
+        for (int i = 0; i < pairs; i++) {
+            if (originOf[i] >= 0) {
+                pairsByOrigin[next[originOf[i]]++] = i;
+            }
+        }
+
+        double[] distances = new double[pairs];
+        HaversineBatch batch = new HaversineBatch(haversineKernel, largestGroup);
+        for (int g = 0; g < distinctKeys.length; g++) {
+            if (groupStart[g] == groupStart[g + 1]) {
+                continue;
+            }
+            batch.origin(Coordinates.latitude(coordinates[g]), Coordinates.longitude(coordinates[g]));
+            for (int p = groupStart[g]; p < groupStart[g + 1]; p++) {
+                long destination = lookup(distinctKeys, coordinates, keys[2 * pairsByOrigin[p] + 1]);
+                batch.add(Coordinates.latitude(destination), Coordinates.longitude(destination));
+            }
+            double[] groupDistances = batch.compute();
+            for (int p = groupStart[g]; p < groupStart[g + 1]; p++) {
+                distances[pairsByOrigin[p]] = groupDistances[p - groupStart[g]];
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Resolves every origin and destination once and returns a matrix that computes the
+     * distances as it is written. Fails on the first invalid or unknown postcode.
+     */
+    public DistanceMatrix distanceMatrix(List<String> origins, List<String> destinations) {
+        if ((long) origins.size() * destinations.size() > MAX_MATRIX_CELLS) {
+            throw new InvalidRequestException("A matrix can contain at most " + MAX_MATRIX_CELLS + " distances");
+        }
+        long start = System.nanoTime();
+        long[] originKeys = encodeAll(origins);
+        long[] destinationKeys = encodeAll(destinations);
+        long[] allKeys = Arrays.copyOf(originKeys, originKeys.length + destinationKeys.length);
+        System.arraycopy(destinationKeys, 0, allKeys, originKeys.length, destinationKeys.length);
+        long[] distinctKeys = distinctValidKeys(allKeys);
+        long[] coordinates = resolveCoordinates(distinctKeys);
+
+        double[][] originPoints = locateAll(origins, originKeys, distinctKeys, coordinates);
+        double[][] destinationPoints = locateAll(destinations, destinationKeys, distinctKeys, coordinates);
+        metrics.record(Operation.DISTANCE_MATRIX, Phase.LOOKUP, System.nanoTime() - start);
+        return new DistanceMatrix(haversineKernel, canonical(originKeys), originPoints[0], originPoints[1],
+                canonical(destinationKeys), destinationPoints[0], destinationPoints[1], metrics);
+    }
+
+    private static long[] encodeAll(List<String> postcodes) {
+        long[] keys = new long[postcodes.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = PostcodeKey.encode(postcodes.get(i));
+            if (keys[i] == PostcodeKey.INVALID) {
+                throw new InvalidRequestException("Invalid UK postcode format: " + postcodes.get(i));
+            }
+        }
+        return keys;
+    }
+
+    private static List<String> canonical(long[] keys) {
+        List<String> postcodes = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            postcodes.add(PostcodeKey.toString(key));
+        }
+        return postcodes;
+    }
 
-        double distance = calculateDistance(
-                pc1.getLatitude().doubleValue(), pc1.getLongitude().doubleValue(),
-                pc2.getLatitude().doubleValue(), pc2.getLongitude().doubleValue());
+    private static double[][] locateAll(List<String> postcodes, long[] keys, long[] sortedKeys, long[] coordinates) {
+        double[] latitudes = new double[keys.length];
+        double[] longitudes = new double[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long point = lookup(sortedKeys, coordinates, keys[i]);
+            if (!isLocated(point)) {
+                throw new PostalCodeNotFoundException(postcodes.get(i));
+            }
+            latitudes[i] = Coordinates.latitude(point);
+            longitudes[i] = Coordinates.longitude(point);
+        }
+        return new double[][]{latitudes, longitudes};
+    }
+
+    private static long[] distinctValidKeys(long[] keys) {
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (long key : sorted) {
+            if (key != PostcodeKey.INVALID && (size == 0 || sorted[size - 1] != key)) {
+                sorted[size++] = key;
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
 
-        DistanceResponse.Location location1 = new DistanceResponse.Location(
-                pc1.getPostcode(),
-                pc1.getLatitude().doubleValue(),
-                pc1.getLongitude().doubleValue());
-        DistanceResponse.Location location2 = new DistanceResponse.Location(
-                pc2.getPostcode(),
-                pc2.getLatitude().doubleValue(),
-                pc2.getLongitude().doubleValue());
+    // Coordinates for each of the sorted keys, NOT_FOUND where the postcode is unknown
+    private long[] resolveCoordinates(long[] sortedKeys) {
+        long[] coordinates = new long[sortedKeys.length];
+        if (postcodeStore.isLoaded()) {
+            for (int i = 0; i < sortedKeys.length; i++) {
+                coordinates[i] = postcodeStore.find(sortedKeys[i]);
+            }
+            return coordinates;
+        }
 
-        return new DistanceResponse(location1, location2, distance);
+        for (int from = 0; from < sortedKeys.length; from += IN_QUERY_CHUNK_SIZE) {
+            int to = Math.min(from + IN_QUERY_CHUNK_SIZE, sortedKeys.length);
+            List<Long> keys = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                keys.add(sortedKeys[i]);
+            }
+            Map<Long, Long> found = postcodeCache.findAll(keys, this::loadAllCoordinates);
+            for (int i = from; i < to; i++) {
+                coordinates[i] = found.get(sortedKeys[i]);
+            }
+        }
+        return coordinates;
+    }
+
+    private Map<Long, Long> loadAllCoordinates(Set<? extends Long> keys) {
+        // The cache hands over the missing keys in no particular order; keep the IN list stable
+        long[] sortedKeys = keys.stream().mapToLong(Long::longValue).sorted().toArray();
+        List<String> postcodes = new ArrayList<>(sortedKeys.length);
+        for (long key : sortedKeys) {
+            postcodes.add(PostcodeKey.toString(key));
+        }
+        Map<Long, Long> coordinates = new HashMap<>();
+        for (PostalCodeCoordinates postalCode : postalCodeRepository.findCoordinatesByPostcodeIn(postcodes)) {
+            coordinates.put(PostcodeKey.encode(postalCode.getPostcode()), Coordinates.pack(
+                    Coordinates.toE7(postalCode.getLatitude()),
+                    Coordinates.toE7(postalCode.getLongitude())));
+        }
+        return coordinates;
+    }
+
+    private static boolean isLocated(long coordinates) {
+        return coordinates != PostcodeStore.NOT_FOUND && Coordinates.hasCoordinates(coordinates);
+    }
+
+    private static long lookup(long[] sortedKeys, long[] coordinates, long key) {
+        int index = key == PostcodeKey.INVALID ? -1 : Arrays.binarySearch(sortedKeys, key);
+        return index >= 0 ? coordinates[index] : PostcodeStore.NOT_FOUND;
+    }
+
+    public NearestPostalCodesResponse findNearest(String postcode, int k) {
+        checkNeighbourCount(k);
+        long start = System.nanoTime();
+        DistanceResponse.Location origin = findLocation(postcode);
+        metrics.record(Operation.NEAREST, Phase.LOOKUP, System.nanoTime() - start);
+        if (origin == null) {
+            throw new PostalCodeNotFoundException(postcode);
+        }
+        return findNearest(origin, k, PostcodeKey.encode(postcode));
+    }
+
+    public NearestPostalCodesResponse findNearest(double latitude, double longitude, int k) {
+        checkNeighbourCount(k);
+        checkCoordinates(latitude, longitude);
+        return findNearest(new DistanceResponse.Location(null, latitude, longitude), k, PostcodeKey.INVALID);
+    }
+
+    private NearestPostalCodesResponse findNearest(DistanceResponse.Location origin, int k, long excludedKey) {
+        if (!spatialIndex.isReady()) {
+            throw new ServiceNotReadyException("Spatial index is not ready");
+        }
+        long start = System.nanoTime();
+        // Over-fetch by approximate distance so the exact ranking below can reorder near-ties at the boundary
+        NearestNeighbours candidates = spatialIndex.nearest(
+                origin.getLatitude(), origin.getLongitude(), k + NEIGHBOUR_CANDIDATE_MARGIN, excludedKey);
+
+        HaversineBatch batch = new HaversineBatch(haversineKernel, candidates.size());
+        batch.origin(origin.getLatitude(), origin.getLongitude());
+        for (int i = 0; i < candidates.size(); i++) {
+            batch.add(Coordinates.latitude(candidates.coordinates(i)), Coordinates.longitude(candidates.coordinates(i)));
+        }
+        double[] distances = batch.compute();
+        List<NearestPostalCodesResponse.Neighbour> neighbours = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            neighbours.add(new NearestPostalCodesResponse.Neighbour(
+                    PostcodeKey.toString(candidates.key(i)),
+                    batch.latitude(i),
+                    batch.longitude(i),
+                    distances[i]));
+        }
+        neighbours.sort(Comparator.comparingDouble(NearestPostalCodesResponse.Neighbour::getDistance));
+        metrics.record(Operation.NEAREST, Phase.DISTANCE, System.nanoTime() - start);
+
+        return new NearestPostalCodesResponse(origin, new ArrayList<>(neighbours.subList(0, Math.min(k, neighbours.size()))));
+    }
+
+    private void checkNeighbourCount(int k) {
+        if (k < 1 || k > MAX_NEIGHBOURS) {
+            throw new InvalidRequestException("k must be between 1 and " + MAX_NEIGHBOURS);
+        }
+    }
+
+    private void checkCoordinates(double latitude, double longitude) {
+        if (!Coordinates.isValidLatitude(latitude) || !Coordinates.isValidLongitude(longitude)) {
+            throw new InvalidRequestException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+    }
+
+    public RadiusSearch radiusSearch(String postcode, double radiusKm) {
+        checkRadius(radiusKm);
+        long start = System.nanoTime();
+        DistanceResponse.Location origin = findLocation(postcode);
+        metrics.record(Operation.WITHIN, Phase.LOOKUP, System.nanoTime() - start);
+        if (origin == null) {
+            throw new PostalCodeNotFoundException(postcode);
+        }
+        return new RadiusSearch(origin, radiusKm);
+    }
+
+    public RadiusSearch radiusSearch(double latitude, double longitude, double radiusKm) {
+        checkRadius(radiusKm);
+        checkCoordinates(latitude, longitude);
+        return new RadiusSearch(new DistanceResponse.Location(null, latitude, longitude), radiusKm);
+    }
+
+    private void checkRadius(double radiusKm) {
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new InvalidRequestException("radiusKm must be greater than 0 and at most " + MAX_RADIUS_KM);
+        }
+        if (!spatialIndex.isReady()) {
+            throw new ServiceNotReadyException("Spatial index is not ready");
+        }
+    }
+
+    /**
+     * Passes every postcode within the search radius to {@code consumer} as it is found, in
+     * index order rather than by distance, and returns how many there were. Candidates come
+     * from the bounding box of the radius and are filtered with the exact distance. The
+     * recorded distance phase includes the time {@code consumer} takes to write results.
+     */
+    public long forEachWithin(RadiusSearch search, WithinConsumer consumer) throws IOException {
+        long start = System.nanoTime();
+        double originLatitude = search.getOrigin().getLatitude();
+        double originLongitude = search.getOrigin().getLongitude();
+        double radiusKm = search.getRadiusKm();
+        long[] count = {0};
+        // Candidates are measured a batch at a time with the configured kernel, keeping index order
+        HaversineBatch batch = new HaversineBatch(haversineKernel, WITHIN_BATCH_SIZE);
+        batch.origin(originLatitude, originLongitude);
+        long[] keys = new long[WITHIN_BATCH_SIZE];
+        try {
+            spatialIndex.forEachInRadiusBounds(originLatitude, originLongitude, radiusKm, (key, coordinates) -> {
+                keys[batch.size()] = key;
+                batch.add(Coordinates.latitude(coordinates), Coordinates.longitude(coordinates));
+                if (batch.isFull()) {
+                    count[0] += acceptWithin(batch, keys, radiusKm, consumer);
+                }
+            });
+            count[0] += acceptWithin(batch, keys, radiusKm, consumer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            metrics.record(Operation.WITHIN, Phase.DISTANCE, System.nanoTime() - start);
+        }
+        return count[0];
+    }
+
+    private static int acceptWithin(HaversineBatch batch, long[] keys, double radiusKm, WithinConsumer consumer) {
+        double[] distances = batch.compute();
+        int accepted = 0;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                if (distances[i] <= radiusKm) {
+                    accepted++;
+                    consumer.accept(keys[i], batch.latitude(i), batch.longitude(i), distances[i]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        batch.clear();
+        return accepted;
+    }
+
+    @FunctionalInterface
+    public interface WithinConsumer {
+        void accept(long key, double latitude, double longitude, double distance) throws IOException;
+    }
+
+    private DistanceResponse.Location locate(String postcode) {
+        DistanceResponse.Location location = findLocation(postcode);
+        if (location == null) {
+            metrics.postcodeNotFound();
+            throw new IllegalArgumentException("Postcode not found: " + postcode);
+        }
+        return location;
+    }
+
+    private DistanceResponse.Location findLocation(String postcode) {
+        long key = PostcodeKey.encode(postcode);
+        if (key != PostcodeKey.INVALID) {
+            long coordinates = findCoordinates(key);
+            if (coordinates == PostcodeStore.NOT_FOUND || !Coordinates.hasCoordinates(coordinates)) {
+                return null;
+            }
+            return new DistanceResponse.Location(
+                    PostcodeKey.toString(key),
+                    Coordinates.latitude(coordinates),
+                    Coordinates.longitude(coordinates));
+        }
+
+        return postalCodeRepository.findCoordinatesByPostcode(PostcodeKey.normalize(postcode))
+                .filter(postalCode -> postalCode.getLatitude() != null && postalCode.getLongitude() != null)
+                .map(postalCode -> new DistanceResponse.Location(
+                        postalCode.getPostcode(),
+                        postalCode.getLatitude(),
+                        postalCode.getLongitude()))
+                .orElse(null);
+    }
+
+    // Coordinates of a valid key from the store, or from the database through the cache until the store is loaded
+    private long findCoordinates(long key) {
+        if (postcodeStore.isLoaded()) {
+            return postcodeStore.find(key);
+        }
+        return postcodeCache.find(key, this::loadCoordinates);
+    }
+
+    private long loadCoordinates(long key) {
+        return postalCodeRepository.findCoordinatesByPostcode(PostcodeKey.toString(key))
+                .map(postalCode -> Coordinates.pack(
+                        Coordinates.toE7(postalCode.getLatitude()),
+                        Coordinates.toE7(postalCode.getLongitude())))
+                .orElse(PostcodeStore.NOT_FOUND);
     }
 
     @Transactional
     public PostalCode createOrUpdatePostalCode(PostalCode postalCode) {
-        return postalCodeRepository.findByPostcode(postalCode.getPostcode())
-                .map(existing -> {
-                    existing.setLatitude(postalCode.getLatitude());
-                    existing.setLongitude(postalCode.getLongitude());
-                    return postalCodeRepository.save(existing);
-                })
-                .orElseGet(() -> postalCodeRepository.save(postalCode));
+        long coordinates = checkedCoordinates(postalCode.getLatitude(), postalCode.getLongitude());
+        postalCode.setPostcode(PostcodeKey.normalize(postalCode.getPostcode()));
+        PostalCode target = postalCodeRepository.findByPostcode(postalCode.getPostcode()).orElse(postalCode);
+        setCoordinates(target, coordinates);
+        PostalCode saved = postalCodeRepository.save(target);
+        publishChange(saved.getPostcode(), coordinates);
+        return saved;
     }
 
-    private double calculateDistance(double latitude, double longitude, double latitude2, double longitude2) {
-        // Using Haversine formula! See Wikipedia;
-        double lon1Radians = Math.toRadians(longitude);
-        double lon2Radians = Math.toRadians(longitude2);
-        double lat1Radians = Math.toRadians(latitude);
-        double lat2Radians = Math.toRadians(latitude2);
-        double a = haversine(lat1Radians, lat2Radians)
-                + Math.cos(lat1Radians) * Math.cos(lat2Radians) * haversine(lon1Radians, lon2Radians);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return (EARTH_RADIUS * c);
+    /**
+     * Range-checks coordinates on their way into the database, once per write, and rounds
+     * them to the DECIMAL(10,7) the column keeps. Missing coordinates are allowed.
+     */
+    private static long checkedCoordinates(Double latitude, Double longitude) {
+        if (latitude != null && !Coordinates.isValidLatitude(latitude)) {
+            throw new InvalidRequestException("Latitude must be between -90 and 90");
+        }
+        if (longitude != null && !Coordinates.isValidLongitude(longitude)) {
+            throw new InvalidRequestException("Longitude must be between -180 and 180");
+        }
+        return Coordinates.pack(Coordinates.toE7(latitude), Coordinates.toE7(longitude));
     }
 
-    private double haversine(double deg1, double deg2) {
-        return square(Math.sin((deg1 - deg2) / 2.0));
+    private static void setCoordinates(PostalCode postalCode, long coordinates) {
+        postalCode.setLatitude(Coordinates.toDegrees(Coordinates.latitudeE7(coordinates)));
+        postalCode.setLongitude(Coordinates.toDegrees(Coordinates.longitudeE7(coordinates)));
     }
 
-    private double square(double x) {
-        return x * x;
+    private void publishChange(String postcode, long coordinates) {
+        long key = PostcodeKey.encode(postcode);
+        if (key != PostcodeKey.INVALID) {
+            eventPublisher.publishEvent(new PostcodeChangedEvent(key, coordinates));
+        }
     }
 
     public PostalCodeResponse getPostalCodeMapping(String postcode) {
-        Optional<PostalCode> postalCode = postalCodeRepository.findByPostcode(postcode);
+        long start = System.nanoTime();
+        try {
+            return findPostalCodeMapping(postcode);
+        } finally {
+            metrics.record(Operation.POSTCODE, Phase.LOOKUP, System.nanoTime() - start);
+        }
+    }
+
+    private PostalCodeResponse findPostalCodeMapping(String postcode) {
+        long key = PostcodeKey.encode(postcode);
+        if (key != PostcodeKey.INVALID) {
+            long coordinates = findCoordinates(key);
+            if (coordinates == PostcodeStore.NOT_FOUND) {
+                throw new PostalCodeNotFoundException(postcode);
+            }
+            return new PostalCodeResponse(
+                    PostcodeKey.toString(key),
+                    Coordinates.toDegrees(Coordinates.latitudeE7(coordinates)),
+                    Coordinates.toDegrees(Coordinates.longitudeE7(coordinates)));
+        }
+
+        Optional<PostalCodeCoordinates> postalCode = postalCodeRepository.findCoordinatesByPostcode(PostcodeKey.normalize(postcode));
         return postalCode.map(pc -> new PostalCodeResponse(pc.getPostcode(), pc.getLatitude(), pc.getLongitude()))
                 .orElseThrow(() -> new PostalCodeNotFoundException(postcode));
     }
 
     @Transactional
     public PostalCodeResponse updatePostalCodeMapping(String postcode, UpdatePostalCodeRequest request) {
-        PostalCode postalCode = postalCodeRepository.findByPostcode(postcode)
+        PostalCode postalCode = postalCodeRepository.findByPostcode(PostcodeKey.normalize(postcode))
                 .orElseThrow(() -> new PostalCodeNotFoundException(postcode));
 
-        postalCode.setLatitude(request.getLatitude());
-        postalCode.setLongitude(request.getLongitude());
+        long coordinates = checkedCoordinates(request.getLatitude(), request.getLongitude());
+        setCoordinates(postalCode, coordinates);
 
         PostalCode updatedPostalCode = postalCodeRepository.save(postalCode);
+        publishChange(updatedPostalCode.getPostcode(), coordinates);
 
         return new PostalCodeResponse(
                 updatedPostalCode.getPostcode(),
@@ -105,6 +628,9 @@ public class PostalCodeService {
 
     @Transactional(readOnly = true)
     public Page<PostalCodeResponse> getAllPostalCodes(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            checkSortable(order.getProperty());
+        }
         return postalCodeRepository.findAll(pageable)
                 .map(postalCode -> new PostalCodeResponse(
                         postalCode.getPostcode(),
@@ -112,4 +638,75 @@ public class PostalCodeService {
                         postalCode.getLongitude()
                 ));
     }
+
+    /**
+     * Returns up to {@code limit} postcodes ordered by {@code sortBy}, starting after the
+     * position in {@code cursor}, or from the start when it is {@code null}. When sorting by
+     * postcode the cursor may also be a plain postcode. Each call is an index range scan, so
+     * late slices cost the same as early ones and nothing is counted.
+     */
+    public PostalCodeSliceResponse getPostalCodeSlice(String sortBy, String cursor, int limit) {
+        checkSortable(sortBy);
+        if (limit < 1 || limit > MAX_SLICE_LIMIT) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SLICE_LIMIT);
+        }
+        String after = cursor == null ? null : decodeCursor(sortBy, cursor);
+        // One extra row tells whether there is a next slice
+        Pageable firstRows = PageRequest.ofSize(limit + 1);
+        List<PostalCode> rows;
+        if ("id".equals(sortBy)) {
+            rows = postalCodeRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : parseId(after), firstRows);
+        } else {
+            rows = postalCodeRepository.findByPostcodeGreaterThanOrderByPostcodeAsc(after == null ? "" : after, firstRows);
+        }
+
+        List<PostalCodeResponse> content = new ArrayList<>(Math.min(rows.size(), limit));
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            PostalCode row = rows.get(i);
+            content.add(new PostalCodeResponse(row.getPostcode(), row.getLatitude(), row.getLongitude()));
+        }
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            PostalCode last = rows.get(limit - 1);
+            nextCursor = encodeCursor(sortBy, "id".equals(sortBy) ? String.valueOf(last.getId()) : last.getPostcode());
+        }
+        return new PostalCodeSliceResponse(content, nextCursor);
+    }
+
+    private static void checkSortable(String sortBy) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new InvalidRequestException("sortBy must be one of " + String.join(", ", SORTABLE_FIELDS));
+        }
+    }
+
+    // Cursors are opaque to clients but only carry the sort column and the last value returned
+    private static String encodeCursor(String sortBy, String value) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sortBy + ':' + value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String sortBy, String cursor) {
+        // An encoded cursor is always longer than a postcode, so the two cannot be confused
+        if ("postcode".equals(sortBy) && PostcodeKey.encode(cursor) != PostcodeKey.INVALID) {
+            return PostcodeKey.normalize(cursor);
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        if (!decoded.startsWith(sortBy + ':')) {
+            throw new InvalidRequestException("Cursor does not match sortBy " + sortBy);
+        }
+        return decoded.substring(sortBy.length() + 1);
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
 } 
\ No newline at end of file
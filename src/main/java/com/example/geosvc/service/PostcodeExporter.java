@@ -0,0 +1,209 @@
+package com.example.geosvc.service;
+
+import com.example.geosvc.repository.PostalCodeJdbcRepository;
+import com.example.geosvc.store.Coordinates;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+/**
+ * Writes the whole of {@code postcodelatlng} to a stream in postcode order, straight from a
+ * forward-only JDBC cursor. Rows are never collected, so memory use does not grow with the table.
+ */
+@Service
+public class PostcodeExporter {
+    private static final Logger logger = LoggerFactory.getLogger(PostcodeExporter.class);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int BINARY_POSTCODE_LENGTH = 8;
+    private static final int BINARY_RECORD_SIZE = BINARY_POSTCODE_LENGTH + 2 * Integer.BYTES;
+    private static final byte[] CSV_HEADER = "postcode,latitude,longitude\n".getBytes();
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+    private static final SerializedString NDJSON_SEPARATOR = new SerializedString("\n");
+
+    public enum Format {
+        CSV, NDJSON, BIN;
+
+        public static Optional<Format> fromParameter(String parameter) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(parameter)) {
+                    return Optional.of(format);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final PostalCodeJdbcRepository postalCodeJdbcRepository;
+
+    public PostcodeExporter(PostalCodeJdbcRepository postalCodeJdbcRepository) {
+        this.postalCodeJdbcRepository = postalCodeJdbcRepository;
+    }
+
+    /**
+     * Writes every postcode after {@code afterPostcode}, or all of them when it is {@code null},
+     * and returns how many were written.
+     * <ul>
+     *     <li>CSV: a {@code postcode,latitude,longitude} header, then one line per postcode with
+     *     the stored decimals and empty fields for missing coordinates.</li>
+     *     <li>NDJSON: one {@code {"postcode":...,"latitude":...,"longitude":...}} object per line.</li>
+     *     <li>BIN: 16-byte records of the postcode as 8 ASCII bytes padded with spaces, then the
+     *     latitude and longitude as little-endian int32 in 1e-7 degrees, {@code Integer.MIN_VALUE}
+     *     when missing. Postcodes longer than 8 characters are skipped.</li>
+     * </ul>
+     */
+    public long export(String afterPostcode, Format format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        RowWriter writer = switch (format) {
+            case CSV -> new CsvWriter(out);
+            case NDJSON -> new NdjsonWriter(out);
+            case BIN -> new BinaryWriter(out);
+        };
+        try {
+            postalCodeJdbcRepository.forEachRow(afterPostcode == null ? "" : afterPostcode, (postcode, latitude, longitude) -> {
+                try {
+                    writer.write(postcode, latitude, longitude);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+        logger.info("Exported {} postcodes as {} in {} ms", writer.count, format, (System.nanoTime() - start) / 1_000_000);
+        return writer.count;
+    }
+
+    private abstract static class RowWriter {
+        long count;
+
+        abstract void write(String postcode, String latitude, String longitude) throws IOException;
+
+        abstract void finish() throws IOException;
+    }
+
+    private static final class CsvWriter extends RowWriter {
+        private final OutputStream out;
+        private byte[] line = new byte[64];
+
+        private CsvWriter(OutputStream out) throws IOException {
+            this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+            this.out.write(CSV_HEADER);
+        }
+
+        @Override
+        void write(String postcode, String latitude, String longitude) throws IOException {
+            int length = postcode.length() + (latitude == null ? 0 : latitude.length())
+                    + (longitude == null ? 0 : longitude.length()) + 3;
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            int position = append(postcode, 0);
+            line[position++] = ',';
+            position = append(latitude, position);
+            line[position++] = ',';
+            position = append(longitude, position);
+            line[position++] = '\n';
+            out.write(line, 0, position);
+            count++;
+        }
+
+        // Postcodes and decimals are plain ASCII; anything else could break the CSV structure
+        private int append(String value, int position) {
+            if (value != null) {
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    line[position++] = c < 0x80 && c != ',' && c != '"' && c != '\n' && c != '\r' ? (byte) c : (byte) '?';
+                }
+            }
+            return position;
+        }
+
+        @Override
+        void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class NdjsonWriter extends RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = JSON_FACTORY.createGenerator(out);
+            this.generator.setRootValueSeparator(NDJSON_SEPARATOR);
+        }
+
+        @Override
+        void write(String postcode, String latitude, String longitude) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("postcode", postcode);
+            writeDecimal("latitude", latitude);
+            writeDecimal("longitude", longitude);
+            generator.writeEndObject();
+            count++;
+        }
+
+        // The database text is written as-is so no precision is lost on the way through a double
+        private void writeDecimal(String field, String value) throws IOException {
+            generator.writeFieldName(field);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(value);
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+
+    private static final class BinaryWriter extends RowWriter {
+        private final OutputStream out;
+        private final ByteBuffer record = ByteBuffer.allocate(BINARY_RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        private BinaryWriter(OutputStream out) {
+            this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        void write(String postcode, String latitude, String longitude) throws IOException {
+            if (postcode.length() > BINARY_POSTCODE_LENGTH) {
+                return;
+            }
+            record.clear();
+            for (int i = 0; i < BINARY_POSTCODE_LENGTH; i++) {
+                char c = i < postcode.length() ? postcode.charAt(i) : ' ';
+                record.put(c < 0x80 ? (byte) c : (byte) '?');
+            }
+            record.putInt(latitude == null ? Coordinates.NO_COORDINATE : Coordinates.toE7(Double.parseDouble(latitude)));
+            record.putInt(longitude == null ? Coordinates.NO_COORDINATE : Coordinates.toE7(Double.parseDouble(longitude)));
+            out.write(record.array(), 0, BINARY_RECORD_SIZE);
+            count++;
+        }
+
+        @Override
+        void finish() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.geosvc.service;
+
+import com.example.geosvc.dto.DistanceResponse;
+
+/**
+ * A validated radius query, resolved before any results are streamed so that errors
+ * can still be reported with a proper status code.
+ */
+public final class RadiusSearch {
+    private final DistanceResponse.Location origin;
+    private final double radiusKm;
+
+    public RadiusSearch(DistanceResponse.Location origin, double radiusKm) {
+        this.origin = origin;
+        this.radiusKm = radiusKm;
+    }
+
+    public DistanceResponse.Location getOrigin() {
+        return origin;
+    }
+
+    public double getRadiusKm() {
+        return radiusKm;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.geosvc.spatial;
+
+/**
+ * Postcodes returned by a spatial search, nearest first by approximate distance.
+ */
+public final class NearestNeighbours {
+    private final long[] keys;
+    private final long[] coordinates;
+    private final double[] approximateDistances;
+
+    NearestNeighbours(int size) {
+        keys = new long[size];
+        coordinates = new long[size];
+        approximateDistances = new double[size];
+    }
+
+    void set(int index, long key, long coordinates, double approximateDistance) {
+        this.keys[index] = key;
+        this.coordinates[index] = coordinates;
+        this.approximateDistances[index] = approximateDistance;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public long key(int index) {
+        return keys[index];
+    }
+
+    public long coordinates(int index) {
+        return coordinates[index];
+    }
+
+    public double approximateDistance(int index) {
+        return approximateDistances[index];
+    }
+}
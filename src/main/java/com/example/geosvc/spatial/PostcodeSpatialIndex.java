@@ -0,0 +1,128 @@
+package com.example.geosvc.spatial;
+
+import com.example.geosvc.distance.EquirectangularDistanceCalculator;
+import com.example.geosvc.store.PostcodeChangedEvent;
+import com.example.geosvc.store.PostcodeKey;
+import com.example.geosvc.store.PostcodeStore;
+import com.example.geosvc.store.PostcodesChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Grid index over the {@link PostcodeStore} for nearest-neighbour searches.
+ * <p>
+ * Built once the store has loaded, then rebuilt in the background shortly after
+ * postcodes change. Bursts of changes are coalesced into a single rebuild.
+ */
+@Component
+public class PostcodeSpatialIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PostcodeSpatialIndex.class);
+
+    private static final long REBUILD_DELAY_MS = 1000;
+
+    private final PostcodeStore postcodeStore;
+    private final ScheduledExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile SpatialGrid grid;
+
+    public PostcodeSpatialIndex(PostcodeStore postcodeStore) {
+        this.postcodeStore = postcodeStore;
+        this.rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spatial-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isReady() {
+        return grid != null;
+    }
+
+    public NearestNeighbours nearest(double latitude, double longitude, int k) {
+        return nearest(latitude, longitude, k, PostcodeKey.INVALID);
+    }
+
+    public NearestNeighbours nearest(double latitude, double longitude, int k, long excludedKey) {
+        SpatialGrid current = grid;
+        if (current == null) {
+            throw new IllegalStateException("Spatial index is not ready");
+        }
+        return current.nearest(latitude, longitude, k, excludedKey);
+    }
+
+    /**
+     * Visits every postcode within {@code radiusKm} of the given point, plus a few just outside
+     * it: the search covers the enclosing lat/lon bounding box, so callers filter exactly.
+     */
+    public void forEachInRadiusBounds(double latitude, double longitude, double radiusKm, PostcodeStore.EntryConsumer consumer) {
+        SpatialGrid current = grid;
+        if (current == null) {
+            throw new IllegalStateException("Spatial index is not ready");
+        }
+        double latitudeDelta = radiusKm / EquirectangularDistanceCalculator.KM_PER_DEGREE;
+        double minLatitude = Math.max(latitude - latitudeDelta, -90);
+        double maxLatitude = Math.min(latitude + latitudeDelta, 90);
+        // Longitude degrees are shortest at the box edge furthest from the equator
+        double widestLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+        double longitudeDelta = widestLatitude >= 89
+                ? 180
+                : latitudeDelta / Math.cos(Math.toRadians(widestLatitude));
+        current.forEachInBox(minLatitude, maxLatitude,
+                Math.max(longitude - longitudeDelta, -180), Math.min(longitude + longitudeDelta, 180),
+                consumer);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (postcodeStore.isLoaded()) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodeChanged(PostcodeChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodesChanged(PostcodesChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (postcodeStore.isLoaded() && rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.schedule(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.error("Spatial index rebuild failed, keeping the previous index", e);
+                }
+            }, REBUILD_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        SpatialGrid rebuilt = SpatialGrid.build(postcodeStore);
+        grid = rebuilt;
+        logger.info("Built spatial index over {} postcodes in {} ms",
+                rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.geosvc.spatial;
+
+import com.example.geosvc.distance.EquirectangularDistanceCalculator;
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeStore;
+
+import java.util.Arrays;
+
+/**
+ * Immutable uniform lat/lon grid over the postcodes in a {@link PostcodeStore}.
+ * <p>
+ * Entries are bucketed by cell with a counting sort into flat arrays, so a cell is a
+ * contiguous {@code [cellStart[c], cellStart[c + 1])} slice. Searches rank candidates with
+ * an equirectangular approximation scaled at the query latitude, which is monotonic
+ * enough at postcode scale to pick candidates that are then ranked exactly by the caller.
+ */
+final class SpatialGrid {
+
+    private static final double CELL_DEGREES = 0.01;
+    private static final int MAX_CELLS = 1 << 22;
+    private static final double E7 = 1e7;
+
+    private final double minLatitude;
+    private final double minLongitude;
+    private final double latitudeStep;
+    private final double longitudeStep;
+    private final int rows;
+    private final int columns;
+    private final int[] cellStart;
+    private final long[] keys;
+    private final int[] latitudes;
+    private final int[] longitudes;
+
+    private SpatialGrid(double minLatitude, double minLongitude, double latitudeStep, double longitudeStep,
+                        int rows, int columns, int[] cellStart, long[] keys, int[] latitudes, int[] longitudes) {
+        this.minLatitude = minLatitude;
+        this.minLongitude = minLongitude;
+        this.latitudeStep = latitudeStep;
+        this.longitudeStep = longitudeStep;
+        this.rows = rows;
+        this.columns = columns;
+        this.cellStart = cellStart;
+        this.keys = keys;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    static SpatialGrid build(PostcodeStore store) {
+        int capacity = store.size();
+        long[] pointKeys = new long[capacity];
+        int[] pointLatitudes = new int[capacity];
+        int[] pointLongitudes = new int[capacity];
+        int[] count = {0};
+        int[] bounds = {Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+        store.forEach((key, coordinates) -> {
+            int latitude = Coordinates.latitudeE7(coordinates);
+            int longitude = Coordinates.longitudeE7(coordinates);
+            // Skips missing coordinates and placeholder values outside the valid range
+            if (!Coordinates.hasCoordinates(coordinates) || Math.abs(latitude) > 900_000_000
+                    || Math.abs(longitude) > 1_800_000_000 || count[0] == capacity) {
+                return;
+            }
+            int n = count[0]++;
+            pointKeys[n] = key;
+            pointLatitudes[n] = latitude;
+            pointLongitudes[n] = longitude;
+            bounds[0] = Math.min(bounds[0], latitude);
+            bounds[1] = Math.max(bounds[1], latitude);
+            bounds[2] = Math.min(bounds[2], longitude);
+            bounds[3] = Math.max(bounds[3], longitude);
+        });
+
+        int size = count[0];
+        if (size == 0) {
+            return new SpatialGrid(0, 0, 1, 1, 1, 1, new int[2], new long[0], new int[0], new int[0]);
+        }
+
+        double minLatitude = bounds[0] / E7;
+        double maxLatitude = bounds[1] / E7;
+        double minLongitude = bounds[2] / E7;
+        double maxLongitude = bounds[3] / E7;
+        double middleLatitude = Math.toRadians((minLatitude + maxLatitude) / 2);
+        double latitudeStep = CELL_DEGREES;
+        double longitudeStep = CELL_DEGREES / Math.max(Math.cos(middleLatitude), 0.1);
+        int rows = (int) ((maxLatitude - minLatitude) / latitudeStep) + 1;
+        int columns = (int) ((maxLongitude - minLongitude) / longitudeStep) + 1;
+        while ((long) rows * columns > MAX_CELLS) {
+            latitudeStep *= 2;
+            longitudeStep *= 2;
+            rows = (int) ((maxLatitude - minLatitude) / latitudeStep) + 1;
+            columns = (int) ((maxLongitude - minLongitude) / longitudeStep) + 1;
+        }
+
+        int[] cellOf = new int[size];
+        int[] cellStart = new int[rows * columns + 1];
+        for (int i = 0; i < size; i++) {
+            int row = clamp((int) ((pointLatitudes[i] / E7 - minLatitude) / latitudeStep), rows);
+            int column = clamp((int) ((pointLongitudes[i] / E7 - minLongitude) / longitudeStep), columns);
+            cellOf[i] = row * columns + column;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < rows * columns; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        int[] next = Arrays.copyOf(cellStart, rows * columns);
+        long[] keys = new long[size];
+        int[] latitudes = new int[size];
+        int[] longitudes = new int[size];
+        for (int i = 0; i < size; i++) {
+            int slot = next[cellOf[i]]++;
+            keys[slot] = pointKeys[i];
+            latitudes[slot] = pointLatitudes[i];
+            longitudes[slot] = pointLongitudes[i];
+        }
+
+        return new SpatialGrid(minLatitude, minLongitude, latitudeStep, longitudeStep,
+                rows, columns, cellStart, keys, latitudes, longitudes);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Collects the {@code k} entries closest to the given point, excluding {@code excludedKey},
+     * in ascending order of approximate distance.
+     */
+    NearestNeighbours nearest(double latitude, double longitude, int k, long excludedKey) {
+        Collector collector = new Collector(k);
+        if (keys.length == 0 || k <= 0) {
+            return collector.toResult(keys, latitudes, longitudes);
+        }
+
+        double longitudeScale = Math.cos(Math.toRadians(latitude));
+        double cellHeight = latitudeStep * EquirectangularDistanceCalculator.KM_PER_DEGREE;
+        double cellWidth = longitudeStep * EquirectangularDistanceCalculator.KM_PER_DEGREE * longitudeScale;
+        double minCellSize = Math.min(cellHeight, cellWidth);
+        int row = clamp((int) Math.floor((latitude - minLatitude) / latitudeStep), rows);
+        int column = clamp((int) Math.floor((longitude - minLongitude) / longitudeStep), columns);
+        int maxRing = Math.max(rows, columns);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rows) {
+                    continue;
+                }
+                boolean edgeRow = r == row - ring || r == row + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int c = column - ring; c <= column + ring; c += Math.max(step, 1)) {
+                    if (c >= 0 && c < columns) {
+                        scanCell(r * columns + c, latitude, longitude, longitudeScale, excludedKey, collector);
+                    }
+                }
+            }
+            // Everything not yet scanned lies at least `ring` whole cells away
+            double reach = ring * minCellSize;
+            if (collector.isFull() && collector.worst() <= reach * reach) {
+                break;
+            }
+        }
+        return collector.toResult(keys, latitudes, longitudes);
+    }
+
+    /**
+     * Visits every entry inside the given bounding box, cell by cell.
+     */
+    void forEachInBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+                      PostcodeStore.EntryConsumer consumer) {
+        if (keys.length == 0) {
+            return;
+        }
+        int minLatitudeE7 = (int) Math.floor(minLatitude * E7);
+        int maxLatitudeE7 = (int) Math.ceil(maxLatitude * E7);
+        int minLongitudeE7 = (int) Math.floor(minLongitude * E7);
+        int maxLongitudeE7 = (int) Math.ceil(maxLongitude * E7);
+        int firstRow = clamp((int) Math.floor((minLatitude - this.minLatitude) / latitudeStep), rows);
+        int lastRow = clamp((int) Math.floor((maxLatitude - this.minLatitude) / latitudeStep), rows);
+        int firstColumn = clamp((int) Math.floor((minLongitude - this.minLongitude) / longitudeStep), columns);
+        int lastColumn = clamp((int) Math.floor((maxLongitude - this.minLongitude) / longitudeStep), columns);
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int i = cellStart[r * columns + firstColumn]; i < cellStart[r * columns + lastColumn + 1]; i++) {
+                int latitude = latitudes[i];
+                int longitude = longitudes[i];
+                if (latitude >= minLatitudeE7 && latitude <= maxLatitudeE7
+                        && longitude >= minLongitudeE7 && longitude <= maxLongitudeE7) {
+                    consumer.accept(keys[i], Coordinates.pack(latitude, longitude));
+                }
+            }
+        }
+    }
+
+    private void scanCell(int cell, double latitude, double longitude, double longitudeScale,
+                          long excludedKey, Collector collector) {
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            if (keys[i] == excludedKey) {
+                continue;
+            }
+            collector.offer(i, EquirectangularDistanceCalculator.squaredDistance(
+                    latitudes[i] / E7 - latitude, longitudes[i] / E7 - longitude, longitudeScale));
+        }
+    }
+
+    private static int clamp(int value, int limit) {
+        return value < 0 ? 0 : Math.min(value, limit - 1);
+    }
+
+    /**
+     * Bounded max-heap on squared approximate distance.
+     */
+    private static final class Collector {
+        private final int[] entries;
+        private final double[] distances;
+        private int size;
+
+        private Collector(int capacity) {
+            entries = new int[Math.max(capacity, 0)];
+            distances = new double[Math.max(capacity, 0)];
+        }
+
+        private boolean isFull() {
+            return size == entries.length;
+        }
+
+        private double worst() {
+            return distances[0];
+        }
+
+        private void offer(int entry, double distance) {
+            if (size < entries.length) {
+                int i = size++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    entries[i] = entries[(i - 1) / 2];
+                    distances[i] = distances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                entries[i] = entry;
+                distances[i] = distance;
+            } else if (size > 0 && distance < distances[0]) {
+                siftDown(entry, distance, size);
+            }
+        }
+
+        private void siftDown(int entry, double distance, int heapSize) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && distances[child + 1] > distances[child]) {
+                    child++;
+                }
+                if (distances[child] <= distance) {
+                    break;
+                }
+                entries[i] = entries[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            entries[i] = entry;
+            distances[i] = distance;
+        }
+
+        private NearestNeighbours toResult(long[] keys, int[] latitudes, int[] longitudes) {
+            NearestNeighbours result = new NearestNeighbours(size);
+            // Pop the max-heap from the back so the result ends up nearest first
+            for (int n = size; n > 0; n--) {
+                int entry = entries[0];
+                double distance = distances[0];
+                siftDown(entries[n - 1], distances[n - 1], n - 1);
+                result.set(n - 1, keys[entry], Coordinates.pack(latitudes[entry], longitudes[entry]), Math.sqrt(distance));
+            }
+            size = 0;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.geosvc.store;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Packs a latitude/longitude pair into a single {@code long} as two fixed-point
+ * ints in units of 1e-7 degrees, which is exactly the DECIMAL(10,7) precision of
+ * the {@code postcodelatlng} columns.
+ * <p>
+ * A {@code double} holds every DECIMAL(10,7) value closely enough that
+ * {@link #toE7(double)} recovers it exactly, so doubles are used everywhere outside
+ * the store and {@link BigDecimal} is left to the few places that format database text.
+ */
+public final class Coordinates {
+
+    public static final int SCALE = 7;
+    public static final int NO_COORDINATE = Integer.MIN_VALUE;
+
+    public static final double MAX_LATITUDE = 90;
+    public static final double MAX_LONGITUDE = 180;
+
+    private static final double E7 = 1e7;
+
+    private Coordinates() {
+    }
+
+    public static long pack(int latitudeE7, int longitudeE7) {
+        return ((long) latitudeE7 << 32) | (longitudeE7 & 0xFFFFFFFFL);
+    }
+
+    public static int latitudeE7(long coordinates) {
+        return (int) (coordinates >> 32);
+    }
+
+    public static int longitudeE7(long coordinates) {
+        return (int) coordinates;
+    }
+
+    public static boolean hasCoordinates(long coordinates) {
+        return latitudeE7(coordinates) != NO_COORDINATE && longitudeE7(coordinates) != NO_COORDINATE;
+    }
+
+    public static double latitude(long coordinates) {
+        return latitudeE7(coordinates) / E7;
+    }
+
+    public static double longitude(long coordinates) {
+        return longitudeE7(coordinates) / E7;
+    }
+
+    public static int toE7(double degrees) {
+        return Double.isNaN(degrees) ? NO_COORDINATE : (int) Math.round(degrees * E7);
+    }
+
+    public static int toE7(Double degrees) {
+        return degrees == null ? NO_COORDINATE : toE7(degrees.doubleValue());
+    }
+
+    public static int toE7(BigDecimal degrees) {
+        return degrees == null ? NO_COORDINATE : degrees.movePointRight(SCALE).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    public static Double toDegrees(int e7) {
+        return e7 == NO_COORDINATE ? null : e7 / E7;
+    }
+
+    public static boolean isValidLatitude(double degrees) {
+        return Math.abs(degrees) <= MAX_LATITUDE;
+    }
+
+    public static boolean isValidLongitude(double degrees) {
+        return Math.abs(degrees) <= MAX_LONGITUDE;
+    }
+
+    public static BigDecimal toBigDecimal(int e7) {
+        return e7 == NO_COORDINATE ? null : BigDecimal.valueOf(e7, SCALE);
+    }
+}
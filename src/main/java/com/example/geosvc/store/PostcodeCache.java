@@ -0,0 +1,145 @@
+package com.example.geosvc.store;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Read-through cache of packed coordinates in front of the database, used while the
+ * {@link PostcodeStore} is not loaded.
+ * <p>
+ * Entries are keyed by {@link PostcodeKey} and hold {@link Coordinates} values, or
+ * {@link PostcodeStore#NOT_FOUND} for postcodes the database does not know. Unknown postcodes
+ * are kept for a shorter time so that new rows show up soon. Caffeine's W-TinyLFU eviction
+ * keeps the frequently requested postcodes when the cache is full.
+ * <p>
+ * Loads run on the calling thread, outside the cache's map locks: a miss installs an incomplete
+ * future and concurrent requests for the same postcode wait on it. A blocking database read
+ * inside {@code ConcurrentHashMap.compute} would pin a virtual thread to its carrier.
+ */
+@Component
+public class PostcodeCache {
+
+    private final AsyncCache<Long, Long> cache;
+
+    public PostcodeCache(MeterRegistry meterRegistry,
+                         @Value("${geo.cache.maximum-size:100000}") long maximumSize,
+                         @Value("${geo.cache.ttl:10m}") Duration ttl,
+                         @Value("${geo.cache.negative-ttl:1m}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new CoordinatesExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "postcodes");
+    }
+
+    /**
+     * Returns the cached coordinates for {@code key}, calling {@code loader} on a miss. The
+     * loader returns {@link PostcodeStore#NOT_FOUND} for unknown postcodes.
+     */
+    public long find(long key, LongUnaryOperator loader) {
+        CompletableFuture<Long> created = new CompletableFuture<>();
+        CompletableFuture<Long> future = cache.get(key, (k, executor) -> created);
+        if (future != created) {
+            return join(future);
+        }
+        try {
+            long coordinates = loader.applyAsLong(key);
+            created.complete(coordinates);
+            return coordinates;
+        } catch (RuntimeException | Error e) {
+            // Failed futures are dropped by the cache, so the next request tries again
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the coordinates for every key, loading all the missing ones with one call to
+     * {@code loader}. Keys the loader leaves out are cached as not found.
+     */
+    public Map<Long, Long> findAll(Iterable<Long> keys, Function<Set<? extends Long>, Map<Long, Long>> loader) {
+        return join(cache.getAll(keys, (missing, executor) -> {
+            Map<Long, Long> loaded = loader.apply(missing);
+            for (Long key : missing) {
+                loaded.putIfAbsent(key, PostcodeStore.NOT_FOUND);
+            }
+            return CompletableFuture.completedFuture(loaded);
+        }));
+    }
+
+    long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Runs alongside the store so a write is visible as soon as it commits
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodeChanged(PostcodeChangedEvent event) {
+        cache.synchronous().put(event.getKey(), event.getCoordinates());
+    }
+
+    // Bulk writes only refresh cached entries so an import does not evict the working set
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodesChanged(PostcodesChangedEvent event) {
+        for (int i = 0; i < event.getCount(); i++) {
+            cache.synchronous().asMap().replace(event.getKeys()[i], event.getCoordinates()[i]);
+        }
+    }
+
+    private static final class CoordinatesExpiry implements Expiry<Long, Long> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private CoordinatesExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Long key, Long coordinates, long currentTime) {
+            return coordinates == PostcodeStore.NOT_FOUND ? negativeTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Long coordinates, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, coordinates, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Long coordinates, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
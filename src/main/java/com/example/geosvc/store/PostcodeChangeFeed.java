@@ -0,0 +1,205 @@
+package com.example.geosvc.store;
+
+import com.example.geosvc.repository.PostcodeChangeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps replicas coherent through the {@code postcode_changes} log.
+ * <p>
+ * Every local write is appended to the log in the writing transaction. Each replica polls the
+ * log for versions it has not seen and publishes them as a replicated
+ * {@link PostcodesChangedEvent}, which updates the store and caches in place. A replica's own
+ * writes come back through the feed as well; applying them again is harmless, and applying
+ * everything in version order is what keeps concurrent writers from leaving it stale.
+ * <p>
+ * Versions are assigned at insert time but become visible at commit, so a poll can see version
+ * {@code n + 1} before {@code n}. Skipped versions are re-checked until they show up or
+ * {@value #GAP_TIMEOUT_SECONDS} seconds pass (a rolled-back insert leaves a permanent gap).
+ * A late change is only applied if nothing newer for that postcode has been applied since.
+ */
+@Component
+@ConditionalOnProperty(name = "geo.changes.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PostcodeChangeFeed implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(PostcodeChangeFeed.class);
+
+    private static final int MAX_CHANGES_PER_POLL = 10_000;
+    private static final int MAX_TRACKED_GAPS = 10_000;
+    private static final long GAP_TIMEOUT_SECONDS = 60;
+    private static final long UNINITIALIZED = -1;
+
+    private final PostcodeChangeRepository changeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final ScheduledExecutorService pollExecutor;
+
+    // Only touched by the poll thread
+    private long lastVersion = UNINITIALIZED;
+    private final Map<Long, Long> gapDeadlines = new LinkedHashMap<>();
+    private final Map<Long, Long> appliedVersions = new HashMap<>();
+
+    public PostcodeChangeFeed(PostcodeChangeRepository changeRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${geo.changes.poll-interval:1s}") Duration pollInterval,
+                              @Value("${geo.changes.retention:24h}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.eventPublisher = eventPublisher;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.pollExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "postcode-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Runs before the store loads, so changes committed during the load are replayed on top of it
+    @Override
+    public void run(ApplicationArguments args) {
+        initialize();
+        pollExecutor.scheduleWithFixedDelay(this::pollSafely,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        pollExecutor.scheduleWithFixedDelay(this::prune, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPostcodeChanged(PostcodeChangedEvent event) {
+        changeRepository.append(new long[]{event.getKey()}, new long[]{event.getCoordinates()}, 1);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPostcodesChanged(PostcodesChangedEvent event) {
+        if (!event.isReplicated()) {
+            changeRepository.append(event.getKeys(), event.getCoordinates(), event.getCount());
+        }
+    }
+
+    /**
+     * Applies every change committed since the last poll and returns how many were applied.
+     */
+    int poll() {
+        if (lastVersion == UNINITIALIZED && !initialize()) {
+            return 0;
+        }
+        Map<Long, long[]> batch = new LinkedHashMap<>();
+        long now = System.nanoTime();
+        if (!gapDeadlines.isEmpty()) {
+            changeRepository.forEachVersion(new ArrayList<>(gapDeadlines.keySet()), (version, key, coordinates) -> {
+                gapDeadlines.remove(version);
+                add(batch, version, key, coordinates);
+            });
+            gapDeadlines.values().removeIf(deadline -> deadline - now < 0);
+        }
+        int read;
+        do {
+            read = changeRepository.forEachAfter(lastVersion, MAX_CHANGES_PER_POLL, (version, key, coordinates) -> {
+                for (long missing = lastVersion + 1; missing < version && gapDeadlines.size() < MAX_TRACKED_GAPS; missing++) {
+                    gapDeadlines.put(missing, now + TimeUnit.SECONDS.toNanos(GAP_TIMEOUT_SECONDS));
+                }
+                lastVersion = version;
+                add(batch, version, key, coordinates);
+            });
+        } while (read == MAX_CHANGES_PER_POLL);
+        if (gapDeadlines.isEmpty()) {
+            appliedVersions.clear();
+        }
+        publish(batch);
+        return batch.size();
+    }
+
+    private void add(Map<Long, long[]> batch, long version, long key, long coordinates) {
+        if (key == PostcodeKey.INVALID) {
+            return;
+        }
+        Long applied = appliedVersions.get(key);
+        long[] pending = batch.get(key);
+        if ((applied != null && applied > version) || (pending != null && pending[0] > version)) {
+            return;
+        }
+        batch.put(key, new long[]{version, coordinates});
+        if (!gapDeadlines.isEmpty()) {
+            appliedVersions.put(key, version);
+        }
+    }
+
+    private void publish(Map<Long, long[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long[] keys = new long[batch.size()];
+        long[] coordinates = new long[batch.size()];
+        int i = 0;
+        for (Iterator<Map.Entry<Long, long[]>> it = batch.entrySet().iterator(); it.hasNext(); i++) {
+            Map.Entry<Long, long[]> entry = it.next();
+            keys[i] = entry.getKey();
+            coordinates[i] = entry.getValue()[1];
+        }
+        eventPublisher.publishEvent(new PostcodesChangedEvent(keys, coordinates, keys.length, true));
+    }
+
+    private boolean initialize() {
+        try {
+            lastVersion = changeRepository.latestVersion();
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("Could not read the postcode change log, will retry: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            int applied = poll();
+            if (applied > 0) {
+                logger.debug("Applied {} postcode changes up to version {}", applied, lastVersion);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Polling the postcode change log failed, will retry", e);
+        }
+    }
+
+    private void prune() {
+        try {
+            int deleted = changeRepository.deleteOlderThan(Instant.now().minus(retention));
+            if (deleted > 0) {
+                logger.info("Pruned {} postcode changes older than {}", deleted, retention);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Pruning the postcode change log failed", e);
+        }
+    }
+
+    long lastVersion() {
+        return lastVersion;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollExecutor.shutdownNow();
+    }
+}
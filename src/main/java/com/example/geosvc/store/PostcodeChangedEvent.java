@@ -0,0 +1,19 @@
+package com.example.geosvc.store;
+
+public class PostcodeChangedEvent {
+    private final long key;
+    private final long coordinates;
+
+    public PostcodeChangedEvent(long key, long coordinates) {
+        this.key = key;
+        this.coordinates = coordinates;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public long getCoordinates() {
+        return coordinates;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.geosvc.store;
+
+/**
+ * Encodes a UK postcode as a single {@code long}.
+ * <p>
+ * Parsing is case-insensitive, ignores whitespace and accepts the outward code
+ * {@code [A-Z]{1,2}[0-9][A-Z0-9]?} followed by the inward code {@code [0-9][A-Z]{2}}.
+ * The key holds the canonical text ({@code "SW1A 1AA"}) as up to eight 6-bit symbols,
+ * left-aligned, so comparing keys gives the same order as comparing canonical postcodes.
+ * Encoding and decoding into a caller-supplied buffer do not allocate.
+ */
+public final class PostcodeKey {
+
+    public static final long INVALID = -1L;
+
+    public static final int MAX_LENGTH = 8;
+
+    private static final int BITS = 6;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int SPACE = 1;
+    private static final int FIRST_DIGIT = 2;
+    private static final int FIRST_LETTER = 12;
+    private static final int INWARD_LENGTH = 3;
+    private static final int MIN_COMPACT_LENGTH = 5;
+    private static final int MAX_COMPACT_LENGTH = 7;
+
+    private PostcodeKey() {
+    }
+
+    public static long encode(CharSequence postcode) {
+        if (postcode == null) {
+            return INVALID;
+        }
+        long compact = 0;
+        int length = 0;
+        for (int i = 0; i < postcode.length(); i++) {
+            char c = postcode.charAt(i);
+            if (c == ' ' || c == '\t') {
+                continue;
+            }
+            int symbol = symbol(c);
+            if (symbol < 0 || length == MAX_COMPACT_LENGTH) {
+                return INVALID;
+            }
+            compact = (compact << BITS) | symbol;
+            length++;
+        }
+        return fromCompact(compact, length);
+    }
+
+    public static long encode(byte[] bytes, int offset, int length) {
+        long compact = 0;
+        int count = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = (char) (bytes[i] & 0xFF);
+            if (c == ' ' || c == '\t') {
+                continue;
+            }
+            int symbol = symbol(c);
+            if (symbol < 0 || count == MAX_COMPACT_LENGTH) {
+                return INVALID;
+            }
+            compact = (compact << BITS) | symbol;
+            count++;
+        }
+        return fromCompact(compact, count);
+    }
+
+    public static boolean isValid(CharSequence postcode) {
+        return encode(postcode) != INVALID;
+    }
+
+    /**
+     * Returns the canonical form of {@code postcode}, or the input unchanged if it is not
+     * a parseable UK postcode.
+     */
+    public static String normalize(String postcode) {
+        long key = encode(postcode);
+        return key == INVALID ? postcode : toString(key);
+    }
+
+    public static String toString(long key) {
+        char[] chars = new char[MAX_LENGTH];
+        return new String(chars, 0, decode(key, chars, 0));
+    }
+
+    /**
+     * Writes the canonical text of {@code key} into {@code target} and returns the number
+     * of characters written.
+     */
+    public static int decode(long key, char[] target, int offset) {
+        int length = 0;
+        for (int shift = BITS * (MAX_LENGTH - 1); shift >= 0; shift -= BITS) {
+            int symbol = (int) (key >>> shift) & MASK;
+            if (symbol == 0) {
+                break;
+            }
+            target[offset + length++] = character(symbol);
+        }
+        return length;
+    }
+
+    public static void appendTo(long key, StringBuilder target) {
+        for (int shift = BITS * (MAX_LENGTH - 1); shift >= 0; shift -= BITS) {
+            int symbol = (int) (key >>> shift) & MASK;
+            if (symbol == 0) {
+                return;
+            }
+            target.append(character(symbol));
+        }
+    }
+
+    private static long fromCompact(long compact, int length) {
+        if (length < MIN_COMPACT_LENGTH || !isValidInward(compact) || !isValidOutward(compact, length - INWARD_LENGTH)) {
+            return INVALID;
+        }
+        long inward = compact & ((1L << (BITS * INWARD_LENGTH)) - 1);
+        long outward = compact >>> (BITS * INWARD_LENGTH);
+        long key = (((outward << BITS) | SPACE) << (BITS * INWARD_LENGTH)) | inward;
+        return key << (BITS * (MAX_LENGTH - length - 1));
+    }
+
+    private static boolean isValidInward(long compact) {
+        return isDigit(symbolAt(compact, 2)) && isLetter(symbolAt(compact, 1)) && isLetter(symbolAt(compact, 0));
+    }
+
+    // Outward code: [A-Z]{1,2}[0-9][A-Z0-9]?
+    private static boolean isValidOutward(long compact, int length) {
+        int first = INWARD_LENGTH + length - 1;
+        if (!isLetter(symbolAt(compact, first))) {
+            return false;
+        }
+        int position = first - 1;
+        if (length > 2 && isLetter(symbolAt(compact, position))) {
+            position--;
+        }
+        if (!isDigit(symbolAt(compact, position))) {
+            return false;
+        }
+        // At most one trailing alphanumeric after the digit
+        return position - INWARD_LENGTH <= 1;
+    }
+
+    private static int symbolAt(long compact, int fromRight) {
+        return (int) (compact >>> (BITS * fromRight)) & MASK;
+    }
+
+    private static boolean isDigit(int symbol) {
+        return symbol >= FIRST_DIGIT && symbol < FIRST_LETTER;
+    }
+
+    private static boolean isLetter(int symbol) {
+        return symbol >= FIRST_LETTER;
+    }
+
+    private static int symbol(char c) {
+        if (c >= '0' && c <= '9') {
+            return FIRST_DIGIT + (c - '0');
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return FIRST_LETTER + (c - 'A');
+        }
+        if (c >= 'a' && c <= 'z') {
+            return FIRST_LETTER + (c - 'a');
+        }
+        return -1;
+    }
+
+    private static char character(int symbol) {
+        if (symbol == SPACE) {
+            return ' ';
+        }
+        return symbol < FIRST_LETTER ? (char) ('0' + symbol - FIRST_DIGIT) : (char) ('A' + symbol - FIRST_LETTER);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.geosvc.store;
+
+import com.example.geosvc.repository.PostcodeTableVersion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary copy of the {@link PostcodeStore} on local disk, read back with {@code FileChannel.map}
+ * so startup does not have to query {@code postcodelatlng}.
+ * <p>
+ * Layout, little-endian: a {@value #HEADER_SIZE}-byte header, then three columns of
+ * {@code count} entries: the {@link PostcodeKey} keys in ascending order as int64, then the
+ * latitudes and the longitudes as int32 in 1e-7 degrees. The header holds:
+ * <ul>
+ *     <li>the magic number and the format version;</li>
+ *     <li>{@code count};</li>
+ *     <li>a CRC-32C of the columns;</li>
+ *     <li>the {@link PostcodeTableVersion} the snapshot was taken at.</li>
+ * </ul>
+ */
+public final class PostcodeSnapshot {
+
+    static final int MAGIC = 0x50435331; // "PCS1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    private static final int ENTRY_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    private final PostcodeTableVersion tableVersion;
+    private final long[] keys;
+    private final long[] coordinates;
+
+    private PostcodeSnapshot(PostcodeTableVersion tableVersion, long[] keys, long[] coordinates) {
+        this.tableVersion = tableVersion;
+        this.keys = keys;
+        this.coordinates = coordinates;
+    }
+
+    public PostcodeTableVersion getTableVersion() {
+        return tableVersion;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Replaces the contents of {@code store} with the snapshot. The keys are already sorted,
+     * so this is a plain array copy.
+     */
+    public void loadInto(PostcodeStore store) {
+        store.load(keys, coordinates, keys.length);
+    }
+
+    /**
+     * Maps and verifies the snapshot at {@code path}. The keys are bulk-copied out of the
+     * mapping; the latitude and longitude columns are read back into packed coordinates.
+     * Throws {@link IOException} if the file is missing,
+     * truncated, from another format version or fails its checksum.
+     */
+    public static PostcodeSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + path + " is too large");
+            }
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+            if (file.getInt(0) != MAGIC) {
+                throw new IOException("Snapshot " + path + " is not a postcode snapshot");
+            }
+            if (file.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Snapshot " + path + " has format version " + file.getInt(4));
+            }
+            int count = file.getInt(8);
+            if (count < 0 || fileSize != HEADER_SIZE + (long) count * ENTRY_SIZE) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            ByteBuffer columns = file.slice(HEADER_SIZE, count * ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C checksum = new CRC32C();
+            checksum.update(columns.duplicate());
+            if ((int) checksum.getValue() != file.getInt(12)) {
+                throw new IOException("Snapshot " + path + " failed its checksum");
+            }
+            PostcodeTableVersion tableVersion = new PostcodeTableVersion(file.getLong(16), file.getLong(24), file.getLong(32));
+
+            long[] keys = new long[count];
+            columns.asLongBuffer().get(keys);
+            IntBuffer latitudes = columns.slice(count * Long.BYTES, count * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            IntBuffer longitudes = columns.slice(count * (Long.BYTES + Integer.BYTES), count * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            long[] coordinates = new long[count];
+            for (int i = 0; i < count; i++) {
+                coordinates[i] = Coordinates.pack(latitudes.get(i), longitudes.get(i));
+            }
+            return new PostcodeSnapshot(tableVersion, keys, coordinates);
+        }
+    }
+
+    /**
+     * Writes the contents of {@code store} to {@code path}, replacing any previous snapshot
+     * atomically so a crash midway never leaves a half-written file behind.
+     */
+    public static void write(Path path, PostcodeTableVersion tableVersion, PostcodeStore store) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long[][] columns = store.copyColumns();
+                int size = columns[0].length;
+
+                MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) size * ENTRY_SIZE);
+                file.order(ByteOrder.LITTLE_ENDIAN);
+                ByteBuffer body = file.slice(HEADER_SIZE, size * ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                body.asLongBuffer().put(columns[0], 0, size);
+                IntBuffer latitudes = body.slice(size * Long.BYTES, size * Integer.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                IntBuffer longitudes = body.slice(size * (Long.BYTES + Integer.BYTES), size * Integer.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                for (int i = 0; i < size; i++) {
+                    latitudes.put(i, Coordinates.latitudeE7(columns[1][i]));
+                    longitudes.put(i, Coordinates.longitudeE7(columns[1][i]));
+                }
+                CRC32C checksum = new CRC32C();
+                checksum.update(body.duplicate());
+
+                file.putInt(0, MAGIC);
+                file.putInt(4, FORMAT_VERSION);
+                file.putInt(8, size);
+                file.putInt(12, (int) checksum.getValue());
+                file.putLong(16, tableVersion.getRowCount());
+                file.putLong(24, tableVersion.getMaxId());
+                file.putLong(32, tableVersion.getUpdatedAt());
+                file.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
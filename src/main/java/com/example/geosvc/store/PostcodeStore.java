@@ -0,0 +1,260 @@
+package com.example.geosvc.store;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-optimised, in-process copy of {@code postcodelatlng}.
+ * <p>
+ * Postcodes are held as {@link PostcodeKey} keys in a sorted array, with the matching
+ * coordinates packed by {@link Coordinates} in a parallel array. Lookups are a binary
+ * search over primitives. Coordinate updates for known postcodes are applied in place;
+ * new postcodes are inserted copy-on-write, which is cheap given how rarely that happens.
+ */
+@Component
+public class PostcodeStore {
+
+    public static final long NOT_FOUND = Long.MAX_VALUE;
+
+    private volatile Table table = new Table(new long[0], new AtomicLongArray(0));
+    private volatile boolean loaded;
+
+    // Changes committed while the initial load is still reading the table; replayed on top of it.
+    private final Map<Long, Long> pending = new LinkedHashMap<>();
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return table.keys.length;
+    }
+
+    public long find(long key) {
+        Table current = table;
+        int index = Arrays.binarySearch(current.keys, key);
+        return index >= 0 ? current.coordinates.get(index) : NOT_FOUND;
+    }
+
+    public synchronized void load(long[] keys, long[] coordinates, int count) {
+        long[] sortedKeys = Arrays.copyOf(keys, count);
+        long[] sortedCoordinates = Arrays.copyOf(coordinates, count);
+        int size = count;
+        // Snapshots arrive already in key order and need no sorting
+        if (!isStrictlyAscending(sortedKeys, count)) {
+            sort(sortedKeys, sortedCoordinates, 0, count - 1);
+            size = removeDuplicates(sortedKeys, sortedCoordinates, count);
+        }
+
+        table = new Table(Arrays.copyOf(sortedKeys, size), new AtomicLongArray(Arrays.copyOf(sortedCoordinates, size)));
+        loaded = true;
+
+        pending.forEach(this::put);
+        pending.clear();
+    }
+
+    public synchronized void put(long key, long coordinates) {
+        if (!loaded) {
+            pending.put(key, coordinates);
+            return;
+        }
+        Table current = table;
+        int index = Arrays.binarySearch(current.keys, key);
+        if (index >= 0) {
+            current.coordinates.set(index, coordinates);
+            return;
+        }
+
+        int insertAt = -index - 1;
+        int size = current.keys.length;
+        long[] keys = new long[size + 1];
+        long[] values = new long[size + 1];
+        System.arraycopy(current.keys, 0, keys, 0, insertAt);
+        for (int i = 0; i < insertAt; i++) {
+            values[i] = current.coordinates.get(i);
+        }
+        keys[insertAt] = key;
+        values[insertAt] = coordinates;
+        System.arraycopy(current.keys, insertAt, keys, insertAt + 1, size - insertAt);
+        for (int i = insertAt; i < size; i++) {
+            values[i + 1] = current.coordinates.get(i);
+        }
+        table = new Table(keys, new AtomicLongArray(values));
+    }
+
+    /**
+     * Applies a batch of changes, copying the table at most once however many of the
+     * postcodes are new.
+     */
+    public synchronized void putAll(long[] keys, long[] coordinates, int count) {
+        if (!loaded) {
+            for (int i = 0; i < count; i++) {
+                pending.put(keys[i], coordinates[i]);
+            }
+            return;
+        }
+        long[] batchKeys = Arrays.copyOf(keys, count);
+        long[] batchCoordinates = Arrays.copyOf(coordinates, count);
+        sort(batchKeys, batchCoordinates, 0, count - 1);
+        int batchSize = removeDuplicates(batchKeys, batchCoordinates, count);
+
+        Table current = table;
+        int added = 0;
+        for (int i = 0; i < batchSize; i++) {
+            int index = Arrays.binarySearch(current.keys, batchKeys[i]);
+            if (index >= 0) {
+                current.coordinates.set(index, batchCoordinates[i]);
+            } else {
+                added++;
+            }
+        }
+        if (added == 0) {
+            return;
+        }
+
+        int size = current.keys.length;
+        long[] mergedKeys = new long[size + added];
+        long[] mergedCoordinates = new long[size + added];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < mergedKeys.length; k++) {
+            if (j == batchSize || (i < size && current.keys[i] <= batchKeys[j])) {
+                if (j < batchSize && current.keys[i] == batchKeys[j]) {
+                    j++;
+                }
+                mergedKeys[k] = current.keys[i];
+                mergedCoordinates[k] = current.coordinates.get(i++);
+            } else {
+                mergedKeys[k] = batchKeys[j];
+                mergedCoordinates[k] = batchCoordinates[j++];
+            }
+        }
+        table = new Table(mergedKeys, new AtomicLongArray(mergedCoordinates));
+    }
+
+    // One consistent copy of the keys and coordinates, for PostcodeSnapshot
+    long[][] copyColumns() {
+        Table current = table;
+        long[] coordinates = new long[current.keys.length];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = current.coordinates.get(i);
+        }
+        return new long[][]{current.keys.clone(), coordinates};
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        Table current = table;
+        for (int i = 0; i < current.keys.length; i++) {
+            consumer.accept(current.keys[i], current.coordinates.get(i));
+        }
+    }
+
+    // Runs before other listeners so they observe the updated store
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodeChanged(PostcodeChangedEvent event) {
+        put(event.getKey(), event.getCoordinates());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostcodesChanged(PostcodesChangedEvent event) {
+        putAll(event.getKeys(), event.getCoordinates(), event.getCount());
+    }
+
+    private static boolean isStrictlyAscending(long[] keys, int count) {
+        for (int i = 1; i < count; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int removeDuplicates(long[] keys, long[] coordinates, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        int size = 1;
+        for (int i = 1; i < count; i++) {
+            if (keys[i] == keys[size - 1]) {
+                coordinates[size - 1] = coordinates[i];
+            } else {
+                keys[size] = keys[i];
+                coordinates[size] = coordinates[i];
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static void sort(long[] keys, long[] coordinates, int low, int high) {
+        while (low < high) {
+            if (high - low < 16) {
+                insertionSort(keys, coordinates, low, high);
+                return;
+            }
+            long pivot = keys[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, coordinates, i++, j--);
+                }
+            }
+            // Recurse into the smaller half to bound stack depth
+            if (j - low < high - i) {
+                sort(keys, coordinates, low, j);
+                low = i;
+            } else {
+                sort(keys, coordinates, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static void insertionSort(long[] keys, long[] coordinates, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && keys[j - 1] > keys[j]; j--) {
+                swap(keys, coordinates, j, j - 1);
+            }
+        }
+    }
+
+    private static void swap(long[] keys, long[] coordinates, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long value = coordinates[i];
+        coordinates[i] = coordinates[j];
+        coordinates[j] = value;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long coordinates);
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final AtomicLongArray coordinates;
+
+        private Table(long[] keys, AtomicLongArray coordinates) {
+            this.keys = keys;
+            this.coordinates = coordinates;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.geosvc.store;
+
+import com.example.geosvc.repository.PostalCodeJdbcRepository;
+import com.example.geosvc.repository.PostcodeTableVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Fills the {@link PostcodeStore} once at startup. Until it finishes, or if it fails,
+ * lookups keep going to the database.
+ * <p>
+ * When {@code geo.store.snapshot} names a file, the store is loaded from that
+ * {@link PostcodeSnapshot} if it was taken at the table's current {@link PostcodeTableVersion}.
+ * Otherwise the store is loaded from the database and the snapshot is rewritten for the next start.
+ * While MySQL has no update time for the table, which is the case after it restarts until the
+ * table is next written, the version cannot be trusted and the snapshot is neither used nor written.
+ */
+@Component
+@ConditionalOnProperty(name = "geo.store.enabled", havingValue = "true", matchIfMissing = true)
+public class PostcodeStoreLoader implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(PostcodeStoreLoader.class);
+
+    private static final int INITIAL_CAPACITY = 1 << 21;
+
+    private final PostalCodeJdbcRepository postalCodeJdbcRepository;
+    private final PostcodeStore postcodeStore;
+    private final Path snapshotPath;
+
+    public PostcodeStoreLoader(PostalCodeJdbcRepository postalCodeJdbcRepository, PostcodeStore postcodeStore,
+                               @Value("${geo.store.snapshot:}") String snapshotPath) {
+        this.postalCodeJdbcRepository = postalCodeJdbcRepository;
+        this.postcodeStore = postcodeStore;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        PostcodeTableVersion tableVersion = null;
+        try {
+            if (snapshotPath != null) {
+                // Read before the rows, so a write that lands during the load makes the snapshot stale
+                tableVersion = postalCodeJdbcRepository.readTableVersion();
+                if (!tableVersion.isKnown()) {
+                    logger.info("MySQL has no update time for postcodelatlng, ignoring the postcode snapshot");
+                } else if (loadSnapshot(tableVersion, start)) {
+                    return;
+                }
+            }
+            Buffer buffer = new Buffer();
+            postalCodeJdbcRepository.forEachCoordinate(buffer::add);
+            postcodeStore.load(buffer.keys, buffer.coordinates, buffer.size);
+            logger.info("Loaded {} postcodes into the in-memory store in {} ms ({} rows with unparseable postcodes skipped)",
+                    postcodeStore.size(), (System.nanoTime() - start) / 1_000_000, buffer.skipped);
+        } catch (DataAccessException e) {
+            logger.error("Could not load the in-memory postcode store, lookups will use the database", e);
+            return;
+        }
+        if (snapshotPath != null && tableVersion.isKnown()) {
+            writeSnapshot(tableVersion);
+        }
+    }
+
+    private boolean loadSnapshot(PostcodeTableVersion tableVersion, long start) {
+        PostcodeSnapshot snapshot;
+        try {
+            snapshot = PostcodeSnapshot.read(snapshotPath);
+        } catch (NoSuchFileException e) {
+            logger.info("No postcode snapshot at {}, loading from the database", snapshotPath);
+            return false;
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable postcode snapshot: {}", e.getMessage());
+            return false;
+        }
+        if (!snapshot.getTableVersion().equals(tableVersion)) {
+            logger.info("Postcode snapshot is stale (snapshot {}, table {}), loading from the database",
+                    snapshot.getTableVersion(), tableVersion);
+            return false;
+        }
+        snapshot.loadInto(postcodeStore);
+        logger.info("Loaded {} postcodes into the in-memory store from {} in {} ms",
+                postcodeStore.size(), snapshotPath, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    private void writeSnapshot(PostcodeTableVersion tableVersion) {
+        long start = System.nanoTime();
+        try {
+            PostcodeSnapshot.write(snapshotPath, tableVersion, postcodeStore);
+            logger.info("Wrote postcode snapshot to {} in {} ms", snapshotPath, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.warn("Could not write the postcode snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    private static final class Buffer {
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private long[] coordinates = new long[INITIAL_CAPACITY];
+        private int size;
+        private int skipped;
+
+        private void add(String postcode, double latitude, double longitude) {
+            long key = PostcodeKey.encode(postcode);
+            if (key == PostcodeKey.INVALID) {
+                skipped++;
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                coordinates = Arrays.copyOf(coordinates, size * 2);
+            }
+            keys[size] = key;
+            coordinates[size] = Coordinates.pack(Coordinates.toE7(latitude), Coordinates.toE7(longitude));
+            size++;
+        }
+    }
+}
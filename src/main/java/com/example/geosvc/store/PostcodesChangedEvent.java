@@ -0,0 +1,42 @@
+package com.example.geosvc.store;
+
+/**
+ * A batch of postcode changes, published by bulk writes instead of one
+ * {@link PostcodeChangedEvent} per row so listeners can apply them together.
+ * <p>
+ * Batches replayed from the shared change log by {@link PostcodeChangeFeed} are marked
+ * {@link #isReplicated() replicated}, as they are already recorded there.
+ */
+public class PostcodesChangedEvent {
+    private final long[] keys;
+    private final long[] coordinates;
+    private final int count;
+    private final boolean replicated;
+
+    public PostcodesChangedEvent(long[] keys, long[] coordinates, int count) {
+        this(keys, coordinates, count, false);
+    }
+
+    public PostcodesChangedEvent(long[] keys, long[] coordinates, int count, boolean replicated) {
+        this.keys = keys;
+        this.coordinates = coordinates;
+        this.count = count;
+        this.replicated = replicated;
+    }
+
+    public long[] getKeys() {
+        return keys;
+    }
+
+    public long[] getCoordinates() {
+        return coordinates;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isReplicated() {
+        return replicated;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.geosvc.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Accepts any spelling of a UK postcode that {@link com.example.geosvc.store.PostcodeKey}
+ * can parse, regardless of case or spacing. {@code null} is valid; combine with
+ * {@code @NotBlank} where a value is required.
+ */
+@Documented
+@Constraint(validatedBy = UkPostcodeValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.TYPE_USE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UkPostcode {
+    String message() default "Invalid UK postcode format";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,13 @@
+package com.example.geosvc.validation;
+
+import com.example.geosvc.store.PostcodeKey;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class UkPostcodeValidator implements ConstraintValidator<UkPostcode, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || PostcodeKey.isValid(value);
+    }
+}
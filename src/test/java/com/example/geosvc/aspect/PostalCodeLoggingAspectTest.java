@@ -13,7 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +46,7 @@ class PostalCodeLoggingAspectTest {
 
         // Act
         testService.calculateDistance(request);
+        aspect.flush();
 
         // Assert
         verify(logger, times(2)).info(logMessageCaptor.capture());
@@ -62,6 +63,21 @@ class PostalCodeLoggingAspectTest {
         assertTrue(responseLog.contains("SW1A 1AA"));
         assertTrue(responseLog.contains("EC2A 2AH"));
         assertTrue(responseLog.contains("REQUEST_COMPLETED"));
+        assertEquals(requestLog.split("\\|")[2], responseLog.split("\\|")[2]);
+    }
+
+    @Test
+    void logDistanceRequest_FailedRequest_LogsOnlyReceived() {
+        // Arrange
+        DistanceRequest request = new DistanceRequest("SW1A 1AA", null);
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> testService.calculateDistance(request));
+        aspect.flush();
+
+        // Assert
+        verify(logger, times(1)).info(logMessageCaptor.capture());
+        assertTrue(logMessageCaptor.getValue().endsWith("|REQUEST_RECEIVED"));
     }
 
     // Test service to demonstrate the aspect
@@ -70,6 +86,9 @@ class PostalCodeLoggingAspectTest {
         }
 
         public DistanceResponse calculateDistance(DistanceRequest request) {
+            if (request.getPostcode2() == null) {
+                throw new IllegalArgumentException("postcode2 is required");
+            }
             // Simulate some processing
             return new DistanceResponse(
                 new DistanceResponse.Location("SW1A 1AA", 51.5035, -0.1277),
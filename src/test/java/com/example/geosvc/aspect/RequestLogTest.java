@@ -0,0 +1,121 @@
+package com.example.geosvc.aspect;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestLogTest {
+
+    @Mock
+    private Logger logger;
+
+    @Captor
+    private ArgumentCaptor<String> logMessageCaptor;
+
+    @Test
+    void flush_FormatsRecordsInPipeDelimitedFormat() {
+        // Arrange
+        RequestLog requestLog = new RequestLog(logger, 8);
+        long requestId = requestLog.nextRequestId();
+
+        // Act
+        requestLog.offer(requestId, "SW1A 1AA", "EC2A 2AH", RequestLog.REQUEST_RECEIVED);
+        requestLog.offer(requestId, "SW1A 1AA", "EC2A 2AH", RequestLog.REQUEST_COMPLETED);
+        requestLog.flush();
+
+        // Assert
+        verify(logger, times(2)).info(logMessageCaptor.capture());
+        String[] received = logMessageCaptor.getAllValues().get(0).split("\\|");
+        String[] completed = logMessageCaptor.getAllValues().get(1).split("\\|");
+        assertEquals(7, received.length);
+        assertEquals("POSTAL_CODE_REQUEST", received[0]);
+        assertTrue(received[1].matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}"));
+        assertEquals(36, received[2].length());
+        assertEquals(2, UUID.fromString(received[2]).variant());
+        assertEquals(4, UUID.fromString(received[2]).version());
+        assertEquals("get_postalcode_latlong_distance", received[3]);
+        assertEquals("SW1A 1AA", received[4]);
+        assertEquals("EC2A 2AH", received[5]);
+        assertEquals("REQUEST_RECEIVED", received[6]);
+        assertEquals(received[2], completed[2]);
+        assertEquals(7, completed.length);
+        assertEquals("REQUEST_COMPLETED", completed[6]);
+    }
+
+    @Test
+    void offer_WhenFull_DropsRecord() {
+        // Arrange
+        RequestLog requestLog = new RequestLog(logger, 2);
+
+        // Act
+        boolean first = requestLog.offer(1, "A", "B", RequestLog.REQUEST_RECEIVED);
+        boolean second = requestLog.offer(2, "A", "B", RequestLog.REQUEST_RECEIVED);
+        boolean third = requestLog.offer(3, "A", "B", RequestLog.REQUEST_RECEIVED);
+        requestLog.flush();
+        boolean afterFlush = requestLog.offer(4, "A", "B", RequestLog.REQUEST_RECEIVED);
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertTrue(afterFlush);
+        assertEquals(1, requestLog.dropped());
+        verify(logger, times(2)).info(anyString());
+    }
+
+    @Test
+    void offer_ConcurrentProducers_LogsEveryRecordOnce() throws Exception {
+        // Arrange
+        RequestLog requestLog = new RequestLog(logger, 1 << 12);
+        int threads = 4;
+        int perThread = 500;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    requestLog.offer(requestLog.nextRequestId(), "A", "B", RequestLog.REQUEST_RECEIVED);
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        // Act
+        requestLog.start();
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        requestLog.close();
+
+        // Assert
+        verify(logger, times(threads * perThread)).info(logMessageCaptor.capture());
+        Set<String> requestIds = new HashSet<>();
+        for (String message : logMessageCaptor.getAllValues()) {
+            requestIds.add(message.split("\\|")[2]);
+        }
+        assertEquals(threads * perThread, requestIds.size());
+        assertEquals(0, requestLog.dropped());
+    }
+}
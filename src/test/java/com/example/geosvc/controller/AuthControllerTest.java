@@ -5,7 +5,9 @@ import com.example.geosvc.dto.LoginResponse;
 import com.example.geosvc.dto.ErrorResponse;
 import com.example.geosvc.exception.AuthenticationException;
 import com.example.geosvc.exception.GlobalExceptionHandler;
+import com.example.geosvc.metrics.GeoMetrics;
 import com.example.geosvc.service.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -40,7 +42,7 @@ class AuthControllerTest {
         validRequest = new LoginRequest("test@example.com", "password");
         invalidRequest = new LoginRequest("test@example.com", "wrongpassword");
         mockMvc = MockMvcBuilders.standaloneSetup(authController)
-            .setControllerAdvice(new GlobalExceptionHandler())
+            .setControllerAdvice(new GlobalExceptionHandler(new GeoMetrics(new SimpleMeterRegistry())))
             .build();
     }
 
@@ -78,4 +80,13 @@ class AuthControllerTest {
 
         verify(authService, times(1)).login(any(LoginRequest.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void revokeTokens_ReturnsNoContent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/users/admin/revoke"))
+            .andExpect(status().isNoContent());
+
+        verify(authService).revokeTokens("admin");
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.geosvc.controller;
+
+import com.example.geosvc.dto.PostalCodeResponse;
+import com.example.geosvc.importer.PostcodeImporter;
+import com.example.geosvc.metrics.GeoMetrics;
+import com.example.geosvc.security.JwtAuthenticationEntryPoint;
+import com.example.geosvc.security.JwtService;
+import com.example.geosvc.security.RevokedUsers;
+import com.example.geosvc.security.SecurityConfig;
+import com.example.geosvc.service.PostalCodeResponseCache;
+import com.example.geosvc.service.PostalCodeService;
+import com.example.geosvc.service.PostcodeExporter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Caching headers on authenticated lookups, with the application's security filter chain in place.
+ */
+@WebMvcTest(PostalCodeController.class)
+@Import({SecurityConfig.class, JwtAuthenticationEntryPoint.class, JwtService.class, RevokedUsers.class,
+        GeoMetrics.class, PostalCodeResponseCache.class, PostalCodeControllerSecurityTest.Registry.class})
+@TestPropertySource(properties = {
+        "jwt.secret=uQf3Yvk3zo2uG12aK7ZF9i00p2T+RSkxmZk5mYhD1t8=",
+        "jwt.expiration=60000"
+})
+class PostalCodeControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockBean
+    private PostalCodeService postalCodeService;
+
+    @MockBean
+    private PostcodeImporter postcodeImporter;
+
+    @MockBean
+    private PostcodeExporter postcodeExporter;
+
+    @Test
+    void getPostalCodeMapping_WithToken_IsPrivatelyCacheable() throws Exception {
+        // Arrange
+        when(postalCodeService.getPostalCodeMapping("SW1A 1AA"))
+            .thenReturn(new PostalCodeResponse("SW1A 1AA", 51.5035, -0.1277));
+        String token = jwtService.generateToken(User.withUsername("user").password("unused").roles("USER").build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/postal-codes/SW1A 1AA").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "max-age=3600, private"))
+            .andExpect(header().doesNotExist("Pragma"))
+            .andExpect(header().doesNotExist("Expires"))
+            .andExpect(header().string("ETag", "\"1eb2cf78ffec83b8\""));
+    }
+
+    @Test
+    void getPostalCodeMapping_WithoutToken_IsRejectedAndNotCacheable() throws Exception {
+        mockMvc.perform(get("/api/postal-codes/SW1A 1AA"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(header().string("Cache-Control", "no-cache, no-store, max-age=0, must-revalidate"))
+            .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @TestConfiguration
+    static class Registry {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
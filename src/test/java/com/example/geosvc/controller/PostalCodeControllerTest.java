@@ -1,15 +1,33 @@
 package com.example.geosvc.controller;
 
+import com.example.geosvc.distance.DistanceMode;
+import com.example.geosvc.dto.BulkUpsertResponse;
+import com.example.geosvc.dto.DistanceBatchResponse;
+import com.example.geosvc.dto.DistanceMatrixRequest;
+import com.example.geosvc.dto.DistanceRequest;
+import com.example.geosvc.dto.DistanceResponse;
+import com.example.geosvc.dto.ImportResponse;
+import com.example.geosvc.dto.NearestPostalCodesResponse;
 import com.example.geosvc.dto.PostalCodeResponse;
+import com.example.geosvc.dto.PostalCodeSliceResponse;
 import com.example.geosvc.dto.UpdatePostalCodeRequest;
 import com.example.geosvc.exception.GlobalExceptionHandler;
+import com.example.geosvc.exception.InvalidRequestException;
 import com.example.geosvc.exception.PostalCodeNotFoundException;
+import com.example.geosvc.importer.PostcodeImporter;
+import com.example.geosvc.metrics.GeoMetrics;
+import com.example.geosvc.service.DistanceMatrix;
+import com.example.geosvc.service.PostalCodeResponseCache;
 import com.example.geosvc.service.PostalCodeService;
+import com.example.geosvc.service.PostcodeExporter;
+import com.example.geosvc.service.RadiusSearch;
+import com.example.geosvc.store.PostcodeChangedEvent;
+import com.example.geosvc.store.PostcodeKey;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -19,12 +37,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.math.BigDecimal;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -37,16 +61,26 @@ class PostalCodeControllerTest {
     @Mock
     private PostalCodeService postalCodeService;
 
-    @InjectMocks
+    @Mock
+    private PostcodeImporter postcodeImporter;
+
+    @Mock
+    private PostcodeExporter postcodeExporter;
+
     private PostalCodeController postalCodeController;
+    private PostalCodeResponseCache postalCodeResponseCache;
 
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
+        GeoMetrics metrics = new GeoMetrics(new SimpleMeterRegistry());
+        postalCodeResponseCache = new PostalCodeResponseCache(new ObjectMapper(), metrics, new SimpleMeterRegistry(), 100);
+        postalCodeController = new PostalCodeController(postalCodeService, postcodeImporter, postcodeExporter,
+                postalCodeResponseCache, Duration.ofHours(1));
         mockMvc = MockMvcBuilders.standaloneSetup(postalCodeController)
-            .setControllerAdvice(new GlobalExceptionHandler())
+            .setControllerAdvice(new GlobalExceptionHandler(new GeoMetrics(new SimpleMeterRegistry())))
             .build();
         objectMapper = new ObjectMapper();
     }
@@ -56,8 +90,8 @@ class PostalCodeControllerTest {
         // Arrange
         PostalCodeResponse response = new PostalCodeResponse(
             "SW1A 1AA",
-            new BigDecimal("51.5035"),
-            new BigDecimal("-0.1277")
+            51.5035,
+            -0.1277
         );
         when(postalCodeService.getPostalCodeMapping(any())).thenReturn(response);
 
@@ -66,11 +100,49 @@ class PostalCodeControllerTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.postcode").value("SW1A 1AA"))
             .andExpect(jsonPath("$.latitude").value(51.5035))
-            .andExpect(jsonPath("$.longitude").value(-0.1277));
+            .andExpect(jsonPath("$.longitude").value(-0.1277))
+            .andExpect(header().string("ETag", "\"1eb2cf78ffec83b8\""))
+            .andExpect(header().string("Cache-Control", "max-age=3600, private"));
 
         verify(postalCodeService, times(1)).getPostalCodeMapping("SW1A 1AA");
     }
 
+    @Test
+    void getPostalCodeMapping_MatchingETag_ReturnsNotModifiedFromCache() throws Exception {
+        // Arrange
+        when(postalCodeService.getPostalCodeMapping("sw1a1aa"))
+            .thenReturn(new PostalCodeResponse("SW1A 1AA", 51.5035, -0.1277));
+        String eTag = mockMvc.perform(get("/api/postal-codes/sw1a1aa"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/postal-codes/SW1A 1AA").header("If-None-Match", eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", eTag))
+            .andExpect(content().bytes(new byte[0]));
+
+        verify(postalCodeService, times(1)).getPostalCodeMapping(any());
+    }
+
+    @Test
+    void getPostalCodeMapping_AfterUpdate_ChangesETag() throws Exception {
+        // Arrange
+        when(postalCodeService.getPostalCodeMapping(any()))
+            .thenReturn(new PostalCodeResponse("SW1A 1AA", 51.5035, -0.1277))
+            .thenReturn(new PostalCodeResponse("SW1A 1AA", 51.5036, -0.1278));
+        String eTag = mockMvc.perform(get("/api/postal-codes/SW1A 1AA"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        // Act
+        postalCodeResponseCache.onPostcodeChanged(new PostcodeChangedEvent(PostcodeKey.encode("SW1A 1AA"), 0));
+
+        // Assert
+        mockMvc.perform(get("/api/postal-codes/SW1A 1AA").header("If-None-Match", eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.latitude").value(51.5036));
+    }
+
     @Test
     void getPostalCodeMapping_InvalidPostcode_ReturnsNotFound() throws Exception {
         // Arrange
@@ -93,8 +165,8 @@ class PostalCodeControllerTest {
         // Arrange
         String postcode = "SW1A 1AA";
         UpdatePostalCodeRequest request = new UpdatePostalCodeRequest(
-                new BigDecimal("51.5036"),
-                new BigDecimal("-0.1278")
+                51.5036,
+                -0.1278
         );
         
         PostalCodeResponse response = new PostalCodeResponse(
@@ -124,8 +196,8 @@ class PostalCodeControllerTest {
         // Arrange
         String postcode = "INVALID";
         UpdatePostalCodeRequest request = new UpdatePostalCodeRequest(
-                new BigDecimal("51.5036"),
-                new BigDecimal("-0.1278")
+                51.5036,
+                -0.1278
         );
         
         when(postalCodeService.updatePostalCodeMapping(eq(postcode), any(UpdatePostalCodeRequest.class)))
@@ -151,14 +223,14 @@ class PostalCodeControllerTest {
         
         PostalCodeResponse response1 = new PostalCodeResponse(
                 "SW1A 1AA",
-                new BigDecimal("51.5035"),
-                new BigDecimal("-0.1277")
+                51.5035,
+                -0.1277
         );
         
         PostalCodeResponse response2 = new PostalCodeResponse(
                 "EC2A 2AH",
-                new BigDecimal("51.5200"),
-                new BigDecimal("-0.0800")
+                51.5200,
+                -0.0800
         );
         
         List<PostalCodeResponse> content = Arrays.asList(response1, response2);
@@ -184,4 +256,328 @@ class PostalCodeControllerTest {
         
         verify(postalCodeService, times(1)).getAllPostalCodes(any(Pageable.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getPostalCodeSlice_Limit_ReturnsNextCursorWithoutTotals() throws Exception {
+        // Arrange
+        PostalCodeSliceResponse response = new PostalCodeSliceResponse(
+                List.of(new PostalCodeResponse("EC2A 2AH", 51.5200, -0.0800)),
+                "cG9zdGNvZGU6RUMyQSAyQUg");
+        when(postalCodeService.getPostalCodeSlice("postcode", "cursor", 1)).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/postal-codes")
+                        .param("limit", "1")
+                        .param("after", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].postcode").value("EC2A 2AH"))
+                .andExpect(jsonPath("$.nextCursor").value("cG9zdGNvZGU6RUMyQSAyQUg"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(postalCodeService, never()).getAllPostalCodes(any());
+    }
+
+    @Test
+    void findNearest_Postcode_ReturnsNeighbours() throws Exception {
+        // Arrange
+        NearestPostalCodesResponse response = new NearestPostalCodesResponse(
+                new DistanceResponse.Location("SW1A 1AA", 51.5035, -0.1277),
+                Collections.singletonList(new NearestPostalCodesResponse.Neighbour("SW1A 1AB", 51.5036, -0.1278, 0.013)));
+        when(postalCodeService.findNearest("SW1A 1AA", 5)).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/postal-codes/{postcode}/nearest", "SW1A 1AA").param("k", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.origin.postcode").value("SW1A 1AA"))
+                .andExpect(jsonPath("$.postcodes[0].postcode").value("SW1A 1AB"))
+                .andExpect(jsonPath("$.postcodes[0].distance").value(0.013))
+                .andExpect(jsonPath("$.unit").value("km"));
+    }
+
+    @Test
+    void findNearest_Coordinates_UsesDefaultCount() throws Exception {
+        // Arrange
+        NearestPostalCodesResponse response = new NearestPostalCodesResponse(
+                new DistanceResponse.Location(null, 51.5, -0.1), Collections.emptyList());
+        when(postalCodeService.findNearest(51.5, -0.1, 10)).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/postal-codes/nearest").param("latitude", "51.5").param("longitude", "-0.1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.postcodes").isEmpty());
+
+        verify(postalCodeService, times(1)).findNearest(51.5, -0.1, 10);
+    }
+
+    @Test
+    void findNearest_InvalidCount_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(postalCodeService.findNearest("SW1A 1AA", 0))
+                .thenThrow(new InvalidRequestException("k must be between 1 and 1000"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/postal-codes/{postcode}/nearest", "SW1A 1AA").param("k", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("k must be between 1 and 1000"))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void findWithin_Postcode_StreamsNdjson() throws Exception {
+        // Arrange
+        RadiusSearch search = new RadiusSearch(new DistanceResponse.Location("SW1A 1AA", 51.5035, -0.1277), 2);
+        when(postalCodeService.radiusSearch("SW1A 1AA", 2)).thenReturn(search);
+        when(postalCodeService.forEachWithin(eq(search), any())).thenAnswer(invocation -> {
+            PostalCodeService.WithinConsumer consumer = invocation.getArgument(1);
+            consumer.accept(PostcodeKey.encode("SW1A 1AA"), 51.5035, -0.1277, 0.0);
+            consumer.accept(PostcodeKey.encode("SW1A 1AB"), 51.5036, -0.1278, 0.013);
+            return 2L;
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/postal-codes/within")
+                        .param("postcode", "SW1A 1AA")
+                        .param("radiusKm", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"postcode\":\"SW1A 1AA\",\"latitude\":51.5035,\"longitude\":-0.1277,\"distance\":0.0}\n"
+                        + "{\"postcode\":\"SW1A 1AB\",\"latitude\":51.5036,\"longitude\":-0.1278,\"distance\":0.013}\n"));
+    }
+
+    @Test
+    void findWithin_NoOrigin_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/postal-codes/within").param("radiusKm", "2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Either postcode or latitude and longitude must be provided"));
+
+        verifyNoInteractions(postalCodeService);
+    }
+
+    @Test
+    void findWithin_InvalidRadius_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(postalCodeService.radiusSearch(51.5, -0.1, 0))
+                .thenThrow(new InvalidRequestException("radiusKm must be greater than 0 and at most 1500.0"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/postal-codes/within")
+                        .param("latitude", "51.5")
+                        .param("longitude", "-0.1")
+                        .param("radiusKm", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void calculateDistances_ReturnsResultPerPair() throws Exception {
+        // Arrange
+        List<DistanceRequest> requests = Arrays.asList(
+                new DistanceRequest("SW1A 1AA", "EC2A 2AH"),
+                new DistanceRequest("SW1A 1AA", "NW1 6XE"));
+        DistanceBatchResponse response = new DistanceBatchResponse(Arrays.asList(
+                new DistanceBatchResponse.Result("SW1A 1AA", "EC2A 2AH", 3.45, null),
+                new DistanceBatchResponse.Result("SW1A 1AA", "NW1 6XE", null, "Postcode not found: NW1 6XE")), 1);
+        when(postalCodeService.calculateDistances(any(), eq(DistanceMode.HAVERSINE))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/postal-codes/distance/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].distance").value(3.45))
+                .andExpect(jsonPath("$.results[1].error").value("Postcode not found: NW1 6XE"))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.unit").value("km"));
+
+        verify(postalCodeService, times(1)).calculateDistances(argThat(list -> list.size() == 2
+                && list.get(1).getPostcode2().equals("NW1 6XE")), eq(DistanceMode.HAVERSINE));
+    }
+
+    @Test
+    void calculateDistanceMatrix_Binary_ReturnsShapeHeaders() throws Exception {
+        // Arrange
+        DistanceMatrix matrix = mock(DistanceMatrix.class);
+        when(matrix.rows()).thenReturn(1);
+        when(matrix.columns()).thenReturn(2);
+        when(postalCodeService.distanceMatrix(List.of("SW1A 1AA"), List.of("EC2A 2AH", "NW1 6XE"))).thenReturn(matrix);
+        DistanceMatrixRequest request = new DistanceMatrixRequest(List.of("SW1A 1AA"), List.of("EC2A 2AH", "NW1 6XE"));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/postal-codes/distance/matrix")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("X-Matrix-Rows", "1"))
+                .andExpect(header().string("X-Matrix-Columns", "2"));
+        verify(matrix, times(1)).writeBinary(any());
+    }
+
+    @Test
+    void calculateDistanceMatrix_UnknownFormat_ReturnsBadRequest() throws Exception {
+        DistanceMatrixRequest request = new DistanceMatrixRequest(List.of("SW1A 1AA"), List.of("EC2A 2AH"));
+
+        mockMvc.perform(post("/api/postal-codes/distance/matrix")
+                        .param("format", "xml")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("format must be bin or csv"));
+
+        verifyNoInteractions(postalCodeService);
+    }
+
+    @Test
+    void calculateDistance_WithMode_ReportsModeAndErrorBound() throws Exception {
+        // Arrange
+        DistanceResponse response = new DistanceResponse(
+                new DistanceResponse.Location("SW1A 1AA", 51.5035, -0.1277),
+                new DistanceResponse.Location("EC2A 2AH", 51.5200, -0.0800),
+                3.7, "vincenty", 0.000001);
+        when(postalCodeService.calculateDistanceJson("SW1A 1AA", "EC2A 2AH", DistanceMode.VINCENTY))
+                .thenReturn(objectMapper.writeValueAsBytes(response));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/postal-codes/distance")
+                        .param("mode", "vincenty")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DistanceRequest("SW1A 1AA", "EC2A 2AH"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.distance").value(3.7))
+                .andExpect(jsonPath("$.mode").value("vincenty"))
+                .andExpect(jsonPath("$.errorBound").value(0.000001));
+    }
+
+    @Test
+    void calculateDistance_UnknownMode_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/postal-codes/distance")
+                        .param("mode", "manhattan")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DistanceRequest("SW1A 1AA", "EC2A 2AH"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("mode must be one of haversine, vincenty, equirectangular"));
+
+        verifyNoInteractions(postalCodeService);
+    }
+
+    @Test
+    void upsertPostalCodes_ReturnsOutcomePerRow() throws Exception {
+        // Arrange
+        BulkUpsertResponse response = new BulkUpsertResponse(List.of(
+                new BulkUpsertResponse.Result("SW1A 1AA", BulkUpsertResponse.Outcome.INSERTED, null),
+                new BulkUpsertResponse.Result("NOPE", BulkUpsertResponse.Outcome.REJECTED, "invalid postcode")),
+                1, 0, 0, 1, 3, 600);
+        when(postcodeImporter.upsertAll(any())).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/postal-codes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"postcode\":\"SW1A 1AA\",\"latitude\":51.5035,\"longitude\":-0.1277}," +
+                                "{\"postcode\":\"NOPE\",\"latitude\":1,\"longitude\":1}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("INSERTED"))
+                .andExpect(jsonPath("$.results[1].error").value("invalid postcode"));
+    }
+
+    @Test
+    void importPostalCodes_Csv_ReturnsCounts() throws Exception {
+        // Arrange
+        ImportResponse response = new ImportResponse(2, 0, 1, List.of("line 3: invalid postcode"), 5, 400);
+        when(postcodeImporter.importPostcodes(any(), eq(PostcodeImporter.Format.CSV))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/postal-codes/import")
+                        .contentType("text/csv")
+                        .content("postcode,latitude,longitude\nSW1A 1AA,51.5035,-0.1277\nBAD,1,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejections[0]").value("line 3: invalid postcode"));
+    }
+
+    @Test
+    void importPostalCodes_Ndjson_UsesNdjsonParser() throws Exception {
+        when(postcodeImporter.importPostcodes(any(), eq(PostcodeImporter.Format.NDJSON)))
+                .thenReturn(new ImportResponse(1, 0, 0, List.of(), 1, 1000));
+
+        mockMvc.perform(post("/api/postal-codes/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"postcode\":\"SW1A 1AA\",\"latitude\":51.5,\"longitude\":-0.1}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    void exportPostalCodes_AcceptsGzip_CompressesStream() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("postcode,latitude,longitude\n".getBytes());
+            return 0L;
+        }).when(postcodeExporter).export(eq("SW1A 1AA"), eq(PostcodeExporter.Format.CSV), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/postal-codes/export")
+                        .param("after", "sw1a1aa")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("postcode,latitude,longitude\n", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    void exportPostalCodes_GzipRefused_SendsIdentity() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("postcode,latitude,longitude\n".getBytes());
+            return 0L;
+        }).when(postcodeExporter).export(isNull(), eq(PostcodeExporter.Format.CSV), any());
+
+        for (String acceptEncoding : List.of("gzip;q=0, deflate", "x-gzip", "*, gzip; Q=0.0")) {
+            // Act
+            MvcResult result = mockMvc.perform(get("/api/postal-codes/export")
+                            .header("Accept-Encoding", acceptEncoding))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Assert
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(content().string("postcode,latitude,longitude\n"));
+        }
+    }
+
+    @Test
+    void exportPostalCodes_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/postal-codes/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("format must be one of csv, ndjson, bin"));
+
+        verifyNoInteractions(postcodeExporter);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.geosvc.distance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceCalculatorTest {
+
+    private final DistanceCalculator haversine = DistanceMode.HAVERSINE.calculator();
+    private final DistanceCalculator vincenty = DistanceMode.VINCENTY.calculator();
+    private final DistanceCalculator equirectangular = DistanceMode.EQUIRECTANGULAR.calculator();
+
+    @Test
+    void vincenty_MatchesKnownGeodesic() {
+        // Flinders Peak to Buninyong, the worked example from Vincenty's paper
+        double distance = vincenty.distance(
+                -(37 + 57 / 60.0 + 3.72030 / 3600), 144 + 25 / 60.0 + 29.52440 / 3600,
+                -(37 + 39 / 60.0 + 10.15610 / 3600), 143 + 55 / 60.0 + 35.38390 / 3600);
+
+        assertEquals(54.972271, distance, 0.000001);
+    }
+
+    @Test
+    void approximations_StayWithinErrorBoundAcrossUk() {
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            double latitude1 = 49.9 + random.nextDouble() * 11;
+            double longitude1 = -8.2 + random.nextDouble() * 10;
+            double latitude2 = 49.9 + random.nextDouble() * 11;
+            double longitude2 = -8.2 + random.nextDouble() * 10;
+            double exact = vincenty.distance(latitude1, longitude1, latitude2, longitude2);
+
+            double fast = equirectangular.distance(latitude1, longitude1, latitude2, longitude2);
+            double spherical = haversine.distance(latitude1, longitude1, latitude2, longitude2);
+
+            assertEquals(exact, fast, equirectangular.errorBound(fast));
+            assertEquals(exact, spherical, haversine.errorBound(spherical));
+        }
+    }
+
+    @Test
+    void samePoint_IsZero() {
+        for (DistanceMode mode : DistanceMode.values()) {
+            assertEquals(0.0, mode.calculator().distance(51.5035, -0.1277, 51.5035, -0.1277), mode.name());
+        }
+    }
+
+    @Test
+    void fromParameter_IsCaseInsensitive() {
+        assertEquals(DistanceMode.VINCENTY, DistanceMode.fromParameter("Vincenty").orElseThrow());
+        assertTrue(DistanceMode.fromParameter("manhattan").isEmpty());
+        assertTrue(DistanceMode.fromParameter(null).isEmpty());
+    }
+}
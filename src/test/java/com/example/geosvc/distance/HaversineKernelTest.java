@@ -0,0 +1,94 @@
+package com.example.geosvc.distance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class HaversineKernelTest {
+
+    private static final int POINTS = 1027;
+
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private final double[] cosines = new double[POINTS];
+
+    HaversineKernelTest() {
+        Random random = new Random(11);
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = Math.toRadians(49.9 + random.nextDouble() * 11);
+            longitudes[i] = Math.toRadians(-8.2 + random.nextDouble() * 10);
+            cosines[i] = Math.cos(latitudes[i]);
+        }
+    }
+
+    @Test
+    void scalar_WritesDistanceForEachPointInRange() {
+        // Arrange
+        HaversineKernel kernel = new ScalarHaversineKernel();
+        double[] target = new double[POINTS];
+
+        // Act
+        kernel.distances(latitudes[0], longitudes[0], cosines[0], latitudes, longitudes, cosines, 1, POINTS, target, 0);
+
+        // Assert
+        for (int i = 1; i < POINTS; i++) {
+            assertEquals(ScalarHaversineKernel.distance(latitudes[0], longitudes[0], cosines[0],
+                    latitudes[i], longitudes[i], cosines[i]), target[i - 1]);
+        }
+        assertEquals(0.0, target[POINTS - 1]);
+    }
+
+    @Test
+    void vector_MatchesScalarWithinTolerance() {
+        assumeTrue(HaversineKernels.isVectorAvailable(), "jdk.incubator.vector is not available");
+
+        // Arrange
+        HaversineKernel vector = HaversineKernels.create("vector");
+        HaversineKernel scalar = new ScalarHaversineKernel();
+        double[] expected = new double[POINTS + 2];
+        double[] actual = new double[POINTS + 2];
+
+        // Act
+        for (int origin = 0; origin < 10; origin++) {
+            scalar.distances(latitudes[origin], longitudes[origin], cosines[origin],
+                    latitudes, longitudes, cosines, 3, POINTS, expected, 2);
+            vector.distances(latitudes[origin], longitudes[origin], cosines[origin],
+                    latitudes, longitudes, cosines, 3, POINTS, actual, 2);
+
+            // Assert
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], actual[i], 1e-9, "point " + i);
+            }
+        }
+        assertEquals("vector", vector.name());
+    }
+
+    @Test
+    void batch_MatchesCalculatorInDegrees() {
+        // Arrange
+        HaversineBatch batch = new HaversineBatch(new ScalarHaversineKernel(), 2);
+        DistanceCalculator calculator = new HaversineDistanceCalculator();
+        batch.origin(51.5035, -0.1277);
+        batch.add(51.52, -0.08);
+        batch.add(51.5035, -0.1277);
+
+        // Act
+        double[] distances = batch.compute();
+
+        // Assert
+        assertTrue(batch.isFull());
+        assertEquals(calculator.distance(51.5035, -0.1277, 51.52, -0.08), distances[0]);
+        assertEquals(0.0, distances[1]);
+        assertEquals(51.52, batch.latitude(0));
+        assertEquals(-0.08, batch.longitude(0));
+    }
+
+    @Test
+    void create_UnknownKernel_ThrowsException() {
+        assertEquals("scalar", HaversineKernels.create("scalar").name());
+        assertThrows(IllegalArgumentException.class, () -> HaversineKernels.create("gpu"));
+    }
+}
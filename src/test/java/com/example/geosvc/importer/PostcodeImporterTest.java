@@ -0,0 +1,264 @@
+package com.example.geosvc.importer;
+
+import com.example.geosvc.dto.BulkUpsertResponse;
+import com.example.geosvc.dto.BulkUpsertResponse.Outcome;
+import com.example.geosvc.dto.ImportResponse;
+import com.example.geosvc.dto.PostalCodeRecord;
+import com.example.geosvc.exception.InvalidRequestException;
+import com.example.geosvc.repository.PostalCodeJdbcRepository;
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeKey;
+import com.example.geosvc.store.PostcodesChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostcodeImporterTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    @Mock
+    private PostalCodeJdbcRepository postalCodeJdbcRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PostcodeImporter importer;
+    private Map<Long, Long> upserted;
+
+    @BeforeEach
+    void setUp() {
+        importer = new PostcodeImporter(postalCodeJdbcRepository, eventPublisher,
+                TransactionOperations.withoutTransaction(), BATCH_SIZE);
+        upserted = new HashMap<>();
+        lenient().doAnswer(invocation -> {
+            long[] keys = invocation.getArgument(0);
+            long[] coordinates = invocation.getArgument(1);
+            int count = invocation.getArgument(2);
+            for (int i = 0; i < count; i++) {
+                upserted.put(keys[i], coordinates[i]);
+            }
+            return null;
+        }).when(postalCodeJdbcRepository).upsertCoordinates(any(), any(), anyInt());
+    }
+
+    @Test
+    void importPostcodes_UkPostcodesCsv_UpsertsInBatches() throws Exception {
+        // Arrange
+        String csv = "id,postcode,latitude,longitude\r\n" +
+                "1,AB10 1XG,57.14416516,-2.11484776\r\n" +
+                "2,\"ab101ba\",57.148705,-2.097806\r\n" +
+                "3,AB10 1BB,99.999999,0.000000\r\n" +
+                "4,EC2A 2AH,51.5200000,-0.0800000";
+
+        // Act
+        ImportResponse response = importer.importPostcodes(stream(csv), PostcodeImporter.Format.CSV);
+
+        // Assert
+        assertEquals(4, response.getImported());
+        assertEquals(1, response.getWithoutCoordinates());
+        assertEquals(0, response.getRejected());
+        verify(postalCodeJdbcRepository, times(2)).upsertCoordinates(any(), any(), anyInt());
+        verify(eventPublisher, times(2)).publishEvent(any(PostcodesChangedEvent.class));
+        assertEquals(Coordinates.pack(571_441_652, -21_148_478), upserted.get(PostcodeKey.encode("AB10 1XG")));
+        assertEquals(Coordinates.pack(571_487_050, -20_978_060), upserted.get(PostcodeKey.encode("AB10 1BA")));
+        assertFalse(Coordinates.hasCoordinates(upserted.get(PostcodeKey.encode("AB10 1BB"))));
+        assertEquals(Coordinates.pack(515_200_000, -800_000), upserted.get(PostcodeKey.encode("EC2A 2AH")));
+    }
+
+    @Test
+    void importPostcodes_CsvWithoutHeader_RejectsBadRows() throws Exception {
+        // Arrange
+        String csv = "SW1A 1AA,51.5035,-0.1277\n" +
+                "\n" +
+                "NOT A POSTCODE,51.5,-0.1\n" +
+                "EC2A 2AH,51.5x,-0.08\n" +
+                "NW1 6XE\n" +
+                "E1 6AN,,\n";
+
+        // Act
+        ImportResponse response = importer.importPostcodes(stream(csv), PostcodeImporter.Format.CSV);
+
+        // Assert
+        assertEquals(2, response.getImported());
+        assertEquals(1, response.getWithoutCoordinates());
+        assertEquals(3, response.getRejected());
+        assertEquals(List.of("line 3: invalid postcode", "line 4: invalid coordinates",
+                "line 5: expected at least 3 fields"), response.getRejections());
+        assertEquals(Coordinates.pack(515_035_000, -1_277_000), upserted.get(PostcodeKey.encode("SW1A 1AA")));
+    }
+
+    @Test
+    void importPostcodes_CsvLargerThanBuffer_ReadsEveryLine() throws Exception {
+        // Arrange
+        StringBuilder csv = new StringBuilder("postcode,latitude,longitude\n");
+        List<String> postcodes = new ArrayList<>();
+        for (int n = 0; n < 10_000; n++) {
+            String postcode = "A" + (char) ('A' + n / 1000) + (n / 100) % 10 + " " + (n / 10) % 10 + (char) ('A' + n % 10) + "A";
+            postcodes.add(postcode);
+            csv.append(postcode).append(',').append(n / 1000.0).append(',').append(-n / 1000.0).append('\n');
+        }
+
+        // Act
+        ImportResponse response = importer.importPostcodes(stream(csv.toString()), PostcodeImporter.Format.CSV);
+
+        // Assert
+        assertEquals(10_000, response.getImported());
+        assertEquals(0, response.getRejected());
+        for (int n = 0; n < postcodes.size(); n++) {
+            assertEquals(Coordinates.pack(n * 10_000, -n * 10_000), upserted.get(PostcodeKey.encode(postcodes.get(n))));
+        }
+    }
+
+    @Test
+    void importPostcodes_CsvHeaderWithoutCoordinates_ReturnsBadRequest() {
+        assertThrows(InvalidRequestException.class,
+                () -> importer.importPostcodes(stream("postcode,town\nSW1A 1AA,London\n"), PostcodeImporter.Format.CSV));
+
+        verifyNoInteractions(postalCodeJdbcRepository);
+    }
+
+    @Test
+    void importPostcodes_Ndjson_PublishesChanges() throws Exception {
+        // Arrange
+        String ndjson = "{\"postcode\":\"SW1A 1AA\",\"latitude\":51.5035,\"longitude\":-0.1277,\"distance\":1.2}\n" +
+                "{\"postcode\":\"EC2A 2AH\",\"latitude\":null,\"longitude\":null}\n" +
+                "{\"postcode\":\"NOPE\",\"latitude\":1,\"longitude\":1}\n" +
+                "{\"postcode\":\"NW1 6XE\",\"latitude\":\"north\",\"longitude\":1}\n";
+
+        // Act
+        ImportResponse response = importer.importPostcodes(stream(ndjson), PostcodeImporter.Format.NDJSON);
+
+        // Assert
+        assertEquals(2, response.getImported());
+        assertEquals(1, response.getWithoutCoordinates());
+        assertEquals(List.of("line 3: invalid postcode", "line 4: invalid coordinates"), response.getRejections());
+        ArgumentCaptor<PostcodesChangedEvent> event = ArgumentCaptor.forClass(PostcodesChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2, event.getValue().getCount());
+        assertEquals(PostcodeKey.encode("SW1A 1AA"), event.getValue().getKeys()[0]);
+        assertEquals(Coordinates.pack(515_035_000, -1_277_000), event.getValue().getCoordinates()[0]);
+    }
+
+    @Test
+    void importPostcodes_MalformedNdjson_ReturnsBadRequest() {
+        assertThrows(InvalidRequestException.class,
+                () -> importer.importPostcodes(stream("{\"postcode\":\"SW1A 1AA\",\n"), PostcodeImporter.Format.NDJSON));
+    }
+
+    @Test
+    void upsertAll_MixedRecords_ReportsOutcomePerRow() {
+        // Arrange
+        long existing = PostcodeKey.encode("SW1A 1AA");
+        long unchanged = PostcodeKey.encode("EC2A 2AH");
+        when(postalCodeJdbcRepository.findCoordinates(any(), anyInt())).thenReturn(Map.of(
+                existing, Coordinates.pack(510_000_000, -1_000_000),
+                unchanged, Coordinates.pack(515_200_000, -800_000)));
+        List<PostalCodeRecord> records = Arrays.asList(
+                record("sw1a1aa", "51.5035", "-0.1277"),
+                record("EC2A 2AH", "51.52", "-0.08"),
+                record("NW1 6XE", "51.5238", "-0.1586"),
+                record("NOPE", "1", "1"),
+                record("E1 6AN", "91", "0"),
+                null);
+
+        // Act
+        BulkUpsertResponse response = importer.upsertAll(records);
+
+        // Assert
+        assertEquals(List.of(Outcome.UPDATED, Outcome.UNCHANGED, Outcome.INSERTED, Outcome.REJECTED,
+                        Outcome.REJECTED, Outcome.REJECTED),
+                response.getResults().stream().map(BulkUpsertResponse.Result::getOutcome).toList());
+        assertEquals("SW1A 1AA", response.getResults().get(0).getPostcode());
+        assertEquals("invalid postcode", response.getResults().get(3).getError());
+        assertEquals("invalid coordinates", response.getResults().get(4).getError());
+        assertEquals(1, response.getInserted());
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getUnchanged());
+        assertEquals(3, response.getRejected());
+        assertEquals(2, upserted.size());
+        assertEquals(Coordinates.pack(515_035_000, -1_277_000), upserted.get(existing));
+        assertFalse(upserted.containsKey(unchanged));
+        ArgumentCaptor<PostcodesChangedEvent> event = ArgumentCaptor.forClass(PostcodesChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2, event.getValue().getCount());
+    }
+
+    @Test
+    void upsertAll_RepeatedPostcode_LastValueWins() {
+        // Arrange
+        when(postalCodeJdbcRepository.findCoordinates(any(), anyInt())).thenReturn(Map.of());
+        List<PostalCodeRecord> records = List.of(
+                record("SW1A 1AA", "51.5", "-0.1"),
+                record("SW1A 1AA", "51.5", "-0.1"),
+                record("SW1A 1AA", "51.6", "-0.1"));
+
+        // Act
+        BulkUpsertResponse response = importer.upsertAll(records);
+
+        // Assert
+        assertEquals(List.of(Outcome.INSERTED, Outcome.UNCHANGED, Outcome.UPDATED),
+                response.getResults().stream().map(BulkUpsertResponse.Result::getOutcome).toList());
+        verify(postalCodeJdbcRepository).findCoordinates(any(), eq(1));
+        verify(postalCodeJdbcRepository).upsertCoordinates(any(), any(), eq(1));
+        assertEquals(Coordinates.pack(516_000_000, -1_000_000), upserted.get(PostcodeKey.encode("SW1A 1AA")));
+    }
+
+    @Test
+    void upsertAll_MoreThanOneBatch_UpsertsEachChunk() {
+        // Arrange
+        when(postalCodeJdbcRepository.findCoordinates(any(), anyInt())).thenReturn(Map.of());
+        List<PostalCodeRecord> records = List.of(
+                record("SW1A 1AA", "51.5", "-0.1"),
+                record("EC2A 2AH", "51.5", "-0.1"),
+                record("NW1 6XE", "51.5", "-0.1"),
+                record("E1 6AN", "51.5", "-0.1"));
+
+        // Act
+        BulkUpsertResponse response = importer.upsertAll(records);
+
+        // Assert
+        assertEquals(4, response.getInserted());
+        verify(postalCodeJdbcRepository, times(2)).findCoordinates(any(), anyInt());
+        verify(postalCodeJdbcRepository, times(2)).upsertCoordinates(any(), any(), anyInt());
+        assertEquals(4, upserted.size());
+    }
+
+    @Test
+    void upsertAll_TooManyRecords_ReturnsBadRequest() {
+        List<PostalCodeRecord> records = Collections.nCopies(100_001, record("SW1A 1AA", "51.5", "-0.1"));
+
+        assertThrows(InvalidRequestException.class, () -> importer.upsertAll(records));
+
+        verifyNoInteractions(postalCodeJdbcRepository);
+    }
+
+    private static PostalCodeRecord record(String postcode, String latitude, String longitude) {
+        return new PostalCodeRecord(postcode, Double.valueOf(latitude), Double.valueOf(longitude));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.geosvc.security;
+
+import com.example.geosvc.metrics.GeoMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "uQf3Yvk3zo2uG12aK7ZF9i00p2T+RSkxmZk5mYhD1t8=";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000);
+    private final RevokedUsers revokedUsers = new RevokedUsers(60_000, event -> { });
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GeoMetrics metrics = new GeoMetrics(registry);
+    private final UserDetails admin = User.withUsername("admin").password("unused").roles("ADMIN").build();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stateless_BuildsAuthenticationFromClaims() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, userDetailsService, revokedUsers, true, metrics);
+
+        // Act
+        filter.doFilter(bearer(jwtService.generateToken(admin)), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("admin", authentication.getName());
+        assertEquals(List.of("ROLE_ADMIN"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void stateful_LoadsUserFromStore() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, userDetailsService, revokedUsers, false, metrics);
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(admin);
+
+        // Act
+        filter.doFilter(bearer(jwtService.generateToken(admin)), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService).loadUserByUsername("admin");
+    }
+
+    @Test
+    void revokedUser_IsNotAuthenticated() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, userDetailsService, revokedUsers, true, metrics);
+        String token = jwtService.generateToken(admin);
+        revokedUsers.revoke("admin");
+
+        // Act
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void invalidToken_IsNotAuthenticated() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, userDetailsService, revokedUsers, true, metrics);
+
+        // Act
+        filter.doFilter(bearer("not-a-token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, registry.get("geo.auth.filter").tag("mode", "stateless").tag("outcome", "rejected").timer().count());
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/postal-codes");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.geosvc.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "uQf3Yvk3zo2uG12aK7ZF9i00p2T+RSkxmZk5mYhD1t8=";
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000);
+    private final UserDetails admin = User.withUsername("admin").password("unused").roles("ADMIN").build();
+
+    @Test
+    void validateToken_AcceptsIssuedToken() {
+        // Arrange
+        String token = jwtService.generateToken(admin);
+
+        // Act & Assert
+        assertTrue(jwtService.validateToken(token, admin));
+        assertTrue(jwtService.validateToken(token));
+        assertEquals("admin", jwtService.extractUsername(token));
+    }
+
+    @Test
+    void extractClaim_ReturnsCachedClaimsOnRepeatedCalls() {
+        // Arrange
+        String token = jwtService.generateToken(admin);
+
+        // Act
+        Object first = jwtService.extractClaim(token, claims -> claims);
+        Object second = jwtService.extractClaim(token, claims -> claims);
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    void validateToken_RejectsTamperedSignature() {
+        // Arrange
+        String token = jwtService.generateToken(admin);
+        jwtService.extractUsername(token);
+        // The final character carries padding bits, so change one before it
+        int index = token.length() - 2;
+        char original = token.charAt(index);
+        String tampered = token.substring(0, index) + (original == 'A' ? 'B' : 'A') + token.substring(index + 1);
+
+        // Act & Assert
+        assertFalse(jwtService.validateToken(tampered));
+        assertThrows(JwtException.class, () -> jwtService.extractUsername(tampered));
+    }
+
+    @Test
+    void validateToken_RejectsTokenSignedWithAnotherKey() {
+        // Arrange
+        JwtService other = new JwtService("c2VjcmV0LWtleS10aGF0LWlzLWxvbmctZW5vdWdoLWZvci1oczI1Ng==", 60_000);
+        String token = other.generateToken(admin);
+
+        // Act & Assert
+        assertFalse(jwtService.validateToken(token));
+    }
+
+    @Test
+    void validateToken_RejectsExpiredToken() {
+        // Arrange
+        JwtService expiring = new JwtService(SECRET, -1_000);
+        String token = expiring.generateToken(admin);
+
+        // Act & Assert
+        assertFalse(jwtService.validateToken(token));
+        assertFalse(expiring.validateToken(token));
+    }
+
+    @Test
+    void generateToken_EmbedsRoles() {
+        // Arrange
+        String token = jwtService.generateToken(admin);
+
+        // Act
+        List<GrantedAuthority> authorities = jwtService.extractAuthorities(token);
+
+        // Assert
+        assertEquals(List.of("ROLE_ADMIN"), authorities.stream().map(GrantedAuthority::getAuthority).toList());
+        assertNotNull(jwtService.extractIssuedAt(token));
+    }
+}
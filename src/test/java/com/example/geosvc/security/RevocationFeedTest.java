@@ -0,0 +1,94 @@
+package com.example.geosvc.security;
+
+import com.example.geosvc.repository.RevokedUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two replicas sharing revocations in an embedded H2 database.
+ */
+class RevocationFeedTest {
+
+    private static final long EXPIRATION = 60_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private RevokedUserRepository revokedUserRepository;
+    private RevokedUsers writerUsers;
+    private RevokedUsers replicaUsers;
+    private RevocationFeed replica;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("revoked_users.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        revokedUserRepository = new RevokedUserRepository(jdbcTemplate);
+
+        RevokedUsers unused = new RevokedUsers(EXPIRATION, event -> { });
+        RevocationFeed writer = new RevocationFeed(revokedUserRepository, unused, EXPIRATION, Duration.ofSeconds(1));
+        writerUsers = new RevokedUsers(EXPIRATION, event -> writer.onTokensRevoked((TokensRevokedEvent) event));
+        replicaUsers = new RevokedUsers(EXPIRATION, event -> { });
+        replica = new RevocationFeed(revokedUserRepository, replicaUsers, EXPIRATION, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void poll_RevokedOnAnotherReplica_IsRejected() {
+        // Arrange
+        Date issuedAt = new Date(System.currentTimeMillis() - 1_000);
+        writerUsers.revoke("user");
+
+        // Act
+        int polled = replica.poll();
+
+        // Assert
+        assertEquals(1, polled);
+        assertTrue(replicaUsers.isRevoked("user", issuedAt));
+        assertFalse(replicaUsers.isRevoked("admin", issuedAt));
+    }
+
+    @Test
+    void poll_RevokedAgain_KeepsTheLatestTime() {
+        // Arrange
+        revokedUserRepository.save("user", 2_000_000_000_000L);
+        revokedUserRepository.save("user", 1_900_000_000_000L);
+
+        // Act
+        replica.poll();
+
+        // Assert
+        assertTrue(replicaUsers.isRevoked("user", new Date(2_000_000_000_000L)));
+        assertFalse(replicaUsers.isRevoked("user", new Date(2_000_000_000_001L)));
+    }
+
+    @Test
+    void poll_RevocationOlderThanTokens_IsIgnoredAndPruned() {
+        // Arrange
+        long expired = System.currentTimeMillis() - EXPIRATION - 1_000;
+        revokedUserRepository.save("user", expired);
+
+        // Act
+        int polled = replica.poll();
+
+        // Assert
+        assertEquals(0, polled);
+        assertFalse(replicaUsers.isRevoked("user", new Date(expired - 1_000)));
+        assertEquals(1, revokedUserRepository.deleteOlderThan(System.currentTimeMillis() - EXPIRATION));
+    }
+}
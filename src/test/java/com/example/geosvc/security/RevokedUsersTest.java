@@ -0,0 +1,42 @@
+package com.example.geosvc.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevokedUsersTest {
+
+    @Test
+    void revoke_ManyUsers_NoneIsEvicted() {
+        // Arrange
+        RevokedUsers revokedUsers = new RevokedUsers(60_000, event -> { });
+        Date issuedAt = new Date(System.currentTimeMillis() - 1_000);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            revokedUsers.revoke("user" + i);
+        }
+
+        // Assert
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(revokedUsers.isRevoked("user" + i, issuedAt), "user" + i);
+        }
+    }
+
+    @Test
+    void record_OlderRevocation_KeepsTheLatest() {
+        // Arrange
+        RevokedUsers revokedUsers = new RevokedUsers(60_000, event -> { });
+        long now = System.currentTimeMillis();
+        revokedUsers.record("user", now);
+
+        // Act
+        revokedUsers.record("user", now - 10_000);
+
+        // Assert
+        assertTrue(revokedUsers.isRevoked("user", new Date(now - 5_000)));
+        assertFalse(revokedUsers.isRevoked("user", new Date(now + 1)));
+    }
+}
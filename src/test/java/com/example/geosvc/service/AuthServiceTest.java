@@ -4,6 +4,7 @@ import com.example.geosvc.dto.LoginRequest;
 import com.example.geosvc.dto.LoginResponse;
 import com.example.geosvc.exception.AuthenticationException;
 import com.example.geosvc.security.JwtService;
+import com.example.geosvc.security.RevokedUsers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,6 +34,9 @@ class AuthServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private RevokedUsers revokedUsers;
+
     @InjectMocks
     private AuthService authService;
 
@@ -97,4 +101,13 @@ class AuthServiceTest {
         verify(authenticationManager, times(1)).authenticate(any());
         verify(jwtService, never()).generateToken(any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void revokeTokens_RevokesUser() {
+        // Act
+        authService.revokeTokens("admin");
+
+        // Assert
+        verify(revokedUsers).revoke("admin");
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.geosvc.service;
+
+import com.example.geosvc.distance.ScalarHaversineKernel;
+import com.example.geosvc.metrics.GeoMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceMatrixTest {
+
+    @Test
+    void forEachBlock_CoversEveryCellAcrossBlocks() throws Exception {
+        // Arrange
+        int rows = 5;
+        int columns = 400_000;
+        Random random = new Random(7);
+        double[] originLatitudes = random.doubles(rows, 50, 58).toArray();
+        double[] originLongitudes = random.doubles(rows, -5, 1).toArray();
+        double[] destinationLatitudes = random.doubles(columns, 50, 58).toArray();
+        double[] destinationLongitudes = random.doubles(columns, -5, 1).toArray();
+        DistanceMatrix matrix = new DistanceMatrix(new ScalarHaversineKernel(),
+                Collections.nCopies(rows, "SW1A 1AA"), originLatitudes, originLongitudes,
+                Collections.nCopies(columns, "EC2A 2AH"), destinationLatitudes, destinationLongitudes,
+                new GeoMetrics(new SimpleMeterRegistry()));
+        List<Integer> blockStarts = new ArrayList<>();
+        int[] cells = {0};
+
+        // Act
+        matrix.forEachBlock((firstRow, rowCount, distances) -> {
+            blockStarts.add(firstRow);
+            for (int r = 0; r < rowCount; r++) {
+                for (int c = 0; c < columns; c += 997) {
+                    assertEquals(expected(originLatitudes[firstRow + r], originLongitudes[firstRow + r],
+                            destinationLatitudes[c], destinationLongitudes[c]), distances[r * columns + c]);
+                }
+            }
+            cells[0] += rowCount * columns;
+        });
+
+        // Assert
+        assertEquals(List.of(0, 2, 4), blockStarts);
+        assertEquals(rows * columns, cells[0]);
+    }
+
+    @Test
+    void writeBinary_WritesLittleEndianFloatsRowMajor() throws Exception {
+        // Arrange
+        DistanceMatrix matrix = twoByTwo();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        matrix.writeBinary(output);
+
+        // Assert
+        ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(4 * Float.BYTES, buffer.remaining());
+        assertEquals(0f, buffer.getFloat(0));
+        assertEquals(expected(51.5035, -0.1277, 51.5200, -0.0800), buffer.getFloat(Float.BYTES));
+        assertEquals(expected(51.5200, -0.0800, 51.5035, -0.1277), buffer.getFloat(2 * Float.BYTES));
+        assertEquals(0f, buffer.getFloat(3 * Float.BYTES));
+    }
+
+    @Test
+    void writeCsv_WritesHeaderAndRowPerOrigin() throws Exception {
+        // Arrange
+        DistanceMatrix matrix = twoByTwo();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        String distance = String.format("%.3f", expected(51.5035, -0.1277, 51.5200, -0.0800));
+
+        // Act
+        matrix.writeCsv(output);
+
+        // Assert
+        assertEquals("origin,SW1A 1AA,EC2A 2AH\n"
+                        + "SW1A 1AA,0.000," + distance + "\n"
+                        + "EC2A 2AH," + distance + ",0.000\n",
+                output.toString(StandardCharsets.US_ASCII));
+    }
+
+    private static DistanceMatrix twoByTwo() {
+        List<String> postcodes = List.of("SW1A 1AA", "EC2A 2AH");
+        double[] latitudes = {51.5035, 51.5200};
+        double[] longitudes = {-0.1277, -0.0800};
+        return new DistanceMatrix(new ScalarHaversineKernel(), postcodes, latitudes, longitudes, postcodes, latitudes, longitudes,
+                new GeoMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static float expected(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        return (float) ScalarHaversineKernel.distance(lat1, Math.toRadians(longitude1), Math.cos(lat1),
+                lat2, Math.toRadians(longitude2), Math.cos(lat2));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.geosvc.service;
+
+import com.example.geosvc.distance.DistanceMode;
+import com.example.geosvc.dto.DistanceResponse;
+import com.example.geosvc.metrics.GeoMetrics;
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeChangedEvent;
+import com.example.geosvc.store.PostcodeKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistancePairCacheTest {
+
+    private static final long KEY1 = PostcodeKey.encode("SW1A 1AA");
+    private static final long KEY2 = PostcodeKey.encode("EC2A 2AH");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry registry;
+    private DistancePairCache cache;
+    private AtomicInteger calculations;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new DistancePairCache(objectMapper, new GeoMetrics(registry), registry, 100);
+        calculations = new AtomicInteger();
+    }
+
+    @Test
+    void get_CalculatesOncePerPair() throws Exception {
+        byte[] first = cache.get(KEY1, KEY2, DistanceMode.HAVERSINE, calculation("SW1A 1AA", "EC2A 2AH"));
+        byte[] second = cache.get(KEY1, KEY2, DistanceMode.HAVERSINE, calculation("SW1A 1AA", "EC2A 2AH"));
+
+        assertEquals(1, calculations.get());
+        assertArrayEquals(first, second);
+        assertEquals("SW1A 1AA", objectMapper.readValue(first, DistanceResponse.class).getLocation1().getPostcode());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "distance-pairs").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void get_ReversedPairSwapsLocationsWithoutRecalculating() throws Exception {
+        cache.get(KEY1, KEY2, DistanceMode.HAVERSINE, calculation("SW1A 1AA", "EC2A 2AH"));
+
+        byte[] reversed = cache.get(KEY2, KEY1, DistanceMode.HAVERSINE, calculation("EC2A 2AH", "SW1A 1AA"));
+
+        DistanceResponse response = objectMapper.readValue(reversed, DistanceResponse.class);
+        assertEquals(1, calculations.get());
+        assertEquals("EC2A 2AH", response.getLocation1().getPostcode());
+        assertEquals("SW1A 1AA", response.getLocation2().getPostcode());
+        assertEquals(4.2, response.getDistance());
+    }
+
+    @Test
+    void get_KeepsModesApart() {
+        cache.get(KEY1, KEY2, DistanceMode.HAVERSINE, calculation("SW1A 1AA", "EC2A 2AH"));
+        cache.get(KEY1, KEY2, DistanceMode.VINCENTY, calculation("SW1A 1AA", "EC2A 2AH"));
+
+        assertEquals(2, calculations.get());
+    }
+
+    @Test
+    void onPostcodeChanged_DropsPairsWithThatPostcode() {
+        cache.get(KEY1, KEY2, DistanceMode.HAVERSINE, calculation("SW1A 1AA", "EC2A 2AH"));
+
+        cache.onPostcodeChanged(new PostcodeChangedEvent(KEY2, Coordinates.pack(515_000_000, -1_000_000)));
+        cache.get(KEY1, KEY2, DistanceMode.HAVERSINE, calculation("SW1A 1AA", "EC2A 2AH"));
+
+        assertEquals(2, calculations.get());
+    }
+
+    private Supplier<DistanceResponse> calculation(String postcode1, String postcode2) {
+        return () -> {
+            calculations.incrementAndGet();
+            return new DistanceResponse(
+                    new DistanceResponse.Location(postcode1, 51.5, -0.1),
+                    new DistanceResponse.Location(postcode2, 51.52, -0.08),
+                    4.2, "haversine", 0.0);
+        };
+    }
+}
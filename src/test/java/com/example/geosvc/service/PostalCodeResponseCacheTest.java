@@ -0,0 +1,84 @@
+package com.example.geosvc.service;
+
+import com.example.geosvc.dto.PostalCodeResponse;
+import com.example.geosvc.exception.PostalCodeNotFoundException;
+import com.example.geosvc.metrics.GeoMetrics;
+import com.example.geosvc.store.PostcodeKey;
+import com.example.geosvc.store.PostcodesChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostalCodeResponseCacheTest {
+
+    private static final long KEY = PostcodeKey.encode("SW1A 1AA");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PostalCodeResponseCache cache;
+    private AtomicInteger lookups;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache = new PostalCodeResponseCache(objectMapper, new GeoMetrics(registry), registry, 100);
+        lookups = new AtomicInteger();
+    }
+
+    @Test
+    void get_EncodesOncePerPostcode() throws Exception {
+        PostalCodeResponseCache.Entry first = cache.get(KEY, () -> lookup(51.5035, -0.1277));
+        PostalCodeResponseCache.Entry second = cache.get(KEY, () -> lookup(51.5035, -0.1277));
+
+        assertEquals(1, lookups.get());
+        assertSame(first, second);
+        assertEquals(51.5035, objectMapper.readValue(first.getBody(), PostalCodeResponse.class).getLatitude());
+    }
+
+    @Test
+    void encode_SameCoordinates_SameETag() {
+        PostalCodeResponseCache.Entry entry = cache.encode(new PostalCodeResponse("SW1A 1AA", 51.5035, -0.1277));
+        PostalCodeResponseCache.Entry same = cache.encode(new PostalCodeResponse("SW1A 1AA", 51.5035, -0.1277));
+        PostalCodeResponseCache.Entry moved = cache.encode(new PostalCodeResponse("SW1A 1AA", 51.5035, -0.1278));
+        PostalCodeResponseCache.Entry unlocated = cache.encode(new PostalCodeResponse("SW1A 1AA", null, null));
+
+        assertEquals(entry.getETag(), same.getETag());
+        assertNotEquals(entry.getETag(), moved.getETag());
+        assertNotEquals(entry.getETag(), unlocated.getETag());
+        assertTrue(entry.getETag().startsWith("\"") && entry.getETag().endsWith("\""));
+    }
+
+    @Test
+    void get_ChangeDuringLookup_IsNotKept() {
+        cache.get(KEY, () -> {
+            cache.onPostcodesChanged(new PostcodesChangedEvent(new long[]{KEY}, new long[]{0}, 1));
+            return lookup(51.5035, -0.1277);
+        });
+
+        PostalCodeResponseCache.Entry entry = cache.get(KEY, () -> lookup(51.5036, -0.1278));
+
+        assertEquals(2, lookups.get());
+        assertEquals(cache.encode(new PostalCodeResponse("SW1A 1AA", 51.5036, -0.1278)).getETag(), entry.getETag());
+    }
+
+    @Test
+    void get_FailedLookup_IsRethrownAndNotCached() {
+        assertThrows(PostalCodeNotFoundException.class, () -> cache.get(KEY, () -> {
+            lookups.incrementAndGet();
+            throw new PostalCodeNotFoundException("SW1A 1AA");
+        }));
+
+        cache.get(KEY, () -> lookup(51.5035, -0.1277));
+
+        assertEquals(2, lookups.get());
+    }
+
+    private PostalCodeResponse lookup(Double latitude, Double longitude) {
+        lookups.incrementAndGet();
+        return new PostalCodeResponse("SW1A 1AA", latitude, longitude);
+    }
+}
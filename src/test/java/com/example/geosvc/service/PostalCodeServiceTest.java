@@ -1,24 +1,50 @@
 package com.example.geosvc.service;
 
+import com.example.geosvc.distance.DistanceMode;
+import com.example.geosvc.distance.HaversineKernel;
+import com.example.geosvc.distance.ScalarHaversineKernel;
+import com.example.geosvc.dto.DistanceBatchResponse;
+import com.example.geosvc.dto.DistanceRequest;
 import com.example.geosvc.dto.DistanceResponse;
+import com.example.geosvc.dto.NearestPostalCodesResponse;
 import com.example.geosvc.dto.PostalCodeResponse;
+import com.example.geosvc.dto.PostalCodeSliceResponse;
 import com.example.geosvc.dto.UpdatePostalCodeRequest;
+import com.example.geosvc.exception.InvalidRequestException;
 import com.example.geosvc.exception.PostalCodeNotFoundException;
+import com.example.geosvc.exception.ServiceNotReadyException;
+import com.example.geosvc.metrics.GeoMetrics;
 import com.example.geosvc.model.PostalCode;
+import com.example.geosvc.model.PostalCodeCoordinates;
 import com.example.geosvc.repository.PostalCodeRepository;
+import com.example.geosvc.spatial.PostcodeSpatialIndex;
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeCache;
+import com.example.geosvc.store.PostcodeChangedEvent;
+import com.example.geosvc.store.PostcodeKey;
+import com.example.geosvc.store.PostcodeStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +58,29 @@ class PostalCodeServiceTest {
     @Mock
     private PostalCodeRepository postalCodeRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private PostcodeStore postcodeStore = new PostcodeStore();
+
+    @Mock
+    private PostcodeSpatialIndex spatialIndex;
+
+    @Spy
+    private HaversineKernel haversineKernel = new ScalarHaversineKernel();
+
+    @Spy
+    private GeoMetrics metrics = new GeoMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private PostcodeCache postcodeCache = new PostcodeCache(
+            new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+    @Spy
+    private DistancePairCache distancePairCache = new DistancePairCache(
+            new ObjectMapper(), metrics, new SimpleMeterRegistry(), 1000);
+
     @InjectMocks
     private PostalCodeService postalCodeService;
 
@@ -42,25 +91,25 @@ class PostalCodeServiceTest {
     @BeforeEach
     void setUp() {
         postalCode1 = new PostalCode("SW1A 1AA", 
-            new BigDecimal("51.5035"), 
-            new BigDecimal("-0.1277"));
+            51.5035, 
+            -0.1277);
         
         postalCode2 = new PostalCode("EC2A 2AH", 
-            new BigDecimal("51.5200"), 
-            new BigDecimal("-0.0800"));
+            51.5200, 
+            -0.0800);
 
         postalCode = new PostalCode("SW1A 1AA", 
-            new BigDecimal("51.5035"), 
-            new BigDecimal("-0.1277"));
+            51.5035, 
+            -0.1277);
     }
 
     @Test
     void calculateDistance_ValidPostcodes_ReturnsCorrectDistance() {
         // Arrange
-        when(postalCodeRepository.findByPostcode("SW1A 1AA"))
-            .thenReturn(Optional.of(postalCode1));
-        when(postalCodeRepository.findByPostcode("EC2A 2AH"))
-            .thenReturn(Optional.of(postalCode2));
+        when(postalCodeRepository.findCoordinatesByPostcode("SW1A 1AA"))
+            .thenReturn(Optional.of(coordinates(postalCode1)));
+        when(postalCodeRepository.findCoordinatesByPostcode("EC2A 2AH"))
+            .thenReturn(Optional.of(coordinates(postalCode2)));
 
         // Act
         DistanceResponse response = postalCodeService.calculateDistance("SW1A 1AA", "EC2A 2AH");
@@ -72,14 +121,14 @@ class PostalCodeServiceTest {
         assertEquals("km", response.getUnit());
         assertTrue(response.getDistance() > 0);
         
-        verify(postalCodeRepository, times(1)).findByPostcode("SW1A 1AA");
-        verify(postalCodeRepository, times(1)).findByPostcode("EC2A 2AH");
+        verify(postalCodeRepository, times(1)).findCoordinatesByPostcode("SW1A 1AA");
+        verify(postalCodeRepository, times(1)).findCoordinatesByPostcode("EC2A 2AH");
     }
 
     @Test
     void calculateDistance_InvalidPostcode_ThrowsException() {
         // Arrange
-        when(postalCodeRepository.findByPostcode("INVALID"))
+        when(postalCodeRepository.findCoordinatesByPostcode("INVALID"))
             .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -87,16 +136,31 @@ class PostalCodeServiceTest {
             postalCodeService.calculateDistance("INVALID", "SW1A 1AA");
         });
         
-        verify(postalCodeRepository, times(1)).findByPostcode("INVALID");
-        verify(postalCodeRepository, never()).findByPostcode("SW1A 1AA");
+        verify(postalCodeRepository, times(1)).findCoordinatesByPostcode("INVALID");
+        verify(postalCodeRepository, never()).findCoordinatesByPostcode("SW1A 1AA");
+    }
+
+    @Test
+    void calculateDistance_RecordsPhasesAndMisses() {
+        // Arrange
+        loadStore();
+
+        // Act
+        postalCodeService.calculateDistance("SW1A 1AA", "EC2A 2AH");
+        assertThrows(IllegalArgumentException.class, () -> postalCodeService.calculateDistance("ZZ9 9ZZ", "SW1A 1AA"));
+
+        // Assert
+        verify(metrics).record(eq(GeoMetrics.Operation.DISTANCE), eq(GeoMetrics.Phase.LOOKUP), anyLong());
+        verify(metrics).record(eq(GeoMetrics.Operation.DISTANCE), eq(GeoMetrics.Phase.DISTANCE), anyLong());
+        verify(metrics).postcodeNotFound();
     }
 
     @Test
     void createOrUpdatePostalCode_NewPostcode_CreatesNewRecord() {
         // Arrange
         PostalCode newPostalCode = new PostalCode("NW1 6XE", 
-            new BigDecimal("51.5322"), 
-            new BigDecimal("-0.1277"));
+            51.5322, 
+            -0.1277);
         
         when(postalCodeRepository.findByPostcode("NW1 6XE"))
             .thenReturn(Optional.empty());
@@ -117,8 +181,8 @@ class PostalCodeServiceTest {
     void createOrUpdatePostalCode_ExistingPostcode_UpdatesRecord() {
         // Arrange
         PostalCode updatedPostalCode = new PostalCode("SW1A 1AA", 
-            new BigDecimal("51.5036"), 
-            new BigDecimal("-0.1278"));
+            51.5036, 
+            -0.1278);
         
         when(postalCodeRepository.findByPostcode("SW1A 1AA"))
             .thenReturn(Optional.of(postalCode1));
@@ -131,17 +195,48 @@ class PostalCodeServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("SW1A 1AA", result.getPostcode());
-        assertEquals(new BigDecimal("51.5036"), result.getLatitude());
-        assertEquals(new BigDecimal("-0.1278"), result.getLongitude());
+        assertEquals(51.5036, result.getLatitude());
+        assertEquals(-0.1278, result.getLongitude());
         verify(postalCodeRepository, times(1)).findByPostcode("SW1A 1AA");
         verify(postalCodeRepository, times(1)).save(postalCode1);
     }
 
+    @Test
+    void createOrUpdatePostalCode_ExtraPrecision_RoundsToColumnScale() {
+        // Arrange
+        PostalCode postalCode = new PostalCode("NW1 6XE", 51.532212345, -0.127749999);
+        when(postalCodeRepository.findByPostcode("NW1 6XE")).thenReturn(Optional.empty());
+        when(postalCodeRepository.save(any(PostalCode.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        PostalCode result = postalCodeService.createOrUpdatePostalCode(postalCode);
+
+        // Assert
+        assertEquals(51.5322123, result.getLatitude());
+        assertEquals(-0.1277500, result.getLongitude());
+        ArgumentCaptor<PostcodeChangedEvent> event = ArgumentCaptor.forClass(PostcodeChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Coordinates.pack(515_322_123, -1_277_500), event.getValue().getCoordinates());
+    }
+
+    @Test
+    void updatePostalCodeMapping_LatitudeOutOfRange_ThrowsBadRequest() {
+        // Arrange
+        PostalCode existingPostalCode = new PostalCode("SW1A 1AA", 51.5035, -0.1277);
+        when(postalCodeRepository.findByPostcode("SW1A 1AA")).thenReturn(Optional.of(existingPostalCode));
+
+        // Act & Assert
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> postalCodeService.updatePostalCodeMapping("SW1A 1AA", new UpdatePostalCodeRequest(90.5, -0.1277)));
+        assertEquals("Latitude must be between -90 and 90", exception.getMessage());
+        verify(postalCodeRepository, never()).save(any());
+    }
+
     @Test
     void getPostalCodeMapping_ValidPostcode_ReturnsMapping() {
         // Arrange
-        when(postalCodeRepository.findByPostcode("SW1A 1AA"))
-            .thenReturn(Optional.of(postalCode));
+        when(postalCodeRepository.findCoordinatesByPostcode("SW1A 1AA"))
+            .thenReturn(Optional.of(coordinates(postalCode)));
 
         // Act
         PostalCodeResponse response = postalCodeService.getPostalCodeMapping("SW1A 1AA");
@@ -149,15 +244,36 @@ class PostalCodeServiceTest {
         // Assert
         assertNotNull(response);
         assertEquals("SW1A 1AA", response.getPostcode());
-        assertEquals(new BigDecimal("51.5035"), response.getLatitude());
-        assertEquals(new BigDecimal("-0.1277"), response.getLongitude());
-        verify(postalCodeRepository, times(1)).findByPostcode("SW1A 1AA");
+        // Cached values come back at the column's DECIMAL(10,7) scale
+        assertEquals(51.5035, response.getLatitude());
+        assertEquals(-0.1277, response.getLongitude());
+        verify(postalCodeRepository, times(1)).findCoordinatesByPostcode("SW1A 1AA");
+    }
+
+    @Test
+    void getPostalCodeMapping_RepeatedLookups_HitDatabaseOnce() {
+        // Arrange
+        when(postalCodeRepository.findCoordinatesByPostcode("SW1A 1AA"))
+            .thenReturn(Optional.of(coordinates(postalCode)));
+        when(postalCodeRepository.findCoordinatesByPostcode("ZZ9 9ZZ"))
+            .thenReturn(Optional.empty());
+
+        // Act
+        postalCodeService.getPostalCodeMapping("SW1A 1AA");
+        postalCodeService.getPostalCodeMapping("sw1a1aa");
+        for (int i = 0; i < 2; i++) {
+            assertThrows(PostalCodeNotFoundException.class, () -> postalCodeService.getPostalCodeMapping("ZZ9 9ZZ"));
+        }
+
+        // Assert
+        verify(postalCodeRepository, times(1)).findCoordinatesByPostcode("SW1A 1AA");
+        verify(postalCodeRepository, times(1)).findCoordinatesByPostcode("ZZ9 9ZZ");
     }
 
     @Test
     void getPostalCodeMapping_InvalidPostcode_ThrowsException() {
         // Arrange
-        when(postalCodeRepository.findByPostcode("INVALID"))
+        when(postalCodeRepository.findCoordinatesByPostcode("INVALID"))
             .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -166,7 +282,7 @@ class PostalCodeServiceTest {
         });
         
         assertEquals("Postal code not found: INVALID", exception.getMessage());
-        verify(postalCodeRepository, times(1)).findByPostcode("INVALID");
+        verify(postalCodeRepository, times(1)).findCoordinatesByPostcode("INVALID");
     }
 
     @Test
@@ -174,14 +290,14 @@ class PostalCodeServiceTest {
         // Arrange
         String postcode = "SW1A 1AA";
         UpdatePostalCodeRequest request = new UpdatePostalCodeRequest(
-                new BigDecimal("51.5036"),
-                new BigDecimal("-0.1278")
+                51.5036,
+                -0.1278
         );
         
         PostalCode existingPostalCode = new PostalCode();
         existingPostalCode.setPostcode(postcode);
-        existingPostalCode.setLatitude(new BigDecimal("51.5035"));
-        existingPostalCode.setLongitude(new BigDecimal("-0.1277"));
+        existingPostalCode.setLatitude(51.5035);
+        existingPostalCode.setLongitude(-0.1277);
         
         PostalCode updatedPostalCode = new PostalCode();
         updatedPostalCode.setPostcode(postcode);
@@ -211,8 +327,8 @@ class PostalCodeServiceTest {
         // Arrange
         String postcode = "INVALID";
         UpdatePostalCodeRequest request = new UpdatePostalCodeRequest(
-                new BigDecimal("51.5036"),
-                new BigDecimal("-0.1278")
+                51.5036,
+                -0.1278
         );
         
         when(postalCodeRepository.findByPostcode(postcode))
@@ -236,13 +352,13 @@ class PostalCodeServiceTest {
         
         PostalCode postalCode1 = new PostalCode();
         postalCode1.setPostcode("SW1A 1AA");
-        postalCode1.setLatitude(new BigDecimal("51.5035"));
-        postalCode1.setLongitude(new BigDecimal("-0.1277"));
+        postalCode1.setLatitude(51.5035);
+        postalCode1.setLongitude(-0.1277);
         
         PostalCode postalCode2 = new PostalCode();
         postalCode2.setPostcode("EC2A 2AH");
-        postalCode2.setLatitude(new BigDecimal("51.5200"));
-        postalCode2.setLongitude(new BigDecimal("-0.0800"));
+        postalCode2.setLatitude(51.5200);
+        postalCode2.setLongitude(-0.0800);
         
         List<PostalCode> postalCodes = Arrays.asList(postalCode1, postalCode2);
         Page<PostalCode> postalCodePage = new PageImpl<>(postalCodes, pageable, postalCodes.size());
@@ -260,4 +376,378 @@ class PostalCodeServiceTest {
         
         verify(postalCodeRepository, times(1)).findAll(pageable);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void calculateDistance_StoreLoaded_DoesNotQueryRepository() {
+        // Arrange
+        loadStore();
+
+        // Act
+        DistanceResponse response = postalCodeService.calculateDistance("sw1a1aa", "EC2A 2AH");
+
+        // Assert
+        assertEquals("SW1A 1AA", response.getLocation1().getPostcode());
+        assertEquals(51.5035, response.getLocation1().getLatitude());
+        assertEquals(-0.0800, response.getLocation2().getLongitude());
+        assertTrue(response.getDistance() > 0);
+        verifyNoInteractions(postalCodeRepository);
+    }
+
+    @Test
+    void calculateDistance_StoreLoaded_UnknownPostcodeThrowsException() {
+        // Arrange
+        loadStore();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            postalCodeService.calculateDistance("NW1 6XE", "SW1A 1AA");
+        });
+        verifyNoInteractions(postalCodeRepository);
+    }
+
+    @Test
+    void getPostalCodeMapping_StoreLoaded_ReturnsMappingFromStore() {
+        // Arrange
+        loadStore();
+
+        // Act
+        PostalCodeResponse response = postalCodeService.getPostalCodeMapping("SW1A 1AA");
+
+        // Assert
+        assertEquals("SW1A 1AA", response.getPostcode());
+        assertEquals(51.5035, response.getLatitude());
+        assertEquals(-0.1277, response.getLongitude());
+        verifyNoInteractions(postalCodeRepository);
+    }
+
+    @Test
+    void getPostalCodeMapping_UnnormalizedPostcode_QueriesCanonicalForm() {
+        // Arrange
+        when(postalCodeRepository.findCoordinatesByPostcode("SW1A 1AA"))
+            .thenReturn(Optional.of(coordinates(postalCode)));
+
+        // Act
+        PostalCodeResponse response = postalCodeService.getPostalCodeMapping("sw1a1aa");
+
+        // Assert
+        assertEquals("SW1A 1AA", response.getPostcode());
+        verify(postalCodeRepository, times(1)).findCoordinatesByPostcode("SW1A 1AA");
+    }
+
+    @Test
+    void updatePostalCodeMapping_PublishesChange() {
+        // Arrange
+        UpdatePostalCodeRequest request = new UpdatePostalCodeRequest(
+                51.5036,
+                -0.1278
+        );
+        when(postalCodeRepository.findByPostcode("SW1A 1AA"))
+                .thenReturn(Optional.of(postalCode1));
+        when(postalCodeRepository.save(any(PostalCode.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        postalCodeService.updatePostalCodeMapping("SW1A 1AA", request);
+
+        // Assert
+        ArgumentCaptor<PostcodeChangedEvent> event = ArgumentCaptor.forClass(PostcodeChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(PostcodeKey.encode("SW1A 1AA"), event.getValue().getKey());
+        assertEquals(515036000, Coordinates.latitudeE7(event.getValue().getCoordinates()));
+        assertEquals(-1278000, Coordinates.longitudeE7(event.getValue().getCoordinates()));
+    }
+
+    @Test
+    void findNearest_Postcode_ReturnsNeighboursByDistanceExcludingOrigin() {
+        // Arrange
+        loadStore();
+        PostcodeSpatialIndex index = new PostcodeSpatialIndex(postcodeStore);
+        index.rebuild();
+        PostalCodeService service = new PostalCodeService(postalCodeRepository, postcodeStore, index, eventPublisher, haversineKernel, metrics, postcodeCache, distancePairCache);
+
+        // Act
+        NearestPostalCodesResponse response = service.findNearest("SW1A 1AA", 5);
+
+        // Assert
+        assertEquals("SW1A 1AA", response.getOrigin().getPostcode());
+        assertEquals(1, response.getPostcodes().size());
+        assertEquals("EC2A 2AH", response.getPostcodes().get(0).getPostcode());
+        assertEquals(
+                postalCodeService.calculateDistance("SW1A 1AA", "EC2A 2AH").getDistance(),
+                response.getPostcodes().get(0).getDistance());
+        assertEquals("km", response.getUnit());
+        verify(haversineKernel, times(1)).distances(anyDouble(), anyDouble(), anyDouble(),
+                any(double[].class), any(double[].class), any(double[].class), anyInt(), anyInt(), any(double[].class), anyInt());
+        index.shutdown();
+    }
+
+    @Test
+    void findNearest_InvalidCount_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.findNearest("SW1A 1AA", 0));
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.findNearest(51.5, -0.1, 1001));
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.findNearest(91, -0.1, 10));
+    }
+
+    @Test
+    void findNearest_IndexNotReady_ThrowsException() {
+        // Arrange
+        loadStore();
+        when(spatialIndex.isReady()).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ServiceNotReadyException.class, () -> postalCodeService.findNearest(51.5, -0.1, 10));
+    }
+
+    @Test
+    void findNearest_UnknownPostcode_ThrowsNotFound() {
+        // Arrange
+        loadStore();
+
+        // Act & Assert
+        assertThrows(PostalCodeNotFoundException.class, () -> postalCodeService.findNearest("NW1 6XE", 10));
+    }
+
+    @Test
+    void forEachWithin_Postcode_StreamsPostcodesInsideRadius() throws Exception {
+        // Arrange
+        loadStore();
+        PostcodeSpatialIndex index = new PostcodeSpatialIndex(postcodeStore);
+        index.rebuild();
+        PostalCodeService service = new PostalCodeService(postalCodeRepository, postcodeStore, index, eventPublisher, haversineKernel, metrics, postcodeCache, distancePairCache);
+        double distance = postalCodeService.calculateDistance("SW1A 1AA", "EC2A 2AH").getDistance();
+        List<String> within = new ArrayList<>();
+
+        // Act
+        long inside = service.forEachWithin(service.radiusSearch("SW1A 1AA", distance + 0.01),
+                (key, latitude, longitude, d) -> within.add(PostcodeKey.toString(key)));
+        long originOnly = service.forEachWithin(service.radiusSearch("SW1A 1AA", distance - 0.01),
+                (key, latitude, longitude, d) -> assertEquals(0.0, d));
+
+        // Assert
+        assertEquals(2, inside);
+        assertEquals(List.of("EC2A 2AH", "SW1A 1AA"), within.stream().sorted().toList());
+        assertEquals(1, originOnly);
+        // One kernel call per search, as both fit in a single batch
+        verify(haversineKernel, times(2)).distances(anyDouble(), anyDouble(), anyDouble(),
+                any(double[].class), any(double[].class), any(double[].class), anyInt(), anyInt(), any(double[].class), anyInt());
+        index.shutdown();
+    }
+
+    @Test
+    void radiusSearch_InvalidRadius_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.radiusSearch("SW1A 1AA", 0));
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.radiusSearch(51.5, -0.1, 1501));
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.radiusSearch(51.5, -0.1, Double.NaN));
+    }
+
+    @Test
+    void radiusSearch_IndexNotReady_ThrowsException() {
+        // Arrange
+        when(spatialIndex.isReady()).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ServiceNotReadyException.class, () -> postalCodeService.radiusSearch(51.5, -0.1, 5));
+    }
+
+    @Test
+    void calculateDistances_StoreLoaded_ReportsErrorsInline() {
+        // Arrange
+        loadStore();
+        List<DistanceRequest> requests = Arrays.asList(
+                new DistanceRequest("SW1A 1AA", "ec2a2ah"),
+                new DistanceRequest("SW1A 1AA", "NW1 6XE"),
+                new DistanceRequest("not a postcode", "EC2A 2AH"),
+                null);
+
+        // Act
+        DistanceBatchResponse response = postalCodeService.calculateDistances(requests);
+
+        // Assert
+        assertEquals(4, response.getResults().size());
+        assertEquals(3, response.getFailed());
+        assertEquals(postalCodeService.calculateDistance("SW1A 1AA", "EC2A 2AH").getDistance(),
+                response.getResults().get(0).getDistance());
+        assertNull(response.getResults().get(0).getError());
+        assertEquals("Postcode not found: NW1 6XE", response.getResults().get(1).getError());
+        assertNull(response.getResults().get(1).getDistance());
+        assertEquals("Invalid UK postcode format for first postcode", response.getResults().get(2).getError());
+        assertEquals("Invalid UK postcode format for first postcode", response.getResults().get(3).getError());
+        verifyNoInteractions(postalCodeRepository);
+    }
+
+    @Test
+    void calculateDistances_StoreNotLoaded_ResolvesDistinctPostcodesInOneQuery() {
+        // Arrange
+        when(postalCodeRepository.findCoordinatesByPostcodeIn(any()))
+                .thenReturn(Arrays.asList(coordinates(postalCode1), coordinates(postalCode2)));
+        List<DistanceRequest> requests = Arrays.asList(
+                new DistanceRequest("SW1A 1AA", "EC2A 2AH"),
+                new DistanceRequest("EC2A 2AH", "sw1a1aa"),
+                new DistanceRequest("SW1A 1AA", "SW1A 1AA"));
+
+        // Act
+        DistanceBatchResponse response = postalCodeService.calculateDistances(requests);
+
+        // Assert
+        assertEquals(0, response.getFailed());
+        assertEquals(response.getResults().get(0).getDistance(), response.getResults().get(1).getDistance());
+        assertEquals(0.0, response.getResults().get(2).getDistance());
+        // One kernel call per distinct origin
+        verify(haversineKernel, times(2)).distances(anyDouble(), anyDouble(), anyDouble(),
+                any(double[].class), any(double[].class), any(double[].class), anyInt(), anyInt(), any(double[].class), anyInt());
+        verify(postalCodeRepository, times(1)).findCoordinatesByPostcodeIn(List.of("EC2A 2AH", "SW1A 1AA"));
+        verify(postalCodeRepository, never()).findByPostcode(any());
+    }
+
+    @Test
+    void calculateDistances_TooManyPairs_ThrowsException() {
+        List<DistanceRequest> requests = Collections.nCopies(100_001, new DistanceRequest("SW1A 1AA", "EC2A 2AH"));
+
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.calculateDistances(requests));
+    }
+
+    @Test
+    void distanceMatrix_MatchesPairwiseDistances() throws Exception {
+        // Arrange
+        loadStore();
+        double expected = postalCodeService.calculateDistance("SW1A 1AA", "EC2A 2AH").getDistance();
+        float[] values = new float[2];
+
+        // Act
+        DistanceMatrix matrix = postalCodeService.distanceMatrix(List.of("sw1a1aa"), List.of("EC2A 2AH", "SW1A 1AA"));
+        matrix.forEachBlock((firstRow, rowCount, distances) -> System.arraycopy(distances, 0, values, 0, 2));
+
+        // Assert
+        assertEquals(1, matrix.rows());
+        assertEquals(2, matrix.columns());
+        assertEquals((float) expected, values[0]);
+        assertEquals(0f, values[1]);
+    }
+
+    @Test
+    void distanceMatrix_UnknownOrInvalidPostcode_FailsFast() {
+        // Arrange
+        loadStore();
+
+        // Act & Assert
+        assertThrows(PostalCodeNotFoundException.class,
+                () -> postalCodeService.distanceMatrix(List.of("SW1A 1AA"), List.of("NW1 6XE")));
+        assertThrows(InvalidRequestException.class,
+                () -> postalCodeService.distanceMatrix(List.of("SW1A 1AA"), List.of("not a postcode")));
+    }
+
+    @Test
+    void calculateDistance_WithMode_ReportsCalculatorAndErrorBound() {
+        // Arrange
+        loadStore();
+
+        // Act
+        DistanceResponse haversine = postalCodeService.calculateDistance("SW1A 1AA", "EC2A 2AH");
+        DistanceResponse vincenty = postalCodeService.calculateDistance("SW1A 1AA", "EC2A 2AH", DistanceMode.VINCENTY);
+        DistanceResponse equirectangular = postalCodeService.calculateDistance(
+                "SW1A 1AA", "EC2A 2AH", DistanceMode.EQUIRECTANGULAR);
+
+        // Assert
+        assertEquals("haversine", haversine.getMode());
+        assertEquals("vincenty", vincenty.getMode());
+        assertEquals("equirectangular", equirectangular.getMode());
+        assertEquals(vincenty.getDistance(), haversine.getDistance(), haversine.getErrorBound());
+        assertEquals(vincenty.getDistance(), equirectangular.getDistance(), equirectangular.getErrorBound());
+        assertTrue(vincenty.getErrorBound() < 0.001);
+    }
+
+    @Test
+    void getAllPostalCodes_UnindexedSort_ThrowsException() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("latitude"));
+
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.getAllPostalCodes(pageable));
+
+        verifyNoInteractions(postalCodeRepository);
+    }
+
+    @Test
+    void getPostalCodeSlice_FollowsCursorToTheLastSlice() {
+        // Arrange
+        when(postalCodeRepository.findByPostcodeGreaterThanOrderByPostcodeAsc("", PageRequest.ofSize(2)))
+                .thenReturn(List.of(postalCode2, postalCode1));
+        when(postalCodeRepository.findByPostcodeGreaterThanOrderByPostcodeAsc("EC2A 2AH", PageRequest.ofSize(2)))
+                .thenReturn(List.of(postalCode1));
+
+        // Act
+        PostalCodeSliceResponse first = postalCodeService.getPostalCodeSlice("postcode", null, 1);
+        PostalCodeSliceResponse second = postalCodeService.getPostalCodeSlice("postcode", first.getNextCursor(), 1);
+
+        // Assert
+        assertEquals(1, first.getContent().size());
+        assertEquals("EC2A 2AH", first.getContent().get(0).getPostcode());
+        assertTrue(first.isHasNext());
+        assertEquals("SW1A 1AA", second.getContent().get(0).getPostcode());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+        verify(postalCodeRepository, never()).count();
+    }
+
+    @Test
+    void getPostalCodeSlice_PlainPostcode_StartsAfterIt() {
+        // Arrange
+        when(postalCodeRepository.findByPostcodeGreaterThanOrderByPostcodeAsc("EC2A 2AH", PageRequest.ofSize(2)))
+                .thenReturn(List.of(postalCode1));
+
+        // Act
+        PostalCodeSliceResponse slice = postalCodeService.getPostalCodeSlice("postcode", "ec2a2ah", 1);
+
+        // Assert
+        assertEquals("SW1A 1AA", slice.getContent().get(0).getPostcode());
+        assertFalse(slice.isHasNext());
+    }
+
+    @Test
+    void getPostalCodeSlice_ById_UsesIdCursor() {
+        // Arrange
+        postalCode1.setId(7L);
+        postalCode2.setId(9L);
+        when(postalCodeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(postalCode1, postalCode2));
+        when(postalCodeRepository.findByIdGreaterThanOrderByIdAsc(7L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(postalCode2));
+
+        // Act
+        PostalCodeSliceResponse first = postalCodeService.getPostalCodeSlice("id", null, 1);
+        PostalCodeSliceResponse second = postalCodeService.getPostalCodeSlice("id", first.getNextCursor(), 1);
+
+        // Assert
+        assertEquals("SW1A 1AA", first.getContent().get(0).getPostcode());
+        assertEquals("EC2A 2AH", second.getContent().get(0).getPostcode());
+        assertFalse(second.isHasNext());
+    }
+
+    @Test
+    void getPostalCodeSlice_InvalidArguments_ThrowException() {
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.getPostalCodeSlice("latitude", null, 10));
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.getPostalCodeSlice("postcode", null, 0));
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.getPostalCodeSlice("postcode", "not base64!", 10));
+        // A plain postcode is only accepted for the postcode order
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.getPostalCodeSlice("id", "SW1A 1AA", 10));
+        // A postcode cursor cannot be replayed against the id order
+        assertThrows(InvalidRequestException.class, () -> postalCodeService.getPostalCodeSlice("id",
+                Base64.getUrlEncoder().encodeToString("postcode:SW1A 1AA".getBytes()), 10));
+
+        verifyNoInteractions(postalCodeRepository);
+    }
+
+    private void loadStore() {
+        long[] keys = {
+                PostcodeKey.encode("SW1A 1AA"),
+                PostcodeKey.encode("EC2A 2AH")
+        };
+        long[] coordinates = {
+                Coordinates.pack(Coordinates.toE7(51.5035), Coordinates.toE7(-0.1277)),
+                Coordinates.pack(Coordinates.toE7(51.5200), Coordinates.toE7(-0.0800))
+        };
+        postcodeStore.load(keys, coordinates, keys.length);
+    }
+
+    private static PostalCodeCoordinates coordinates(PostalCode postalCode) {
+        return new PostalCodeCoordinates(postalCode.getPostcode(), postalCode.getLatitude(), postalCode.getLongitude());
+    }
+}
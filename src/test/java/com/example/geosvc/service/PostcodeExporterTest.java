@@ -0,0 +1,91 @@
+package com.example.geosvc.service;
+
+import com.example.geosvc.repository.PostalCodeJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostcodeExporterTest {
+
+    @Mock
+    private PostalCodeJdbcRepository postalCodeJdbcRepository;
+
+    private PostcodeExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new PostcodeExporter(postalCodeJdbcRepository);
+        lenient().doAnswer(invocation -> {
+            PostalCodeJdbcRepository.RowHandler handler = invocation.getArgument(1);
+            handler.accept("EC2A 2AH", "51.5200000", "-0.0800000");
+            handler.accept("SW1A 1AA", "51.5035000", "-0.1277000");
+            handler.accept("ZE3 9JZ", null, null);
+            return null;
+        }).when(postalCodeJdbcRepository).forEachRow(any(), any());
+    }
+
+    @Test
+    void export_Csv_WritesHeaderAndStoredDecimals() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exporter.export(null, PostcodeExporter.Format.CSV, out);
+
+        // Assert
+        assertEquals(3, count);
+        assertEquals("postcode,latitude,longitude\n" +
+                "EC2A 2AH,51.5200000,-0.0800000\n" +
+                "SW1A 1AA,51.5035000,-0.1277000\n" +
+                "ZE3 9JZ,,\n", out.toString(StandardCharsets.US_ASCII));
+        verify(postalCodeJdbcRepository).forEachRow(eq(""), any());
+    }
+
+    @Test
+    void export_Ndjson_WritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export("AB10 1XG", PostcodeExporter.Format.NDJSON, out);
+
+        assertEquals("{\"postcode\":\"EC2A 2AH\",\"latitude\":51.5200000,\"longitude\":-0.0800000}\n" +
+                "{\"postcode\":\"SW1A 1AA\",\"latitude\":51.5035000,\"longitude\":-0.1277000}\n" +
+                "{\"postcode\":\"ZE3 9JZ\",\"latitude\":null,\"longitude\":null}\n", out.toString(StandardCharsets.UTF_8));
+        verify(postalCodeJdbcRepository).forEachRow(eq("AB10 1XG"), any());
+    }
+
+    @Test
+    void export_Binary_WritesFixedSizeRecords() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exporter.export(null, PostcodeExporter.Format.BIN, out);
+
+        // Assert
+        ByteBuffer records = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(48, records.remaining());
+        byte[] postcode = new byte[8];
+        records.position(16);
+        records.get(postcode);
+        assertEquals("SW1A 1AA", new String(postcode, StandardCharsets.US_ASCII));
+        assertEquals(515_035_000, records.getInt());
+        assertEquals(-1_277_000, records.getInt());
+        records.get(postcode);
+        assertEquals("ZE3 9JZ ", new String(postcode, StandardCharsets.US_ASCII));
+        assertEquals(Integer.MIN_VALUE, records.getInt());
+        assertEquals(Integer.MIN_VALUE, records.getInt());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.geosvc.spatial;
+
+import com.example.geosvc.store.Coordinates;
+import com.example.geosvc.store.PostcodeKey;
+import com.example.geosvc.store.PostcodeStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialGridTest {
+
+    private static final int POINTS = 5000;
+
+    private PostcodeStore store;
+    private long[] keys;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        keys = new long[POINTS];
+        latitudes = new double[POINTS];
+        longitudes = new double[POINTS];
+        long[] coordinates = new long[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            keys[i] = PostcodeKey.encode(postcode(i));
+            // Denser cluster around London plus a sparse spread over the rest of the UK
+            boolean london = i % 2 == 0;
+            latitudes[i] = london ? 51.4 + random.nextDouble() * 0.2 : 50 + random.nextDouble() * 8;
+            longitudes[i] = london ? -0.2 + random.nextDouble() * 0.3 : -5 + random.nextDouble() * 6;
+            coordinates[i] = Coordinates.pack(Coordinates.toE7(latitudes[i]), Coordinates.toE7(longitudes[i]));
+        }
+        store = new PostcodeStore();
+        store.load(keys, coordinates, POINTS);
+    }
+
+    @Test
+    void nearest_MatchesBruteForce() {
+        SpatialGrid grid = SpatialGrid.build(store);
+        double[][] queries = {{51.5035, -0.1277}, {55.95, -3.19}, {50.1, -5.5}, {60.0, 1.0}, {51.45, -0.05}};
+
+        for (double[] query : queries) {
+            NearestNeighbours result = grid.nearest(query[0], query[1], 25, PostcodeKey.INVALID);
+
+            Integer[] expected = bruteForce(query[0], query[1]);
+            assertEquals(25, result.size());
+            for (int i = 0; i < result.size(); i++) {
+                assertEquals(keys[expected[i]], result.key(i), "rank " + i + " for " + Arrays.toString(query));
+            }
+        }
+    }
+
+    @Test
+    void nearest_ExcludesKey() {
+        SpatialGrid grid = SpatialGrid.build(store);
+
+        NearestNeighbours result = grid.nearest(latitudes[0], longitudes[0], 1, keys[0]);
+
+        assertEquals(1, result.size());
+        assertNotEquals(keys[0], result.key(0));
+        assertEquals(keys[bruteForce(latitudes[0], longitudes[0])[1]], result.key(0));
+    }
+
+    @Test
+    void nearest_MoreThanAvailable_ReturnsEverything() {
+        SpatialGrid grid = SpatialGrid.build(store);
+
+        NearestNeighbours result = grid.nearest(51.5, -0.1, POINTS + 10, PostcodeKey.INVALID);
+
+        assertEquals(POINTS, result.size());
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.approximateDistance(i - 1) <= result.approximateDistance(i));
+        }
+    }
+
+    @Test
+    void forEachInBox_MatchesBruteForce() {
+        SpatialGrid grid = SpatialGrid.build(store);
+        Set<Long> visited = new HashSet<>();
+
+        grid.forEachInBox(51.45, 51.55, -0.15, 0.0, (key, coordinates) -> assertTrue(visited.add(key)));
+
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < POINTS; i++) {
+            int latitude = Coordinates.toE7(latitudes[i]);
+            int longitude = Coordinates.toE7(longitudes[i]);
+            if (latitude >= 514_500_000 && latitude <= 515_500_000 && longitude >= -1_500_000 && longitude <= 0) {
+                expected.add(keys[i]);
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void build_SkipsMissingAndOutOfRangeCoordinates() {
+        PostcodeStore sparse = new PostcodeStore();
+        sparse.load(
+                new long[]{PostcodeKey.encode("AB1 1AA"), PostcodeKey.encode("AB1 1AB"), PostcodeKey.encode("AB1 1AD")},
+                new long[]{
+                        Coordinates.pack(Coordinates.toE7(57.1), Coordinates.toE7(-2.1)),
+                        Coordinates.pack(Coordinates.NO_COORDINATE, Coordinates.NO_COORDINATE),
+                        Coordinates.pack(Coordinates.toE7(99.999999), 0)},
+                3);
+
+        assertEquals(1, SpatialGrid.build(sparse).size());
+    }
+
+    private Integer[] bruteForce(double latitude, double longitude) {
+        double scale = Math.cos(Math.toRadians(latitude));
+        return IntStream.range(0, POINTS).boxed()
+                .sorted(Comparator.comparingDouble(i -> {
+                    double dy = latitudes[i] - latitude;
+                    double dx = (longitudes[i] - longitude) * scale;
+                    return dx * dx + dy * dy;
+                }))
+                .toArray(Integer[]::new);
+    }
+
+    private static String postcode(int n) {
+        return "A" + (char) ('A' + n / 1000 % 26) + (n / 100 % 10) + " " + (n / 10 % 10) + (char) ('A' + n % 10) + "A";
+    }
+}
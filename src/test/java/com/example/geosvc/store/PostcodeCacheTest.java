@@ -0,0 +1,138 @@
+package com.example.geosvc.store;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostcodeCacheTest {
+
+    private static final long KEY = PostcodeKey.encode("SW1A 1AA");
+    private static final long OTHER_KEY = PostcodeKey.encode("EC2A 2AH");
+    private static final long COORDINATES = Coordinates.pack(515_035_000, -1_277_000);
+
+    private SimpleMeterRegistry registry;
+    private PostcodeCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new PostcodeCache(registry, 100, Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void find_LoadsOnceAndRecordsHits() {
+        AtomicInteger loads = new AtomicInteger();
+
+        long first = cache.find(KEY, key -> {
+            loads.incrementAndGet();
+            return COORDINATES;
+        });
+        long second = cache.find(KEY, key -> {
+            loads.incrementAndGet();
+            return COORDINATES;
+        });
+
+        assertEquals(COORDINATES, first);
+        assertEquals(COORDINATES, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "postcodes").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "postcodes").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void find_CachesUnknownPostcodes() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(PostcodeStore.NOT_FOUND, cache.find(KEY, key -> {
+                loads.incrementAndGet();
+                return PostcodeStore.NOT_FOUND;
+            }));
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void findAll_LoadsOnlyMissingKeysAndCachesTheRestAsNotFound() {
+        cache.find(KEY, key -> COORDINATES);
+        List<Long> requested = List.of(KEY, OTHER_KEY);
+
+        Map<Long, Long> found = cache.findAll(requested, missing -> {
+            assertEquals(1, missing.size());
+            assertTrue(missing.contains(OTHER_KEY));
+            return new HashMap<>();
+        });
+
+        assertEquals(COORDINATES, found.get(KEY));
+        assertEquals(PostcodeStore.NOT_FOUND, found.get(OTHER_KEY));
+        assertEquals(PostcodeStore.NOT_FOUND, cache.find(OTHER_KEY, key -> fail("should be cached")));
+    }
+
+    @Test
+    void onPostcodeChanged_ReplacesCachedValue() {
+        cache.find(KEY, key -> PostcodeStore.NOT_FOUND);
+
+        cache.onPostcodeChanged(new PostcodeChangedEvent(KEY, COORDINATES));
+
+        assertEquals(COORDINATES, cache.find(KEY, key -> fail("should be cached")));
+    }
+
+    @Test
+    void find_ConcurrentMissesWaitForOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Long> first = executor.submit(() -> cache.find(KEY, key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return COORDINATES;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Long> second = executor.submit(() -> cache.find(KEY, key -> {
+                loads.incrementAndGet();
+                return COORDINATES;
+            }));
+            // The first load is still running, so the cache must not be locked by it
+            assertEquals(COORDINATES, cache.find(OTHER_KEY, key -> COORDINATES));
+            release.countDown();
+
+            assertEquals(COORDINATES, first.get(5, TimeUnit.SECONDS));
+            assertEquals(COORDINATES, second.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void find_FailedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.find(KEY, key -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+
+        assertEquals(COORDINATES, cache.find(KEY, key -> COORDINATES));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.geosvc.store;
+
+import com.example.geosvc.repository.PostcodeChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two replicas sharing one change log in an embedded H2 database.
+ */
+class PostcodeChangeFeedTest {
+
+    private static final long SW1A = PostcodeKey.encode("SW1A 1AA");
+    private static final long EC2A = PostcodeKey.encode("EC2A 2AH");
+    private static final long NW1 = PostcodeKey.encode("NW1 6XE");
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private PostcodeChangeRepository changeRepository;
+    private PostcodeChangeFeed writer;
+    private PostcodeChangeFeed replica;
+    private PostcodeStore replicaStore;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("postcode_changes.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        changeRepository = new PostcodeChangeRepository(jdbcTemplate);
+
+        writer = new PostcodeChangeFeed(changeRepository, event -> { }, Duration.ofSeconds(1), Duration.ofHours(24));
+        replicaStore = new PostcodeStore();
+        replicaStore.load(new long[0], new long[0], 0);
+        replica = new PostcodeChangeFeed(changeRepository,
+                event -> replicaStore.onPostcodesChanged((PostcodesChangedEvent) event),
+                Duration.ofSeconds(1), Duration.ofHours(24));
+        replica.poll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void poll_ChangeCommittedOnAnotherReplica_IsApplied() {
+        // Arrange
+        transactionTemplate.executeWithoutResult(status ->
+                writer.onPostcodeChanged(new PostcodeChangedEvent(SW1A, Coordinates.pack(515_035_000, -1_277_000))));
+
+        // Act
+        int applied = replica.poll();
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals(Coordinates.pack(515_035_000, -1_277_000), replicaStore.find(SW1A));
+        assertEquals(0, replica.poll());
+    }
+
+    @Test
+    void poll_RolledBackChange_IsNeverApplied() {
+        // Arrange
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.onPostcodeChanged(new PostcodeChangedEvent(SW1A, Coordinates.pack(1, 1)));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                writer.onPostcodeChanged(new PostcodeChangedEvent(EC2A, Coordinates.pack(2, 2))));
+
+        // Act
+        int applied = replica.poll();
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals(PostcodeStore.NOT_FOUND, replicaStore.find(SW1A));
+        assertEquals(Coordinates.pack(2, 2), replicaStore.find(EC2A));
+    }
+
+    @Test
+    void poll_LateCommit_AppliedUnlessNewerVersionSeen() {
+        // Arrange: versions 2 and 4 commit before 1 and 3
+        insert(2, "SW1A 1AA", "51.5035000", "-0.1277000");
+        insert(4, "EC2A 2AH", "51.5200000", "-0.0800000");
+        assertEquals(2, replica.poll());
+        insert(1, "SW1A 1AA", "50.0000000", "-1.0000000");
+        insert(3, "NW1 6XE", "51.5230000", "-0.1585000");
+
+        // Act
+        int applied = replica.poll();
+
+        // Assert
+        assertEquals(1, applied);
+        assertEquals(Coordinates.pack(515_035_000, -1_277_000), replicaStore.find(SW1A));
+        assertEquals(Coordinates.pack(515_230_000, -1_585_000), replicaStore.find(NW1));
+        assertEquals(4, replica.lastVersion());
+    }
+
+    @Test
+    void onPostcodesChanged_ReplicatedBatch_IsNotRecordedAgain() {
+        long[] keys = {SW1A, EC2A};
+        long[] coordinates = {Coordinates.pack(1, 1), Coordinates.pack(2, 2)};
+
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.onPostcodesChanged(new PostcodesChangedEvent(keys, coordinates, 2, true));
+            writer.onPostcodesChanged(new PostcodesChangedEvent(keys, coordinates, 1));
+        });
+
+        assertEquals(1, changeRepository.latestVersion());
+        assertEquals(1, replica.poll());
+    }
+
+    @Test
+    void deleteOlderThan_RemovesExpiredChanges() {
+        insert(1, "SW1A 1AA", "51.5035000", "-0.1277000");
+
+        assertEquals(0, changeRepository.deleteOlderThan(Instant.now().minus(Duration.ofHours(1))));
+        assertEquals(1, changeRepository.deleteOlderThan(Instant.now().plus(Duration.ofHours(1))));
+    }
+
+    private void insert(long version, String postcode, String latitude, String longitude) {
+        jdbcTemplate.update("INSERT INTO postcode_changes (version, postcode, latitude, longitude) VALUES (?, ?, ?, ?)",
+                version, postcode, new BigDecimal(latitude), new BigDecimal(longitude));
+    }
+}
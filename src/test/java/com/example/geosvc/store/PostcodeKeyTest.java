@@ -0,0 +1,65 @@
+package com.example.geosvc.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostcodeKeyTest {
+
+    @Test
+    void encode_EquivalentSpellings_ProduceSameKey() {
+        long key = PostcodeKey.encode("SW1A 1AA");
+
+        assertNotEquals(PostcodeKey.INVALID, key);
+        assertEquals(key, PostcodeKey.encode("SW1A1AA"));
+        assertEquals(key, PostcodeKey.encode("sw1a 1aa"));
+        assertEquals(key, PostcodeKey.encode("  Sw1A   1aA "));
+    }
+
+    @Test
+    void toString_ReturnsCanonicalText() {
+        assertEquals("SW1A 1AA", PostcodeKey.toString(PostcodeKey.encode("sw1a1aa")));
+        assertEquals("M1 1AE", PostcodeKey.toString(PostcodeKey.encode("M11AE")));
+        assertEquals("B33 8TH", PostcodeKey.toString(PostcodeKey.encode("b338th")));
+        assertEquals("CR2 6XH", PostcodeKey.toString(PostcodeKey.encode("CR2 6XH")));
+        assertEquals("DN55 1PT", PostcodeKey.toString(PostcodeKey.encode("DN551PT")));
+        assertEquals("W1A 0AX", PostcodeKey.toString(PostcodeKey.encode("W1A0AX")));
+    }
+
+    @Test
+    void encode_BytesMatchesCharSequence() {
+        byte[] line = "x,ec2a2ah,y".getBytes();
+
+        assertEquals(PostcodeKey.encode("EC2A 2AH"), PostcodeKey.encode(line, 2, 7));
+    }
+
+    @Test
+    void encode_InvalidPostcodes_ReturnInvalid() {
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode(null));
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode(""));
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode("INVALID"));
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode("SW1A 1A"));
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode("SW1A 1AAA"));
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode("1W1A 1AA"));
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode("S11A 1AA"));
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode("SWA 1AA"));
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode("SW1A-1AA"));
+        assertEquals(PostcodeKey.INVALID, PostcodeKey.encode("SW1A 11A"));
+    }
+
+    @Test
+    void encode_KeyOrderMatchesCanonicalTextOrder() {
+        String[] sorted = {"AB1 0AA", "AB1 1AA", "AB10 1AA", "AB1A 1AA", "B1 1AA", "EC2A 2AH", "SW1A 1AA"};
+
+        for (int i = 1; i < sorted.length; i++) {
+            assertTrue(sorted[i - 1].compareTo(sorted[i]) < 0);
+            assertTrue(PostcodeKey.encode(sorted[i - 1]) < PostcodeKey.encode(sorted[i]));
+        }
+    }
+
+    @Test
+    void normalize_InvalidPostcode_ReturnsInputUnchanged() {
+        assertEquals("SW1A 1AA", PostcodeKey.normalize("sw1a1aa"));
+        assertEquals("INVALID", PostcodeKey.normalize("INVALID"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.geosvc.store;
+
+import com.example.geosvc.repository.PostcodeTableVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostcodeSnapshotTest {
+
+    private static final PostcodeTableVersion VERSION = new PostcodeTableVersion(3, 42, 1_700_000_000_000L);
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+    private PostcodeStore store;
+
+    @BeforeEach
+    void setUp() {
+        path = directory.resolve("snapshots/postcodes.snapshot");
+        store = new PostcodeStore();
+        store.load(new long[]{PostcodeKey.encode("SW1A 1AA"), PostcodeKey.encode("EC2A 2AH"), PostcodeKey.encode("ZE3 9JZ")},
+                new long[]{Coordinates.pack(515_035_000, -1_277_000), Coordinates.pack(515_200_000, -800_000),
+                        Coordinates.pack(Coordinates.NO_COORDINATE, Coordinates.NO_COORDINATE)}, 3);
+    }
+
+    @Test
+    void write_ThenRead_RestoresStoreAndVersion() throws Exception {
+        // Arrange
+        PostcodeSnapshot.write(path, VERSION, store);
+        PostcodeStore restored = new PostcodeStore();
+
+        // Act
+        PostcodeSnapshot snapshot = PostcodeSnapshot.read(path);
+        snapshot.loadInto(restored);
+
+        // Assert
+        assertEquals(VERSION, snapshot.getTableVersion());
+        assertEquals(3, restored.size());
+        assertEquals(Coordinates.pack(515_035_000, -1_277_000), restored.find(PostcodeKey.encode("SW1A 1AA")));
+        assertEquals(Coordinates.pack(515_200_000, -800_000), restored.find(PostcodeKey.encode("EC2A 2AH")));
+        assertFalse(Coordinates.hasCoordinates(restored.find(PostcodeKey.encode("ZE3 9JZ"))));
+        assertEquals(PostcodeSnapshot.HEADER_SIZE + 3 * 16, Files.size(path));
+        try (var files = Files.list(path.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void read_CorruptedColumn_FailsChecksum() throws Exception {
+        PostcodeSnapshot.write(path, VERSION, store);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), PostcodeSnapshot.HEADER_SIZE + 5);
+        }
+
+        IOException e = assertThrows(IOException.class, () -> PostcodeSnapshot.read(path));
+
+        assertTrue(e.getMessage().contains("checksum"));
+    }
+
+    @Test
+    void read_TruncatedFile_Throws() throws Exception {
+        PostcodeSnapshot.write(path, VERSION, store);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(path) - 4);
+        }
+
+        IOException e = assertThrows(IOException.class, () -> PostcodeSnapshot.read(path));
+
+        assertTrue(e.getMessage().contains("truncated"));
+    }
+
+    @Test
+    void read_MissingFile_ThrowsNoSuchFile() {
+        assertThrows(NoSuchFileException.class, () -> PostcodeSnapshot.read(path));
+    }
+}
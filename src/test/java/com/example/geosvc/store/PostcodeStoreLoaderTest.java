@@ -0,0 +1,117 @@
+package com.example.geosvc.store;
+
+import com.example.geosvc.repository.PostalCodeJdbcRepository;
+import com.example.geosvc.repository.PostcodeTableVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostcodeStoreLoaderTest {
+
+    private static final PostcodeTableVersion VERSION = new PostcodeTableVersion(2, 2, 1_600_000_000_000L);
+
+    @Mock
+    private PostalCodeJdbcRepository postalCodeJdbcRepository;
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+
+    @BeforeEach
+    void setUp() {
+        path = directory.resolve("postcodes.snapshot");
+        lenient().doAnswer(invocation -> {
+            PostalCodeJdbcRepository.CoordinateHandler handler = invocation.getArgument(0);
+            handler.accept("SW1A 1AA", 51.5035, -0.1277);
+            handler.accept("EC2A 2AH", 51.52, -0.08);
+            return null;
+        }).when(postalCodeJdbcRepository).forEachCoordinate(any());
+    }
+
+    @Test
+    void run_NoSnapshot_LoadsFromDatabaseAndWritesOne() throws Exception {
+        // Arrange
+        when(postalCodeJdbcRepository.readTableVersion()).thenReturn(VERSION);
+        PostcodeStore store = new PostcodeStore();
+
+        // Act
+        new PostcodeStoreLoader(postalCodeJdbcRepository, store, path.toString()).run(null);
+
+        // Assert
+        assertEquals(2, store.size());
+        PostcodeSnapshot snapshot = PostcodeSnapshot.read(path);
+        assertEquals(VERSION, snapshot.getTableVersion());
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void run_CurrentSnapshot_SkipsDatabaseRows() {
+        // Arrange
+        when(postalCodeJdbcRepository.readTableVersion()).thenReturn(VERSION);
+        new PostcodeStoreLoader(postalCodeJdbcRepository, new PostcodeStore(), path.toString()).run(null);
+        clearInvocations(postalCodeJdbcRepository);
+        PostcodeStore store = new PostcodeStore();
+
+        // Act
+        new PostcodeStoreLoader(postalCodeJdbcRepository, store, path.toString()).run(null);
+
+        // Assert
+        assertTrue(store.isLoaded());
+        assertEquals(Coordinates.pack(515_035_000, -1_277_000), store.find(PostcodeKey.encode("SW1A 1AA")));
+        verify(postalCodeJdbcRepository, never()).forEachCoordinate(any());
+    }
+
+    @Test
+    void run_StaleSnapshot_ReloadsAndRewritesIt() throws Exception {
+        // Arrange
+        PostcodeTableVersion changed = new PostcodeTableVersion(2, 2, 1_700_000_000_000L);
+        when(postalCodeJdbcRepository.readTableVersion()).thenReturn(VERSION, changed);
+        new PostcodeStoreLoader(postalCodeJdbcRepository, new PostcodeStore(), path.toString()).run(null);
+        PostcodeStore store = new PostcodeStore();
+
+        // Act
+        new PostcodeStoreLoader(postalCodeJdbcRepository, store, path.toString()).run(null);
+
+        // Assert
+        assertEquals(2, store.size());
+        verify(postalCodeJdbcRepository, times(2)).forEachCoordinate(any());
+        assertEquals(changed, PostcodeSnapshot.read(path).getTableVersion());
+    }
+
+    @Test
+    void run_UnknownUpdateTime_IgnoresSnapshot() throws Exception {
+        // Arrange
+        when(postalCodeJdbcRepository.readTableVersion()).thenReturn(VERSION, new PostcodeTableVersion(2, 2, 0));
+        new PostcodeStoreLoader(postalCodeJdbcRepository, new PostcodeStore(), path.toString()).run(null);
+        PostcodeStore store = new PostcodeStore();
+
+        // Act
+        new PostcodeStoreLoader(postalCodeJdbcRepository, store, path.toString()).run(null);
+
+        // Assert
+        assertEquals(2, store.size());
+        verify(postalCodeJdbcRepository, times(2)).forEachCoordinate(any());
+        assertEquals(VERSION, PostcodeSnapshot.read(path).getTableVersion());
+    }
+
+    @Test
+    void run_SnapshotDisabled_DoesNotReadTableVersion() {
+        PostcodeStore store = new PostcodeStore();
+
+        new PostcodeStoreLoader(postalCodeJdbcRepository, store, "").run(null);
+
+        assertEquals(2, store.size());
+        verify(postalCodeJdbcRepository, never()).readTableVersion();
+    }
+}
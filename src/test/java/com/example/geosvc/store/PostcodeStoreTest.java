@@ -0,0 +1,126 @@
+package com.example.geosvc.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostcodeStoreTest {
+
+    private PostcodeStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new PostcodeStore();
+    }
+
+    @Test
+    void load_UnsortedInput_FindsEveryKey() {
+        int count = 1000;
+        long[] keys = new long[count];
+        long[] coordinates = new long[count];
+        for (int i = 0; i < count; i++) {
+            int n = (i * 7919) % count;
+            keys[i] = PostcodeKey.encode(postcode(n));
+            coordinates[i] = Coordinates.pack(n, -n);
+        }
+
+        store.load(keys, coordinates, count);
+
+        assertTrue(store.isLoaded());
+        assertEquals(count, store.size());
+        for (int n = 0; n < count; n++) {
+            long found = store.find(PostcodeKey.encode(postcode(n)));
+            assertEquals(n, Coordinates.latitudeE7(found));
+            assertEquals(-n, Coordinates.longitudeE7(found));
+        }
+        assertEquals(PostcodeStore.NOT_FOUND, store.find(PostcodeKey.encode("ZZ1 1ZZ")));
+    }
+
+    @Test
+    void load_DuplicateKeys_KeepsSingleEntry() {
+        long key = PostcodeKey.encode("SW1A 1AA");
+
+        store.load(new long[]{key, key}, new long[]{Coordinates.pack(1, 1), Coordinates.pack(1, 1)}, 2);
+
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void put_ExistingAndNewKeys_UpdatesStore() {
+        long existing = PostcodeKey.encode("SW1A 1AA");
+        store.load(new long[]{existing}, new long[]{Coordinates.pack(1, 1)}, 1);
+
+        store.put(existing, Coordinates.pack(2, 2));
+        store.put(PostcodeKey.encode("EC2A 2AH"), Coordinates.pack(3, 3));
+
+        assertEquals(2, store.size());
+        assertEquals(Coordinates.pack(2, 2), store.find(PostcodeKey.encode("SW1A 1AA")));
+        assertEquals(Coordinates.pack(3, 3), store.find(PostcodeKey.encode("EC2A 2AH")));
+    }
+
+    @Test
+    void put_BeforeLoad_IsAppliedAfterLoad() {
+        long key = PostcodeKey.encode("SW1A 1AA");
+
+        store.put(key, Coordinates.pack(2, 2));
+        store.load(new long[]{key}, new long[]{Coordinates.pack(1, 1)}, 1);
+
+        assertEquals(Coordinates.pack(2, 2), store.find(key));
+    }
+
+    @Test
+    void putAll_MergesNewKeysAndUpdatesExistingOnes() {
+        int count = 100;
+        long[] keys = new long[count];
+        long[] coordinates = new long[count];
+        for (int n = 0; n < count; n += 2) {
+            keys[n / 2] = PostcodeKey.encode(postcode(n));
+            coordinates[n / 2] = Coordinates.pack(n, n);
+        }
+        store.load(keys, coordinates, count / 2);
+
+        // Every postcode, in reverse order, so half are updates and half are new
+        for (int n = 0; n < count; n++) {
+            keys[count - 1 - n] = PostcodeKey.encode(postcode(n));
+            coordinates[count - 1 - n] = Coordinates.pack(-n, -n);
+        }
+        store.putAll(keys, coordinates, count);
+
+        assertEquals(count, store.size());
+        long[] previous = {Long.MIN_VALUE};
+        store.forEach((key, value) -> {
+            assertTrue(key > previous[0]);
+            previous[0] = key;
+        });
+        for (int n = 0; n < count; n++) {
+            assertEquals(Coordinates.pack(-n, -n), store.find(PostcodeKey.encode(postcode(n))));
+        }
+    }
+
+    @Test
+    void putAll_BeforeLoad_IsAppliedAfterLoad() {
+        long key = PostcodeKey.encode("SW1A 1AA");
+
+        store.putAll(new long[]{key}, new long[]{Coordinates.pack(2, 2)}, 1);
+        store.load(new long[]{key}, new long[]{Coordinates.pack(1, 1)}, 1);
+
+        assertEquals(Coordinates.pack(2, 2), store.find(key));
+    }
+
+    @Test
+    void onPostcodeChanged_UpdatesCoordinates() {
+        store.load(new long[0], new long[0], 0);
+
+        long key = PostcodeKey.encode("SW1A 1AA");
+        store.onPostcodeChanged(new PostcodeChangedEvent(key, Coordinates.pack(515035000, Coordinates.NO_COORDINATE)));
+
+        long coordinates = store.find(key);
+        assertEquals(515035000, Coordinates.latitudeE7(coordinates));
+        assertFalse(Coordinates.hasCoordinates(coordinates));
+    }
+
+    private static String postcode(int n) {
+        return "A" + (n / 100) + (char) ('A' + (n / 10) % 10) + " " + (n % 10) + "AA";
+    }
+}
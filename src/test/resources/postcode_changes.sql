@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS `postcode_changes` (
+  `version` bigint NOT NULL AUTO_INCREMENT,
+  `postcode` varchar(8) NOT NULL,
+  `latitude` decimal(10,7) NULL,
+  `longitude` decimal(10,7) NULL,
+  `changed_at` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`version`),
+  KEY `ix_postcode_changes_changed_at` (`changed_at`)
+) ENGINE=InnoDB;
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS `revoked_users` (
+  `username` varchar(255) NOT NULL,
+  `revoked_at` bigint NOT NULL,
+  PRIMARY KEY (`username`),
+  KEY `ix_revoked_users_revoked_at` (`revoked_at`)
+) ENGINE=InnoDB;